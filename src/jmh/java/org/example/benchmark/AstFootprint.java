@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.LexerImpl;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.parser.ParserImpl;
+import org.example.programstructure.arena.AstArena;
+import org.example.programstructure.containers.FunctionDefinition;
+import org.example.programstructure.containers.LazyFunctionDefinition;
+import org.example.programstructure.containers.Program;
+import org.example.programstructure.containers.UserClassDefinition;
+
+import java.io.StringReader;
+import java.lang.ref.Reference;
+
+/**
+ * Compares the heap retained by the record AST of a generated program with the heap retained by its AstArena,
+ * and with the heap retained while a program decoded from the arena runs once all of its functions have been called.
+ * The interpreter runs on records, so by then the arena is held together with the records of every body.
+ * Sizes are measured as the growth of the used heap after full collections, so run it with a quiet JVM:
+ * <pre>
+ * gradle astFootprint --args="50MB"
+ * </pre>
+ */
+public class AstFootprint {
+
+	private static final int COLLECTIONS = 5;
+
+	public static void main(String[] args) {
+		final int size = SourceGenerator.parseSize(args.length > 0 ? args[0] : "10MB");
+		System.out.printf("%-12s %10s %14s %14s %14s %8s %16s%n", "shape", "nodes", "records [B]", "arena [B]",
+				"arena arrays", "ratio", "all called [B]");
+		for (SourceGenerator.Shape shape : SourceGenerator.Shape.values()) {
+			final String text = SourceGenerator.generate(shape, size);
+			final long baseline = usedHeap();
+
+			Program program = parse(text);
+			final long records = usedHeap() - baseline;
+
+			final AstArena arena = AstArena.encode(program);
+			program = null;
+			final long compact = usedHeap() - baseline;
+
+			final Program decoded = arena.toProgram();
+			callAll(decoded);
+			final long called = usedHeap() - baseline;
+
+			System.out.printf("%-12s %10d %14d %14d %14d %8.2f %16d%n", shape, arena.nodeCount(), records, compact,
+					arena.arrayBytes(), (double) records / compact, called);
+			Reference.reachabilityFence(decoded);
+			Reference.reachabilityFence(arena);
+			Reference.reachabilityFence(text);
+		}
+	}
+
+	private static Program parse(String text) {
+		var lexer = new LexerImpl(new BufferedCharacterSource(new StringReader(text)), ErrorManager::handleError, true);
+		return new ParserImpl(lexer, ErrorManager::handleError).parse();
+	}
+
+	// builds the records of every body, as the first calls of the functions do
+	private static void callAll(Program program) {
+		program.functionDefinitions().values().forEach(AstFootprint::resolve);
+		program.classDefinitions().values().forEach(classDefinition ->
+				((UserClassDefinition) classDefinition).methods().values().forEach(AstFootprint::resolve));
+	}
+
+	private static void resolve(FunctionDefinition functionDefinition) {
+		if (functionDefinition instanceof LazyFunctionDefinition lazyFunctionDefinition) {
+			lazyFunctionDefinition.resolve();
+		}
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < COLLECTIONS; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,64 @@
+package org.example.benchmark;
+
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.lexer.LexerImpl;
+import org.example.parser.ParserImpl;
+import org.example.programstructure.containers.Program;
+import org.example.vm.VirtualMachine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of running a program of examples/ on the Interpreter and on the VirtualMachine, parsing excluded
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BackendBenchmark {
+
+	public enum Backend {
+		INTERPRETER,
+		VM
+	}
+
+	@Param({"counter", "definitions", "factorial", "fibonacci", "value"})
+	public String example;
+
+	@Param({"INTERPRETER", "VM"})
+	public Backend backend;
+
+	private String text;
+	private Program program;
+
+	@Setup(Level.Trial)
+	public void read() throws IOException {
+		text = Files.readString(Path.of("examples", example + ".txt"));
+	}
+
+	// running a program adds the built-ins to it, so every invocation gets a fresh one
+	@Setup(Level.Invocation)
+	public void parse() {
+		var lexer = new LexerImpl(new BufferedReader(new StringReader(text)), ErrorManager::handleError);
+		program = new ParserImpl(lexer, ErrorManager::handleError).parse();
+	}
+
+	@Benchmark
+	public String run() {
+		if (backend == Backend.VM) {
+			var virtualMachine = new VirtualMachine(ErrorManager::handleError, true);
+			virtualMachine.execute(program);
+			return virtualMachine.getOutput();
+		}
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(program);
+		return interpreter.getOutput();
+	}
+
+}
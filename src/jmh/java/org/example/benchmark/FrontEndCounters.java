@@ -0,0 +1,30 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Amount of input consumed by the benchmark, reported by JMH per second, i.e. in MB/s and tokens/s
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class FrontEndCounters {
+
+	public double megabytes;
+	public long tokens;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		megabytes = 0;
+		tokens = 0;
+	}
+
+	void add(double megabytes, long tokens) {
+		this.megabytes += megabytes;
+		this.tokens += tokens;
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.Lexer;
+import org.example.lexer.LexerImpl;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.lexer.source.MappedCharacterSource;
+import org.example.token.TokenType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of LexerImpl.next() over a whole generated program, read from memory, from a file
+ * through a reader and from a memory-mapped file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LexerBenchmark {
+
+	@Param({"10KB", "1MB", "50MB"})
+	public String size;
+
+	@Param({"IDENTIFIERS", "LITERALS", "NESTED"})
+	public SourceGenerator.Shape shape;
+
+	private String text;
+	private Path file;
+	private double megabytes;
+
+	@Setup(Level.Trial)
+	public void generate() throws IOException {
+		text = SourceGenerator.generate(shape, SourceGenerator.parseSize(size));
+		file = Files.createTempFile("lexer-benchmark", ".txt");
+		Files.writeString(file, text, StandardCharsets.UTF_8);
+		megabytes = (double) Files.size(file) / (1 << 20);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public long lexString(FrontEndCounters counters) {
+		var lexer = new LexerImpl(new BufferedCharacterSource(new StringReader(text)), ErrorManager::handleError);
+		return count(lexer, counters);
+	}
+
+	@Benchmark
+	public long lexFile(FrontEndCounters counters) throws IOException {
+		try (var reader = new FileReader(file.toFile(), StandardCharsets.UTF_8)) {
+			return count(new LexerImpl(new BufferedCharacterSource(reader), ErrorManager::handleError), counters);
+		}
+	}
+
+	@Benchmark
+	public long lexMappedFile(FrontEndCounters counters) throws IOException {
+		try (var source = MappedCharacterSource.open(file)) {
+			return count(new LexerImpl(source, ErrorManager::handleError), counters);
+		}
+	}
+
+	private long count(Lexer lexer, FrontEndCounters counters) {
+		long tokens = 1;
+		while (lexer.next().getType() != TokenType.END_OF_FILE) {
+			tokens++;
+		}
+		counters.add(megabytes, tokens);
+		return tokens;
+	}
+
+}
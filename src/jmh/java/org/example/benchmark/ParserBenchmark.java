@@ -0,0 +1,52 @@
+package org.example.benchmark;
+
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.LexerImpl;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.parser.ParserImpl;
+import org.example.programstructure.containers.Program;
+import org.example.token.TokenType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of ParserImpl.parse() together with the lexer feeding it, over a whole generated program
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParserBenchmark {
+
+	@Param({"10KB", "1MB", "50MB"})
+	public String size;
+
+	@Param({"IDENTIFIERS", "LITERALS", "NESTED"})
+	public SourceGenerator.Shape shape;
+
+	private String text;
+	private double megabytes;
+	private long tokens;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		text = SourceGenerator.generate(shape, SourceGenerator.parseSize(size));
+		megabytes = (double) text.getBytes(StandardCharsets.UTF_8).length / (1 << 20);
+		var lexer = new LexerImpl(new BufferedCharacterSource(new StringReader(text)), ErrorManager::handleError);
+		tokens = 1;
+		while (lexer.next().getType() != TokenType.END_OF_FILE) {
+			tokens++;
+		}
+	}
+
+	@Benchmark
+	public Program parse(FrontEndCounters counters) {
+		var lexer = new LexerImpl(new BufferedCharacterSource(new StringReader(text)), ErrorManager::handleError);
+		Program program = new ParserImpl(lexer, ErrorManager::handleError).parse();
+		counters.add(megabytes, tokens);
+		return program;
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.example.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates syntactically correct programs of a given size, made of functions of one shape
+ */
+public class SourceGenerator {
+
+	private static final long SEED = 20230601L;
+	private static final int NESTING_DEPTH = 24;
+	private static final String[] WORDS = {
+			"licznik", "wartość", "suma", "element", "indeks", "wynik", "pośredni", "żółw", "ścieżka", "długość"
+	};
+
+	public enum Shape {
+		IDENTIFIERS,	// long identifiers, attribute accesses and method calls
+		LITERALS,		// integers, floats, texts and booleans
+		NESTED			// deeply nested statements and parenthesized expressions
+	}
+
+	private final Random random = new Random(SEED);
+	private final StringBuilder builder;
+	private int functionCount;
+
+	private SourceGenerator(int capacity) {
+		this.builder = new StringBuilder(capacity + capacity / 8);
+	}
+
+	/**
+	 * @param size number of characters, the program ends with the first function which reaches it
+	 */
+	public static String generate(Shape shape, int size) {
+		final var generator = new SourceGenerator(size);
+		while (generator.builder.length() < size) {
+			switch (shape) {
+				case IDENTIFIERS -> generator.appendIdentifierFunction();
+				case LITERALS -> generator.appendLiteralFunction();
+				case NESTED -> generator.appendNestedFunction();
+			}
+		}
+		return generator.builder.toString();
+	}
+
+	/**
+	 * @param size e.g. "10KB", "1MB" or "50MB"
+	 * @return number of bytes
+	 */
+	public static int parseSize(String size) {
+		if (size.endsWith("MB")) {
+			return Integer.parseInt(size.substring(0, size.length() - 2)) << 20;
+		}
+		if (size.endsWith("KB")) {
+			return Integer.parseInt(size.substring(0, size.length() - 2)) << 10;
+		}
+		return Integer.parseInt(size);
+	}
+
+	private void appendIdentifierFunction() {
+		appendFunctionHeader();
+		for (int i = 0; i < 20; i++) {
+			builder.append("\t").append(identifier()).append(" = ")
+					.append(identifier()).append('.').append(identifier()).append(" + ")
+					.append(identifier()).append(" * ").append(identifier()).append(";\n");
+			builder.append("\t").append(identifier()).append('.').append(identifier())
+					.append('(').append(identifier()).append(", ").append(identifier()).append(");\n");
+		}
+		builder.append("\tzwróć ").append(identifier()).append(";\n}\n\n");
+	}
+
+	private void appendLiteralFunction() {
+		appendFunctionHeader();
+		for (int i = 0; i < 20; i++) {
+			builder.append("\tliczba = ").append(random.nextInt(Integer.MAX_VALUE))
+					.append(" + ").append(random.nextLong() >>> 1)
+					.append(" * ").append(random.nextInt(1000)).append('.').append(random.nextInt(1_000_000)).append(";\n");
+			builder.append("\ttekst = \"").append(WORDS[random.nextInt(WORDS.length)])
+					.append(" \\\"").append(random.nextInt(100)).append("\\\"\\n\";\n");
+			builder.append("\tflaga = ").append(random.nextBoolean() ? "prawda" : "fałsz")
+					.append(" oraz nie ").append(random.nextBoolean() ? "prawda" : "fałsz").append(";\n");
+		}
+		builder.append("\tzwróć liczba;\n}\n\n");
+	}
+
+	private void appendNestedFunction() {
+		appendFunctionHeader();
+		for (int depth = 1; depth <= NESTING_DEPTH; depth++) {
+			indent(depth);
+			if (depth % 2 == 0) {
+				builder.append("dla i").append(depth).append(" w zakres(").append(depth).append(") {\n");
+			} else {
+				builder.append("jeżeli (a < ").append(depth).append(" oraz b != ").append(depth).append(") {\n");
+			}
+		}
+		indent(NESTING_DEPTH + 1);
+		builder.append("a = ");
+		builder.append("(".repeat(NESTING_DEPTH));
+		for (int i = 0; i < NESTING_DEPTH; i++) {
+			builder.append(i == 0 ? "b" : " * " + i).append(')');
+		}
+		builder.append(";\n");
+		for (int depth = NESTING_DEPTH; depth >= 1; depth--) {
+			indent(depth);
+			builder.append("}\n");
+		}
+		builder.append("\tzwróć a;\n}\n\n");
+	}
+
+	private void appendFunctionHeader() {
+		builder.append("funkcja_").append(functionCount++).append("(a, b) {\n");
+	}
+
+	private String identifier() {
+		return WORDS[random.nextInt(WORDS.length)] + '_' + WORDS[random.nextInt(WORDS.length)] + '_' + random.nextInt(1000);
+	}
+
+	private void indent(int depth) {
+		builder.append("\t".repeat(depth));
+	}
+
+}
@@ -1,35 +1,159 @@
 package org.example;
 
+import org.example.cache.ProgramCache;
 import org.example.commons.AsciiArt;
 import org.example.error.manager.ErrorManager;
 import org.example.interpreter.Interpreter;
+import org.example.lexer.Lexer;
 import org.example.lexer.LexerImpl;
+import org.example.lexer.PackedTokenStream;
+import org.example.lexer.ParallelLexer;
+import org.example.lexer.PipelinedLexer;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.lexer.source.ChannelCharacterSource;
+import org.example.lexer.source.CharacterSource;
+import org.example.lexer.source.MappedCharacterSource;
+import org.example.parser.ParallelParser;
+import org.example.parser.Parser;
 import org.example.parser.ParserImpl;
+import org.example.parser.StreamingParser;
+import org.example.programstructure.arena.AstArena;
+import org.example.properties.Configuration;
 
-import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public class Main {
+
+	private static final String OPTION_PREFIX = "--";
+	private static final boolean SKIP_COMMENTS = true;      // parser ignores comments anyway
+	private static final String MEMORY_MAPPED_OPTION = "--mmap";     // read the file through FileChannel.map
+	private static final String PACKED_OPTION = "--packed";          // lex the whole file up front into PackedTokenStream
+	private static final String PARALLEL_OPTION = "--parallel";      // lex chunks of the file and parse definitions concurrently
+	private static final String PIPELINED_OPTION = "--pipelined";    // run the lexer on its own thread, ahead of the parser
+	private static final String STDIN_OPTION = "--stdin";            // read the program from standard input instead of a file
+	private static final String LAZY_OPTION = "--lazy";              // parse function bodies when they are first called
+	private static final String CACHE_OPTION = "--cache";            // load the parsed program from the cache if the source is unchanged
+	private static final String STREAMING_OPTION = "--streaming";    // start the main function before the rest of the file is parsed
+
 	public static void main(String[] args) throws IOException {
 
-        if (args.length == 0) {
+        List<String> options = Arrays.stream(args).filter(arg -> arg.startsWith(OPTION_PREFIX)).toList();
+        List<String> paths = Arrays.stream(args).filter(arg -> !arg.startsWith(OPTION_PREFIX)).toList();
+        if (options.contains(STDIN_OPTION)) {
+            AsciiArt.printViper();
+            System.out.println("Interpreting standard input\n");
+            try (var source = new ChannelCharacterSource(new FileInputStream(FileDescriptor.in).getChannel())) {
+                if (options.contains(STREAMING_OPTION)) {
+                    interpretStreaming(source, options);
+                } else {
+                    execute(createParser(createLexer(source, options), options));
+                }
+            }
+            return;
+        }
+        if (paths.isEmpty()) {
             throw new IOException("Path missing");
         }
-        String path = args[0];
+        String path = paths.get(0);
         AsciiArt.printViper();
         System.out.println("Interpreting file: " + path + "\n");
 
-		try (FileReader fileReader = new FileReader(path)) {
-			var file = new BufferedReader(fileReader);
-			var lexer = new LexerImpl(file, ErrorManager::handleError);
-			var parser = new ParserImpl(lexer, ErrorManager::handleError);
-			var program = parser.parse();
-			Interpreter interpreter = new Interpreter(ErrorManager::handleError);
-			interpreter.execute(program);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
+		if (options.contains(CACHE_OPTION)) {
+			if (options.contains(STREAMING_OPTION)) {
+				throw new IllegalArgumentException(CACHE_OPTION + " can not be used with " + STREAMING_OPTION
+						+ ", the whole program is needed to store it in the cache");
+			}
+			interpretCached(Path.of(path), options);
+			return;
+		}
+		if (options.contains(STREAMING_OPTION)) {
+			try (FileReader fileReader = new FileReader(path)) {
+				interpretStreaming(new BufferedCharacterSource(fileReader), options);
+			}
+			return;
+		}
+		parse(Path.of(path), options, parser -> execute(parser));
+	}
+
+	/**
+	 * Creates the lexer and the parser chosen by the options and gives the parser to the action,
+	 * the source is closed when the action returns
+	 */
+	private static void parse(Path path, List<String> options, Consumer<Parser> action) throws IOException {
+		if (options.contains(PARALLEL_OPTION)) {
+			try (FileReader fileReader = new FileReader(path.toFile())) {
+				char[] text = PackedTokenStream.readText(fileReader);
+				action.accept(new ParallelParser(errorHandler -> new ParallelLexer(text, text.length, errorHandler,
+						SKIP_COMMENTS, ForkJoinPool.commonPool(), ParallelLexer.DEFAULT_CHUNK_SIZE),
+						ErrorManager::handleError, options.contains(LAZY_OPTION)));
+			}
+		} else if (options.contains(PACKED_OPTION)) {
+			try (FileReader fileReader = new FileReader(path.toFile())) {
+				action.accept(createParser(PackedTokenStream.read(fileReader, ErrorManager::handleError, SKIP_COMMENTS),
+						options));
+			}
+		} else if (options.contains(MEMORY_MAPPED_OPTION)) {
+			try (var source = MappedCharacterSource.open(path)) {
+				action.accept(createParser(createLexer(source, options), options));
+			}
+		} else {
+			try (FileReader fileReader = new FileReader(path.toFile())) {
+				action.accept(createParser(createLexer(new BufferedCharacterSource(fileReader), options), options));
+			}
+		}
+	}
+
+	private static Lexer createLexer(CharacterSource source, List<String> options) {
+		if (options.contains(PIPELINED_OPTION)) {
+			return new PipelinedLexer(errorHandler -> new LexerImpl(source, errorHandler, SKIP_COMMENTS),
+					ErrorManager::handleError);
 		}
+		return new LexerImpl(source, ErrorManager::handleError, SKIP_COMMENTS);
+	}
+
+	private static Parser createParser(Lexer lexer, List<String> options) {
+		return new ParserImpl(lexer, ErrorManager::handleError, options.contains(LAZY_OPTION));
+	}
+
+	/**
+	 * Lexer and parser run on their own thread, the interpreter takes definitions from them as they are parsed
+	 */
+	private static void interpretStreaming(CharacterSource source, List<String> options) {
+		try (var parser = new StreamingParser(errorHandler -> new ParserImpl(
+				new LexerImpl(source, errorHandler, SKIP_COMMENTS), errorHandler, options.contains(LAZY_OPTION)),
+				ErrorManager::handleError)) {
+			new Interpreter(ErrorManager::handleError).execute(parser);
+		}
+	}
+
+	/**
+	 * Lexer and parser run only when the cache has no entry for the source, with the options given for them.
+	 * The whole program is stored, so bodies of functions are parsed then even with --lazy
+	 */
+	private static void interpretCached(Path path, List<String> options) throws IOException {
+		byte[] source = Files.readAllBytes(path);
+		var cache = new ProgramCache(Path.of(Configuration.getCacheDirectory()), Configuration.getConfigurationFiles());
+		AstArena arena = cache.load(source);
+		if (arena == null) {
+			AstArena[] parsed = new AstArena[1];
+			parse(path, options, parser -> parsed[0] = AstArena.encode(parser.parse()));
+			arena = parsed[0];
+			cache.store(source, arena);
+		}
+		new Interpreter(ErrorManager::handleError).execute(arena);
+	}
+
+	private static void execute(Parser parser) {
+		new Interpreter(ErrorManager::handleError).execute(parser.parse());
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package org.example.cache;
+
+import org.example.programstructure.arena.ArenaFormat;
+import org.example.programstructure.arena.AstArena;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Directory of parsed programs stored in ArenaFormat. An entry is named after the SHA-256 of the source,
+ * the configuration files (keywords and length limits change what a source parses to) and the format version,
+ * so an edited source or configuration simply misses. Entries which can not be read are deleted and reported as misses.
+ */
+public class ProgramCache {
+
+	private static final String EXTENSION = ".ast";
+
+	private final Path directory;
+	private final byte[] configuration;
+
+	/**
+	 * @param configurationFiles files whose contents are part of every key
+	 */
+	public ProgramCache(Path directory, List<Path> configurationFiles) throws IOException {
+		this.directory = directory;
+		final var digest = sha256();
+		for (Path file : configurationFiles) {
+			digest.update(Files.readAllBytes(file));
+		}
+		this.configuration = digest.digest();
+	}
+
+	/**
+	 * @return the arena stored for the source, null if there is none or it is stale or corrupt
+	 */
+	public AstArena load(byte[] source) {
+		final Path entry = entry(source);
+		try (InputStream stream = new BufferedInputStream(Files.newInputStream(entry))) {
+			return ArenaFormat.read(stream);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			delete(entry);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the entry to a temporary file first, so that a concurrent reader never sees a partial entry
+	 */
+	public void store(byte[] source, AstArena arena) throws IOException {
+		Files.createDirectories(directory);
+		final Path entry = entry(source);
+		final Path temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+				ArenaFormat.write(arena, stream);
+			}
+			Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	Path entry(byte[] source) {
+		final var digest = sha256();
+		digest.update(configuration);
+		digest.update((byte) (ArenaFormat.VERSION >>> 8));
+		digest.update((byte) ArenaFormat.VERSION);
+		digest.update(source);
+		return directory.resolve(HexFormat.of().formatHex(digest.digest()) + EXTENSION);
+	}
+
+	private static void delete(Path entry) {
+		try {
+			Files.deleteIfExists(entry);
+		} catch (IOException ignored) {
+			// it is overwritten by the next store
+		}
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);		// every Java platform has SHA-256
+		}
+	}
+
+}
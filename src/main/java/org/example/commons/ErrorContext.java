@@ -1,38 +1,65 @@
 package org.example.commons;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 import org.example.token.Token;
 import org.example.token.TokenType;
 
-@AllArgsConstructor
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tokens consumed since the last reset. The text of the context is built from them only when an error is reported.
+ */
 @Getter
 public class ErrorContext {
 
 	private Position position;
-	private StringBuilder contextBuilder;
+	private final List<Token> tokens;
+
+	public ErrorContext(Position position) {
+		this.position = position;
+		this.tokens = new ArrayList<>();
+	}
 
 	public String getContext() {
-		return contextBuilder.toString();
+		return render(tokens);
+	}
+
+	/**
+	 * @return copy of the consumed tokens, which can be rendered after the context is reset
+	 */
+	public List<Token> snapshot() {
+		return List.copyOf(tokens);
 	}
 
 	public void update(Token token) {
-		if (token.getType() == TokenType.DOT) {
-			stripLast();
-			contextBuilder.append(".");
-		} else {
-			contextBuilder.append(token.getValue().toString())
-					.append(StringUtils.SPACE);
-		}
+		tokens.add(token);
 		this.position = token.getPosition();
 	}
 
 	public void reset() {
-		contextBuilder.delete(0, contextBuilder.length());
+		tokens.clear();
+	}
+
+	/**
+	 * @return values of the tokens separated by spaces, with no spaces around dots
+	 */
+	public static String render(List<Token> tokens) {
+		final StringBuilder contextBuilder = new StringBuilder();
+		for (Token token : tokens) {
+			if (token.getType() == TokenType.DOT) {
+				stripLast(contextBuilder);
+				contextBuilder.append(".");
+			} else {
+				contextBuilder.append(token.getValue().toString())
+						.append(StringUtils.SPACE);
+			}
+		}
+		return contextBuilder.toString();
 	}
 
-	private void stripLast() {
+	private static void stripLast(StringBuilder contextBuilder) {
 		if (!contextBuilder.isEmpty()) {
 			contextBuilder.setLength(contextBuilder.length() - 1);
 		}
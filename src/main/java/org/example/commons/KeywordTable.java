@@ -0,0 +1,98 @@
+package org.example.commons;
+
+import org.example.token.TokenType;
+
+import java.util.Map;
+
+/**
+ * Collision-free hash table of words. The hash is the same as String.hashCode() but can be computed
+ * character by character with {@link #hash(int, char)}, so the lexer finds keywords without building a String.
+ * <p>
+ * The multiplier of the table index is searched for when the table is built, until every word lands in its own slot.
+ */
+public class KeywordTable {
+
+	private static final int INITIAL_MULTIPLIER = 0x9E3779B9;	// 2^32 / golden ratio, odd
+	private static final int MULTIPLIER_ATTEMPTS = 1 << 12;
+	private static final int MAX_SIZE = 1 << 16;
+
+	private final String[] words;
+	private final TokenType[] types;
+	private final int multiplier;
+	private final int shift;
+
+	public KeywordTable(Map<String, TokenType> entries) {
+		int size = 2;
+		while (size < 2 * entries.size()) {
+			size <<= 1;
+		}
+		String[] tableWords = new String[size];
+		int tableMultiplier = INITIAL_MULTIPLIER;
+		int attempt = 0;
+		while (!fill(entries, tableWords, tableMultiplier, shiftFor(tableWords.length))) {
+			if (++attempt == MULTIPLIER_ATTEMPTS) {
+				if (tableWords.length == MAX_SIZE) {
+					throw new IllegalArgumentException("Words with equal hash codes: " + entries.keySet());
+				}
+				tableWords = new String[tableWords.length << 1];
+				tableMultiplier = INITIAL_MULTIPLIER;
+				attempt = 0;
+			} else {
+				tableWords = new String[tableWords.length];
+				tableMultiplier += 2;
+			}
+		}
+		this.words = tableWords;
+		this.types = new TokenType[tableWords.length];
+		this.multiplier = tableMultiplier;
+		this.shift = shiftFor(tableWords.length);
+		entries.forEach((word, type) -> this.types[index(word.hashCode())] = type);
+	}
+
+	public static int hash(int hash, char c) {
+		return 31 * hash + c;
+	}
+
+	/**
+	 * @param hash hash of the characters, computed with {@link #hash(int, char)} starting from 0
+	 * @return type of the word, null if it is not in the table
+	 */
+	public TokenType get(char[] chars, int offset, int length, int hash) {
+		final int index = index(hash);
+		final String word = words[index];
+		if (word == null || word.length() != length) {
+			return null;
+		}
+		for (int i = 0; i < length; i++) {
+			if (word.charAt(i) != chars[offset + i]) {
+				return null;
+			}
+		}
+		return types[index];
+	}
+
+	public TokenType get(String word) {
+		final int index = index(word.hashCode());
+		return word.equals(words[index]) ? types[index] : null;
+	}
+
+	private int index(int hash) {
+		return (hash * multiplier) >>> shift;
+	}
+
+	private static int shiftFor(int size) {
+		return Integer.SIZE - Integer.numberOfTrailingZeros(size);
+	}
+
+	private static boolean fill(Map<String, TokenType> entries, String[] tableWords, int multiplier, int shift) {
+		for (String word : entries.keySet()) {
+			int index = (word.hashCode() * multiplier) >>> shift;
+			if (tableWords[index] != null) {
+				return false;
+			}
+			tableWords[index] = word;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,101 @@
+package org.example.commons;
+
+import java.util.Arrays;
+
+/**
+ * Offsets at which the lines of a source begin. It is filled once per file, one entry per line,
+ * and converts a source offset to line and character number only when the position is needed.
+ * <p>
+ * Lines are added by a single thread, but positions may be resolved by another one while lines are still being added,
+ * e.g. when the lexer runs ahead of the parser on its own thread.
+ */
+public class LineIndex {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private volatile int firstLineNumber;
+	// the array is replaced before lineCount grows past its old length, readers read lineCount first
+	private volatile int[] lineStarts = new int[INITIAL_CAPACITY];
+	private volatile int lineCount = 0;
+
+	public LineIndex() {
+		this(1, 0);
+	}
+
+	/**
+	 * @param firstLineNumber number of the first indexed line
+	 * @param firstLineStart  offset at which the first indexed line begins
+	 */
+	public LineIndex(int firstLineNumber, int firstLineStart) {
+		this.firstLineNumber = firstLineNumber;
+		addLine(firstLineStart);
+	}
+
+	/**
+	 * @param lineStart offset at which the next line begins, greater than any offset added before
+	 */
+	public void addLine(int lineStart) {
+		final int count = lineCount;
+		int[] starts = lineStarts;
+		if (count == starts.length) {
+			starts = Arrays.copyOf(starts, count * 2);
+			lineStarts = starts;
+		}
+		starts[count] = lineStart;
+		lineCount = count + 1;
+	}
+
+	/**
+	 * Adds lines of the index which continues this one; lines known to both indexes are added once
+	 */
+	public void addLines(LineIndex next) {
+		final int last = lineStarts[lineCount - 1];
+		final int nextCount = next.lineCount;
+		final int[] nextStarts = next.lineStarts;
+		for (int i = 0; i < nextCount; i++) {
+			if (nextStarts[i] > last) {
+				addLine(nextStarts[i]);
+			}
+		}
+	}
+
+	public int getLineNumber(int offset) {
+		final int count = lineCount;
+		return firstLineNumber + findLine(lineStarts, count, offset);
+	}
+
+	public int getCharacterNumber(int offset) {
+		final int count = lineCount;
+		final int[] starts = lineStarts;
+		return offset - starts[findLine(starts, count, offset)] + 1;
+	}
+
+	/**
+	 * Moves all indexed lines, e.g. when lines are inserted above an incrementally parsed fragment of the source
+	 */
+	public void setFirstLineNumber(int firstLineNumber) {
+		this.firstLineNumber = firstLineNumber;
+	}
+
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @return index of the last line which begins at or before the offset
+	 */
+	private static int findLine(int[] starts, int count, int offset) {
+		int low = 0;
+		int high = count - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (starts[middle] <= offset) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+}
@@ -0,0 +1,191 @@
+package org.example.commons;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigInteger;
+
+/**
+ * Conversions of numeric literals. Digits are accumulated into a long and floats are rounded correctly
+ * by the Clinger fast path or the Eisel-Lemire algorithm, Double.parseDouble() is called only when both fail.
+ */
+@UtilityClass
+public class NumericLiterals {
+
+	private static final char DOT = '.';
+
+	// every value below the limit can take one more digit without overflowing a long
+	private static final long MANTISSA_LIMIT = 100_000_000_000_000_000L;
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] EXACT_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private static final int DOUBLE_EXPONENT_BIAS = 1023;
+	private static final int MIN_EXPONENT = -342;
+	private static final int MAX_EXPONENT = 308;
+
+	// 128-bit approximations of powers of ten, normalized so that the highest bit is set
+	private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+	private static final long[] POWERS_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+	static {
+		BigInteger power = BigInteger.ONE;
+		for (int exponent = 0; exponent <= MAX_EXPONENT; exponent++) {
+			setPower(exponent, power.bitLength() <= 128
+					? power.shiftLeft(128 - power.bitLength())
+					: power.shiftRight(power.bitLength() - 128));
+			power = power.multiply(BigInteger.valueOf(5));
+		}
+		power = BigInteger.valueOf(5);
+		for (int exponent = -1; exponent >= MIN_EXPONENT; exponent--) {
+			// rounded up reciprocal, the same as in the tables of the reference implementation
+			int bits = power.bitLength();
+			int shift = exponent >= -27 ? bits + 127 : 2 * bits + 128;
+			BigInteger reciprocal = BigInteger.ONE.shiftLeft(shift).divide(power).add(BigInteger.ONE);
+			setPower(exponent, reciprocal.shiftRight(Math.max(0, reciprocal.bitLength() - 128)));
+			power = power.multiply(BigInteger.valueOf(5));
+		}
+	}
+
+	/**
+	 * @param value non-negative value of an integer literal
+	 * @return Integer if the value fits in an int, Long otherwise
+	 */
+	public static Number narrow(long value) {
+		if (value <= Integer.MAX_VALUE) {
+			return (int) value;
+		}
+		return value;
+	}
+
+	/**
+	 * @return the integral value as an Integer if it fits in an int, null otherwise, e.g. for an index or a range
+	 */
+	public static Integer toInteger(Object value) {
+		if (value instanceof Integer integer) {
+			return integer;
+		}
+		if (value instanceof Long longValue && longValue == longValue.intValue()) {
+			return longValue.intValue();
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a float literal made of decimal digits with an optional dot, e.g. "12.", "0.5" or "3"
+	 */
+	public static double parseDouble(char[] chars, int from, int to) {
+		long mantissa = 0;
+		int exponent = 0;
+		boolean fraction = false;
+		boolean truncated = false;
+		for (int i = from; i < to; i++) {
+			if (chars[i] == DOT) {
+				fraction = true;
+				continue;
+			}
+			int digit = Character.digit(chars[i], 10);
+			if (mantissa < MANTISSA_LIMIT) {
+				mantissa = mantissa * 10 + digit;
+				exponent -= fraction ? 1 : 0;
+			} else {
+				truncated |= digit != 0;
+				exponent += fraction ? 0 : 1;
+			}
+		}
+		if (truncated) {
+			return Double.parseDouble(toAscii(chars, from, to));
+		}
+		return toDouble(mantissa, exponent);
+	}
+
+	/**
+	 * @param mantissa non-negative value
+	 * @return mantissa * 10^exponent rounded to the nearest double
+	 */
+	public static double toDouble(long mantissa, int exponent) {
+		if (mantissa == 0) {
+			return 0.0;
+		}
+		if (mantissa <= MAX_EXACT_MANTISSA && -EXACT_POWERS_OF_TEN.length < exponent && exponent < EXACT_POWERS_OF_TEN.length) {
+			// both operands are exact, so the single operation is rounded correctly
+			return exponent < 0
+					? mantissa / EXACT_POWERS_OF_TEN[-exponent]
+					: mantissa * EXACT_POWERS_OF_TEN[exponent];
+		}
+		double value = eiselLemire(mantissa, exponent);
+		if (!Double.isNaN(value)) {
+			return value;
+		}
+		return Double.parseDouble(mantissa + "E" + exponent);
+	}
+
+	/**
+	 * @param mantissa positive value
+	 * @return correctly rounded value, NaN when the approximation can not decide or the result is not a normal double
+	 */
+	private static double eiselLemire(long mantissa, int exponent) {
+		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+			return Double.NaN;
+		}
+		final int index = exponent - MIN_EXPONENT;
+		final int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+		final long normalized = mantissa << leadingZeros;
+		long binaryExponent = ((217706 * exponent) >> 16) + 64 + DOUBLE_EXPONENT_BIAS - leadingZeros;
+
+		long high = unsignedMultiplyHigh(normalized, POWERS_HIGH[index]);
+		long low = normalized * POWERS_HIGH[index];
+		if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + normalized, normalized) < 0) {
+			// the truncated product may be too small, take the lower half of the power into account
+			long lowerHigh = unsignedMultiplyHigh(normalized, POWERS_LOW[index]);
+			long lowerLow = normalized * POWERS_LOW[index];
+			long mergedHigh = high;
+			long mergedLow = low + lowerHigh;
+			if (Long.compareUnsigned(mergedLow, low) < 0) {
+				mergedHigh++;
+			}
+			if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow == -1
+					&& Long.compareUnsigned(lowerLow + normalized, normalized) < 0) {
+				return Double.NaN;
+			}
+			high = mergedHigh;
+			low = mergedLow;
+		}
+
+		final int highestBit = (int) (high >>> 63);
+		long significand = high >>> (highestBit + 9);
+		binaryExponent -= 1 ^ highestBit;
+		if (low == 0 && (high & 0x1FF) == 0 && (significand & 3) == 1) {
+			return Double.NaN;		// exactly halfway between two doubles
+		}
+		significand += significand & 1;
+		significand >>>= 1;
+		if ((significand >>> 53) > 0) {
+			significand >>>= 1;
+			binaryExponent++;
+		}
+		if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+			return Double.NaN;
+		}
+		return Double.longBitsToDouble(binaryExponent << 52 | significand & 0x000FFFFFFFFFFFFFL);
+	}
+
+	private static long unsignedMultiplyHigh(long x, long y) {
+		return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+	}
+
+	private static void setPower(int exponent, BigInteger value) {
+		POWERS_HIGH[exponent - MIN_EXPONENT] = value.shiftRight(64).longValue();
+		POWERS_LOW[exponent - MIN_EXPONENT] = value.longValue();
+	}
+
+	private static String toAscii(char[] chars, int from, int to) {
+		final var builder = new StringBuilder(to - from);
+		for (int i = from; i < to; i++) {
+			builder.append(chars[i] == DOT ? DOT : (char) ('0' + Character.digit(chars[i], 10)));
+		}
+		return builder.toString();
+	}
+
+}
@@ -1,32 +1,45 @@
 package org.example.commons;
 
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.ToString;
-
-@AllArgsConstructor
-@Getter
-@ToString
+/**
+ * Position in the source. It is either given explicitly or as an offset in a source with a LineIndex,
+ * in which case line and character number are found only when asked for.
+ */
 public class Position {
 
-	int lineNumber;
-	int characterNumber;
+	private final int lineNumber;
+	private final int characterNumber;
+	private final LineIndex lineIndex;
+	private final int offset;
 
 	public Position() {
-		this.lineNumber = 1;
-		this.characterNumber = 1;
+		this(1, 1);
+	}
+
+	public Position(int lineNumber, int characterNumber) {
+		this.lineNumber = lineNumber;
+		this.characterNumber = characterNumber;
+		this.lineIndex = null;
+		this.offset = -1;
 	}
 
-	public void nextLine() {
-		this.lineNumber += 1;
-		this.characterNumber = 1;
+	public Position(LineIndex lineIndex, int offset) {
+		this.lineNumber = 0;
+		this.characterNumber = 0;
+		this.lineIndex = lineIndex;
+		this.offset = offset;
 	}
 
-	public void nextChar() {
-		this.characterNumber += 1;
+	public int getLineNumber() {
+		return lineIndex == null ? lineNumber : lineIndex.getLineNumber(offset);
 	}
 
-	public Position copy() {
-		return new Position(this.lineNumber, this.characterNumber);
+	public int getCharacterNumber() {
+		return lineIndex == null ? characterNumber : lineIndex.getCharacterNumber(offset);
 	}
+
+	@Override
+	public String toString() {
+		return "Position(lineNumber=" + getLineNumber() + ", characterNumber=" + getCharacterNumber() + ")";
+	}
+
 }
@@ -42,6 +42,38 @@ public class TokenGroups {
 				.forEach(tokenType -> SYMBOLS.put(tokenType.getKeyword(), tokenType));
     }
 
+	/*
+	* Keywords and bool literals in a collision-free hash table, for lookups without building a String
+	*/
+	public static final KeywordTable KEYWORD_TABLE;
+	static {
+		Map<String, TokenType> words = new HashMap<>(KEYWORDS);
+		words.putAll(BOOL_LITERALS);
+		KEYWORD_TABLE = new KeywordTable(words);
+	}
+
+	/*
+	* Single character symbols indexed by the character, e.g. SYMBOL_TABLE['+'] == ADD
+	*/
+	private static final TokenType[] SYMBOL_TABLE;
+	static {
+		int size = SYMBOLS.keySet().stream().filter(symbol -> symbol.length() == 1)
+				.mapToInt(symbol -> symbol.charAt(0) + 1).max().orElse(0);
+		SYMBOL_TABLE = new TokenType[size];
+		SYMBOLS.forEach((symbol, tokenType) -> {
+			if (symbol.length() == 1) {
+				SYMBOL_TABLE[symbol.charAt(0)] = tokenType;
+			}
+		});
+	}
+
+	/**
+	 * @return type of the single character symbol, null if the character is not a symbol
+	 */
+	public static TokenType getSymbol(char c) {
+		return c < SYMBOL_TABLE.length ? SYMBOL_TABLE[c] : null;
+	}
+
 	public static final Map<TokenType, RelationalType> RELATIONAL_OPERATORS = Map.of(
 			EQUAL, RelationalType.EQUAL,
 			NOT_EQUAL, RelationalType.NOT_EQUAL,
@@ -44,6 +44,7 @@ public enum ErrorType {
 	// semantic
 	ABORTED,
     ZERO_DIVISION,
+    RANGE_TOO_LONG,
     METHOD_NOT_DEFINED,
     ACCESS_NOT_ALLOWED,
     INDEX_OUT_OF_BOUND,
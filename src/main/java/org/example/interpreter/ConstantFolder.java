@@ -0,0 +1,196 @@
+package org.example.interpreter;
+
+import org.example.interpreter.computers.MathematicalComputer;
+import org.example.interpreter.computers.NegationComputer;
+import org.example.interpreter.computers.OperationMapper;
+import org.example.interpreter.computers.RelationalComputer;
+import org.example.interpreter.computers.enums.MathematicalOperation;
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.IfStatement;
+import org.example.visitor.AstRewriter;
+
+/**
+ * Pass run before execution which computes operations on literals once, with the same computers the interpreter
+ * uses, and leaves out branches of conditions known before execution. An operation which the interpreter would
+ * report as an error, such as a division of integers by zero or an addition of texts, is left as it is, so that the
+ * error is still reported when and if the operation is reached. Such an operation keeps its operands unfolded, as
+ * the error shows the expression as it was written, and a folded literal keeps the expression it replaces for errors
+ * of the operations around it.
+ * <p>
+ * The folded program is made of new records, lazily parsed functions are folded when they are first visited.
+ */
+public class ConstantFolder extends AstRewriter {
+
+    private ConstantFolder() {
+    }
+
+    /**
+     * @return program with the same built-ins and folded user definitions
+     */
+    public static Program fold(Program program) {
+        return rewriteFunctions(program, ConstantFolder::fold);
+    }
+
+    public static ClassDefinition fold(ClassDefinition classDefinition) {
+        return rewriteMethods(classDefinition, ConstantFolder::fold);
+    }
+
+    public static FunctionDefinition fold(FunctionDefinition functionDefinition) {
+        if (functionDefinition instanceof UserFunctionDefinition userFunctionDefinition) {
+            return new ConstantFolder().foldFunction(userFunctionDefinition);
+        }
+        if (functionDefinition instanceof LazyFunctionDefinition lazyFunctionDefinition) {
+            return lazyFunctionDefinition.transform(lazyFunctionDefinition.parameters(),
+                    definition -> new ConstantFolder().foldFunction(definition));
+        }
+        return functionDefinition;
+    }
+
+    private UserFunctionDefinition foldFunction(UserFunctionDefinition functionDefinition) {
+        return new UserFunctionDefinition(functionDefinition.name(), functionDefinition.parameters(),
+                rewrite(functionDefinition.block()), functionDefinition.slotCount());
+    }
+
+    @Override
+    public void visit(OrExpression expression) {
+        final Expression left = rewrite(expression.left());
+        final Expression right = rewrite(expression.right());
+        if (left instanceof LiteralBool leftBool && (leftBool.value() || right instanceof LiteralBool)) {
+            // the right side is not evaluated when the left one is true
+            lastNode = leftBool.value() ? literal(true, expression)
+                    : literal(((LiteralBool) right).value(), expression);
+        } else if (isLiteral(left) && (!(left instanceof LiteralBool) || isLiteral(right))) {
+            lastNode = expression;
+        } else {
+            lastNode = new OrExpression(left, right);
+        }
+    }
+
+    @Override
+    public void visit(AndExpression expression) {
+        final Expression left = rewrite(expression.left());
+        final Expression right = rewrite(expression.right());
+        if (left instanceof LiteralBool leftBool && (!leftBool.value() || right instanceof LiteralBool)) {
+            // the right side is not evaluated when the left one is false
+            lastNode = !leftBool.value() ? literal(false, expression)
+                    : literal(((LiteralBool) right).value(), expression);
+        } else if (isLiteral(left) && (!(left instanceof LiteralBool) || isLiteral(right))) {
+            lastNode = expression;
+        } else {
+            lastNode = new AndExpression(left, right);
+        }
+    }
+
+    @Override
+    public void visit(RelationalExpression expression) {
+        super.visit(expression);
+        final RelationalExpression rewritten = (RelationalExpression) lastNode;
+        final Object left = value(rewritten.left());
+        final Object right = value(rewritten.right());
+        if (left != null && right != null) {
+            foldInto(RelationalComputer.compute(left, right, OperationMapper.map(expression.relationalType())), expression);
+        }
+    }
+
+    @Override
+    public void visit(ArithmeticExpression expression) {
+        super.visit(expression);
+        final ArithmeticExpression rewritten = (ArithmeticExpression) lastNode;
+        final Object left = value(rewritten.left());
+        final Object right = value(rewritten.right());
+        if (left != null && right != null) {
+            foldInto(MathematicalComputer.compute(left, right, OperationMapper.map(expression.additiveType())), expression);
+        }
+    }
+
+    @Override
+    public void visit(MultiplicativeExpression expression) {
+        super.visit(expression);
+        final MultiplicativeExpression rewritten = (MultiplicativeExpression) lastNode;
+        final Object left = value(rewritten.left());
+        final Object right = value(rewritten.right());
+        final MathematicalOperation operation = OperationMapper.map(expression.multiplicativeType());
+        final boolean zeroDivision = operation == MathematicalOperation.DIVIDE
+                && (Integer.valueOf(0).equals(right) || Long.valueOf(0).equals(right));
+        if (left != null && right != null) {
+            foldInto(zeroDivision ? null : MathematicalComputer.compute(left, right, operation), expression);
+        }
+    }
+
+    @Override
+    public void visit(NegatedExpression expression) {
+        super.visit(expression);
+        final Object value = value(((NegatedExpression) lastNode).expression());
+        if (value != null) {
+            foldInto(NegationComputer.compute(value), expression);
+        }
+    }
+
+    /**
+     * A branch which is never taken is left out, a statement without any branch left is left out of its block.
+     * The taken branch stays a block of its own, as variables declared in it must not outlive it.
+     */
+    @Override
+    public void visit(IfStatement statement) {
+        super.visit(statement);
+        final IfStatement rewritten = (IfStatement) lastNode;
+        if (!(rewritten.condition() instanceof LiteralBool condition)) {
+            if (isLiteral(rewritten.condition())) {
+                // not a boolean, reported by the interpreter
+                lastNode = new IfStatement(statement.condition(), rewritten.blockIfTrue(), rewritten.elseBlock(),
+                        rewritten.position());
+            }
+            return;
+        }
+        if (condition.value()) {
+            lastNode = new IfStatement(condition, rewritten.blockIfTrue(), null, rewritten.position());
+        } else if (rewritten.elseBlock() != null) {
+            lastNode = new IfStatement(new LiteralBool(true, condition.position()), rewritten.elseBlock(), null,
+                    rewritten.position());
+        } else {
+            lastNode = null;
+        }
+    }
+
+    /**
+     * @return value of a literal which an operator accepts, null for any other expression
+     */
+    private static Object value(Expression expression) {
+        if (expression instanceof LiteralInteger literal) {
+            return literal.value();
+        }
+        if (expression instanceof LiteralFloat literal) {
+            return literal.value();
+        }
+        if (expression instanceof LiteralBool literal) {
+            return literal.value();
+        }
+        return null;
+    }
+
+    private static boolean isLiteral(Expression expression) {
+        return value(expression) != null || expression instanceof LiteralText;
+    }
+
+    /**
+     * Replaces the last node with a literal of the result, a null result is an error left for the interpreter
+     * which is given the expression as it was written
+     */
+    private void foldInto(Object result, Expression expression) {
+        if (result == null) {
+            lastNode = expression;
+        } else if (result instanceof Boolean bool) {
+            lastNode = literal(bool, expression);
+        } else if (result instanceof Double number) {
+            lastNode = new LiteralFloat(number, expression.position(), expression);
+        } else if (result instanceof Number number) {
+            lastNode = new LiteralInteger(number, expression.position(), expression);
+        }
+    }
+
+    private static LiteralBool literal(boolean value, Expression expression) {
+        return new LiteralBool(value, expression.position(), expression);
+    }
+
+}
@@ -3,6 +3,7 @@ package org.example.interpreter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
+import org.example.commons.NumericLiterals;
 import org.example.commons.Position;
 import org.example.error.ErrorHandler;
 import org.example.error.details.ErrorDetails;
@@ -19,6 +20,9 @@ import org.example.interpreter.computers.RelationalComputer;
 import org.example.interpreter.computers.enums.MathematicalOperation;
 import org.example.interpreter.environment.ContextType;
 import org.example.interpreter.environment.Environment;
+import org.example.parser.DefinitionListener;
+import org.example.parser.StreamingParser;
+import org.example.programstructure.arena.AstArena;
 import org.example.programstructure.containers.*;
 import org.example.programstructure.expression.*;
 import org.example.programstructure.statement.*;
@@ -28,7 +32,6 @@ import org.example.visitor.Visitor;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @RequiredArgsConstructor
 public class Interpreter implements Visitor {
@@ -40,7 +43,26 @@ public class Interpreter implements Visitor {
     private final Map<String, FunctionDefinition> constructors = new HashMap<>();
     private final ErrorHandler errorHandler;
 
+    // built-in definitions take precedence, as in execute(Program)
+    private final DefinitionListener streamedDefinitions = new DefinitionListener() {
+        @Override
+        public void functionParsed(FunctionDefinition functionDefinition) {
+            program.functionDefinitions().putIfAbsent(functionDefinition.name(),
+                    Resolver.resolve(ConstantFolder.fold(functionDefinition)));
+        }
+
+        @Override
+        public void classParsed(ClassDefinition classDefinition) {
+            if (!program.classDefinitions().containsKey(classDefinition.name())) {
+                ClassDefinition resolved = Resolver.resolve(ConstantFolder.fold(classDefinition));
+                program.classDefinitions().put(resolved.name(), resolved);
+                resolved.accept(Interpreter.this);
+            }
+        }
+    };
+
     private Program program;
+    private StreamingParser streamingParser = null;
     private Object lastValue;
     private boolean returning = false;
     private boolean testingMode = false;
@@ -58,14 +80,53 @@ public class Interpreter implements Visitor {
         return outputBuffer.toString();
     }
 
+    /**
+     * Runs a program loaded from the cache. The interpreter does not walk the arena, records of a function are built
+     * when it is first called.
+     */
+    public void execute(AstArena arena) {
+        execute(arena.toProgram());
+    }
+
     @SneakyThrows
     public void execute(Program program) {
         Initializer.addBuiltIns(program);
-        this.program = program;
+        this.program = Resolver.resolve(ConstantFolder.fold(program));
         // extracting all constructors
-        for (ClassDefinition ClassDefinition : program.classDefinitions().values()) {
+        for (ClassDefinition ClassDefinition : this.program.classDefinitions().values()) {
             ClassDefinition.accept(this);
         }
+        executeMain();
+    }
+
+    /**
+     * Runs the main function as soon as the parser has delivered it. Definitions are taken from the parser while
+     * the program runs, a call to a name which is not defined yet waits until it is parsed or the source ends.
+     * Errors after the main function, including errors of classes, are reported when it returns.
+     */
+    @SneakyThrows
+    public void execute(StreamingParser parser) {
+        this.program = new Program(new HashMap<>(), new HashMap<>());
+        Initializer.addBuiltIns(program);
+        for (ClassDefinition classDefinition : program.classDefinitions().values()) {
+            classDefinition.accept(this);
+        }
+        this.streamingParser = parser;
+        awaitDefinition(MAIN);
+        executeMain();
+        while (parser.next(streamedDefinitions)) {
+            // reporting errors in the rest of the source
+        }
+    }
+
+    private void awaitDefinition(String name) {
+        while (!program.functionDefinitions().containsKey(name) && !program.classDefinitions().containsKey(name)
+                && streamingParser.next(streamedDefinitions)) {
+            // taking definitions in order
+        }
+    }
+
+    private void executeMain() throws Exception {
         // visiting main function
         FunctionDefinition main = program.functionDefinitions().get(MAIN);
         if (main == null) {
@@ -81,34 +142,53 @@ public class Interpreter implements Visitor {
     @Override
     @SneakyThrows
     public void visit(UserClassDefinition userClassDefinition) {
+        FunctionDefinition constructor = checkConstructor(userClassDefinition, errorHandler);
+        constructors.put(constructor.name(), constructor);
+    }
+
+    /**
+     * Checks that a class has a constructor and that it does not return, the virtual machine checks classes here too
+     *
+     * @return the constructor
+     */
+    public static FunctionDefinition checkConstructor(UserClassDefinition userClassDefinition,
+                                                      ErrorHandler errorHandler) throws Exception {
         Optional<FunctionDefinition> optionalConstructor = userClassDefinition.methods()
                 .values()
                 .stream()
                 .filter(method -> method.name().equals(userClassDefinition.name()))
                 .findFirst();
         if (optionalConstructor.isEmpty()) {
-            handleError(ErrorType.CONSTRUCTOR_MISSING, userClassDefinition.position(), userClassDefinition.name());
+            handleError(errorHandler, ErrorType.CONSTRUCTOR_MISSING, userClassDefinition.position(),
+                    userClassDefinition.name());
         }
         boolean hasReturnStatement = optionalConstructor.stream()
-                .map(functionDefinition -> (UserFunctionDefinition) functionDefinition)
+                .map(Interpreter::toUserFunction)
                 .flatMap(f -> f.block().statements().stream())
                 .anyMatch(s -> s instanceof ReturnStatement);
         if (hasReturnStatement) {
-            handleError(ErrorType.CONSTRUCTOR_CONTAINS_RETURN, userClassDefinition.position(), userClassDefinition.name());
+            handleError(errorHandler, ErrorType.CONSTRUCTOR_CONTAINS_RETURN, userClassDefinition.position(),
+                    userClassDefinition.name());
         }
-        FunctionDefinition constructor = optionalConstructor.get();
-        constructors.put(constructor.name(), constructor);
+        return optionalConstructor.get();
+    }
+
+    public static UserFunctionDefinition toUserFunction(FunctionDefinition functionDefinition) {
+        if (functionDefinition instanceof LazyFunctionDefinition lazyFunctionDefinition) {
+            return lazyFunctionDefinition.resolve();
+        }
+        return (UserFunctionDefinition) functionDefinition;
     }
 
     @Override
     public void visit(UserFunctionDefinition functionDefinition) {
         consumeLastValue();
+        environment.reserveSlots(functionDefinition.slotCount());
         functionDefinition.block().accept(this);
     }
 
     @Override
     public void visit(Block block) {
-        environment.enterScope();
         for (Statement statement : block.statements()) {
             statement.accept(this);
             if (returning) {
@@ -116,7 +196,6 @@ public class Interpreter implements Visitor {
             }
             consumeLastValue();
         }
-        environment.exitScope();
     }
 
     @SneakyThrows
@@ -201,7 +280,7 @@ public class Interpreter implements Visitor {
         expression.right().accept(this);
         Object right = consumeEvaluatedLastValue();
         MathematicalOperation operation = OperationMapper.map(expression.multiplicativeType());
-        if (operation == MathematicalOperation.DIVIDE && right.equals(0)) {
+        if (operation == MathematicalOperation.DIVIDE && (right.equals(0) || right.equals(0L))) {
             handleError(ErrorType.ZERO_DIVISION, expression.position(), ErrorContextBuilder.buildContext(expression));
         }
         Object result = MathematicalComputer.compute(left, right, operation);
@@ -226,6 +305,14 @@ public class Interpreter implements Visitor {
 
     private void callFunction(FunctionCallExpression functionCallExpression) throws Exception {
         FunctionDefinition functionDefinition = program.functionDefinitions().get(functionCallExpression.name());
+        if (functionDefinition == null && streamingParser != null) {
+            awaitDefinition(functionCallExpression.name());
+            if (constructors.containsKey(functionCallExpression.name())) {
+                callConstructor(functionCallExpression);
+                return;
+            }
+            functionDefinition = program.functionDefinitions().get(functionCallExpression.name());
+        }
         if (functionDefinition == null) {
             handleError(ErrorType.FUNCTION_NOT_DEFINED, functionCallExpression.position(), functionCallExpression.name());
             return;
@@ -239,7 +326,7 @@ public class Interpreter implements Visitor {
             environment.store(VariadicFunction.ARGS, new ValueReference(arguments));
         } else {
             for (int i = 0; i < arguments.size(); ++i) {
-                environment.store(parameters.get(i).name(), arguments.get(i));
+                storeArgument(parameters.get(i), arguments.get(i));
             }
         }
         lastValue = functionCallExpression;
@@ -259,7 +346,7 @@ public class Interpreter implements Visitor {
         ValueReference valueReference = new ValueReference(objectInstance);
         environment.store(THIS, valueReference);
         for (int i = 0; i < arguments.size(); ++i) {
-            environment.store(parameters.get(i).name(), arguments.get(i));
+            storeArgument(parameters.get(i), arguments.get(i));
         }
         functionDefinition.accept(this);
         lastValue = valueReference;
@@ -281,7 +368,7 @@ public class Interpreter implements Visitor {
         environment.enterMethodCall();
         environment.store(THIS, valueReference);
         for (int i = 0; i < arguments.size(); ++i) {
-            environment.store(parameters.get(i).name(), arguments.get(i));
+            storeArgument(parameters.get(i), arguments.get(i));
         }
         lastValue = functionCallExpression;
         methodDefinition.accept(this);
@@ -308,6 +395,14 @@ public class Interpreter implements Visitor {
         return arguments;
     }
 
+    private void storeArgument(Parameter parameter, ValueReference argument) {
+        if (parameter.slot() == IdentifierExpression.NO_SLOT) {
+            environment.store(parameter.name(), argument);
+        } else {
+            environment.store(parameter.slot(), argument);
+        }
+    }
+
     private boolean isPrimitiveType(Object object) {
         return object instanceof Number || object instanceof Boolean || object instanceof String;
     }
@@ -317,14 +412,13 @@ public class Interpreter implements Visitor {
     @Override
     public void visit(IdentifierExpression expression) {
         if (lastValue == null) {
-            // accessing local variable
-            ValueReference variableReference = environment.find(expression.name());
-            if (variableReference != null) {
-                lastValue = variableReference;
-            } else if (environment.isAssignment()){
+            // accessing local variable, its slot is given by the Resolver
+            if (expression.declaration()) {
                 ValueReference valueReference = new ValueReference();
-                environment.store(expression.name(), valueReference);
+                environment.store(expression.slot(), valueReference);
                 lastValue = valueReference;
+            } else if (expression.slot() != IdentifierExpression.NO_SLOT) {
+                lastValue = environment.find(expression.slot());
             } else {
                 handleError(ErrorType.VARIABLE_NOT_DEFINED_IN_SCOPE, expression.position(), expression.name());
             }
@@ -349,8 +443,8 @@ public class Interpreter implements Visitor {
     @SneakyThrows
     @Override
     public void visit(NegatedExpression expression) {
-        expression.accept(this);
-        Object object = consumeLastValue();
+        expression.expression().accept(this);
+        Object object = consumeEvaluatedLastValue();
         Object result = NegationComputer.compute(object);
         if (result != null) {
             lastValue = result;
@@ -423,26 +517,57 @@ public class Interpreter implements Visitor {
     @SneakyThrows
     @Override
     public void visit(ForStatement statement) {
+        if (statement.range() instanceof FunctionCallExpression rangeCall && isRangeCall(rangeCall)) {
+            executeCountedLoop(statement, rangeCall);
+            return;
+        }
         statement.range().accept(this);
         Object rangeExpression = consumeEvaluatedLastValue();
         if (rangeExpression instanceof ListInstance listInstance) {
-            environment.enterScope();
             List<Object> range = listInstance.getList();
-            environment.store(statement.iteratorName(), new ValueReference());
+            ValueReference iteratorReference = new ValueReference();
+            environment.store(statement.iteratorSlot(), iteratorReference);
             for(Object object : range) {
-                ValueReference iteratorReference = environment.find(statement.iteratorName());
                 iteratorReference.setValue(object);
                 statement.block().accept(this);
                 if (returning) {
                     break;
                 }
             }
-            environment.exitScope();
         } else {
             handleError(ErrorType.RANGE_NOT_ITERABLE, statement.range().position(), ErrorContextBuilder.buildContext(statement));
         }
     }
 
+    private boolean isRangeCall(FunctionCallExpression functionCallExpression) {
+        return functionCallExpression.name().equals(RangeFunction.RANGE)
+                && program.functionDefinitions().get(RangeFunction.RANGE) instanceof RangeFunction;
+    }
+
+    /**
+     * Loop over a call of the built-in range, counted with a primitive instead of a list of the whole range
+     */
+    private void executeCountedLoop(ForStatement statement, FunctionCallExpression rangeCall) throws Exception {
+        List<ValueReference> arguments = resolveArguments(rangeCall);
+        validateArguments(program.functionDefinitions().get(RangeFunction.RANGE).parameters(), arguments, rangeCall);
+        Integer start = NumericLiterals.toInteger(arguments.get(0).getValue());
+        Integer stop = NumericLiterals.toInteger(arguments.get(1).getValue());
+        if (start == null || stop == null) {
+            handleError(ErrorType.OPERATION_NOT_SUPPORTED, rangeCall.position(),
+                    ErrorContextBuilder.buildContext((Expression) rangeCall));
+            return;
+        }
+        ValueReference iteratorReference = new ValueReference();
+        environment.store(statement.iteratorSlot(), iteratorReference);
+        for (int i = start; i < stop; ++i) {
+            iteratorReference.setValue(i);
+            statement.block().accept(this);
+            if (returning) {
+                break;
+            }
+        }
+    }
+
     @SneakyThrows
     @Override
     public void visit(IfStatement statement) {
@@ -512,9 +637,12 @@ public class Interpreter implements Visitor {
         if (start == null || stop == null) {
             throw new IllegalStateException();
         }
-        lastValue = new ListInstance(IntStream.range(start, stop)
-                .boxed()
-                .collect(Collectors.toList()));
+        if (IntRange.isTooLong(start, stop)) {
+            FunctionCallExpression functionCallExpression = (FunctionCallExpression) consumeLastValue();
+            handleError(ErrorType.RANGE_TOO_LONG, functionCallExpression.position(),
+                    ErrorContextBuilder.buildContext((Expression) functionCallExpression));
+        }
+        lastValue = new ListInstance(new IntRange(start, stop));
         returning = true;
     }
 
@@ -534,7 +662,7 @@ public class Interpreter implements Visitor {
         ValueReference valueReference = environment.find(THIS);
         ListInstance listInstance = (ListInstance) valueReference.getValue();
         Object item = environment.find(AppendMethod.ITEM);
-        listInstance.getList().add(item);
+        listInstance.getMutableList().add(item);
     }
 
     @SneakyThrows
@@ -565,13 +693,13 @@ public class Interpreter implements Visitor {
         }
         ValueReference selfReference = environment.find(THIS);
         ListInstance listInstance = (ListInstance) selfReference.getValue();
-        List<Object> list = listInstance.getList();
-        if (index > list.size() - 1 || index < 0) {
+        // the bounds are checked before a range is copied into a list it can be removed from
+        if (index > listInstance.getList().size() - 1 || index < 0) {
             FunctionCallExpression functionCallExpression = (FunctionCallExpression) consumeLastValue();
             handleError(ErrorType.INDEX_OUT_OF_BOUND, functionCallExpression.position(),
                     ErrorContextBuilder.buildContext((Expression) functionCallExpression));
         }
-        lastValue = list.remove(index);
+        lastValue = listInstance.getMutableList().remove((int) index);
         returning = true;
     }
 
@@ -587,7 +715,8 @@ public class Interpreter implements Visitor {
     private Integer extractNumericArg(String argName) throws Exception {
         ValueReference valueReference = environment.find(argName);
         Object arg = valueReference.getValue();
-        if (arg instanceof Integer index) {
+        Integer index = NumericLiterals.toInteger(arg);
+        if (index != null) {
             return index;
         } else {
             FunctionCallExpression functionCallExpression = (FunctionCallExpression) consumeLastValue();
@@ -641,6 +770,11 @@ public class Interpreter implements Visitor {
     }
 
     private void handleError(ErrorType type, Position position, String errorMessage) throws Exception {
+        handleError(errorHandler, type, position, errorMessage);
+    }
+
+    private static void handleError(ErrorHandler errorHandler, ErrorType type, Position position,
+                                    String errorMessage) throws Exception {
         ErrorDetails errorDetails = new ErrorInterpreterDetails(type, position, errorMessage);
         errorHandler.handleError(errorDetails);
         throw new SemanticException(type.toString());
@@ -0,0 +1,145 @@
+package org.example.interpreter;
+
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.*;
+import org.example.visitor.AstRewriter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pass run before execution which gives every local variable a slot in the frame of a call, so that the interpreter
+ * reads and writes variables by index. Names are resolved as the interpreter used to find them: from the innermost
+ * block outwards, and a name which is not found on the left side of an assignment is declared in the innermost block.
+ * Such an occurrence is marked as a declaration, the interpreter creates the variable there. A loop iterator is
+ * always declared in a scope of its own. Slots of a block are reused once the block ends.
+ * <p>
+ * The resolved program is made of new records, lazily parsed functions are resolved when they are first visited.
+ */
+public class Resolver extends AstRewriter {
+
+    private final Deque<Map<String, Integer>> scopes = new ArrayDeque<>();
+    private int nextSlot = 0;
+    private int slotCount = 0;
+    private boolean assignment = false;
+
+    private Resolver() {
+    }
+
+    /**
+     * @return program with the same built-ins and resolved user definitions
+     */
+    public static Program resolve(Program program) {
+        return rewriteFunctions(program, Resolver::resolve);
+    }
+
+    public static ClassDefinition resolve(ClassDefinition classDefinition) {
+        return rewriteMethods(classDefinition, Resolver::resolve);
+    }
+
+    public static FunctionDefinition resolve(FunctionDefinition functionDefinition) {
+        if (functionDefinition instanceof UserFunctionDefinition userFunctionDefinition) {
+            final List<Parameter> parameters = slotted(userFunctionDefinition.parameters());
+            return new Resolver().resolveFunction(userFunctionDefinition, parameters);
+        }
+        if (functionDefinition instanceof LazyFunctionDefinition lazyFunctionDefinition) {
+            final List<Parameter> parameters = slotted(lazyFunctionDefinition.parameters());
+            return lazyFunctionDefinition.transform(parameters,
+                    definition -> new Resolver().resolveFunction(definition, parameters));
+        }
+        return functionDefinition;
+    }
+
+    private static List<Parameter> slotted(List<Parameter> parameters) {
+        final List<Parameter> slotted = new ArrayList<>(parameters.size());
+        for (int i = 0; i < parameters.size(); i++) {
+            slotted.add(new Parameter(parameters.get(i).name(), i));
+        }
+        return slotted;
+    }
+
+    private UserFunctionDefinition resolveFunction(UserFunctionDefinition functionDefinition, List<Parameter> parameters) {
+        final Map<String, Integer> parameterScope = new HashMap<>();
+        for (Parameter parameter : parameters) {
+            parameterScope.put(parameter.name(), parameter.slot());
+        }
+        scopes.push(parameterScope);
+        nextSlot = slotCount = parameters.size();
+        final Block block = rewrite(functionDefinition.block());
+        scopes.pop();
+        return new UserFunctionDefinition(functionDefinition.name(), parameters, block, slotCount);
+    }
+
+    private int declare(String name) {
+        final int slot = nextSlot++;
+        slotCount = Math.max(slotCount, nextSlot);
+        scopes.peek().put(name, slot);
+        return slot;
+    }
+
+    private Integer find(String name) {
+        for (Map<String, Integer> scope : scopes) {
+            final Integer slot = scope.get(name);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void visit(Block block) {
+        final int firstSlot = nextSlot;
+        scopes.push(new HashMap<>());
+        super.visit(block);
+        scopes.pop();
+        nextSlot = firstSlot;
+    }
+
+    @Override
+    public void visit(IdentifierExpression expression) {
+        final Integer slot = find(expression.name());
+        if (slot != null) {
+            lastNode = new IdentifierExpression(expression.name(), expression.position(), slot, false);
+        } else if (assignment) {
+            lastNode = new IdentifierExpression(expression.name(), expression.position(), declare(expression.name()), true);
+        } else {
+            // not defined, reported by the interpreter if it is reached
+            lastNode = expression;
+        }
+    }
+
+    @Override
+    public void visit(AssignmentStatement statement) {
+        assignment = true;
+        final Expression left = rewrite(statement.left());
+        assignment = false;
+        lastNode = new AssignmentStatement(left, rewrite(statement.right()));
+    }
+
+    @Override
+    public void visit(ModifyAndAssignStatement statement) {
+        assignment = true;
+        final Expression left = rewrite(statement.left());
+        assignment = false;
+        lastNode = new ModifyAndAssignStatement(statement.additiveType(), left, rewrite(statement.right()));
+    }
+
+    @Override
+    public void visit(ForStatement statement) {
+        final Expression range = rewrite(statement.range());
+        final int firstSlot = nextSlot;
+        scopes.push(new HashMap<>());
+        final int iteratorSlot = declare(statement.iteratorName());
+        final Block block = rewrite(statement.block());
+        scopes.pop();
+        nextSlot = firstSlot;
+        lastNode = new ForStatement(statement.iteratorName(), range, block, iteratorSlot);
+    }
+
+}
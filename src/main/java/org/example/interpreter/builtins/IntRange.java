@@ -0,0 +1,44 @@
+package org.example.interpreter.builtins;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of consecutive integers, its elements are computed when asked for instead of being stored
+ */
+public class IntRange extends AbstractList<Object> implements RandomAccess {
+
+    private final int start;
+    private final int size;
+
+    /**
+     * @param start first element
+     * @param stop  element after the last one, the range is empty if it is not greater than start
+     * @throws ArithmeticException if the range is too long, see {@link #isTooLong}
+     */
+    public IntRange(int start, int stop) {
+        this.start = start;
+        this.size = Math.toIntExact(Math.max(0L, (long) stop - start));
+    }
+
+    /**
+     * @return true if the range from start to stop has more elements than a list can hold
+     */
+    public static boolean isTooLong(int start, int stop) {
+        return (long) stop - start > Integer.MAX_VALUE;
+    }
+
+    @Override
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return start + index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+}
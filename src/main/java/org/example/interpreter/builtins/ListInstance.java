@@ -9,7 +9,7 @@ import java.util.List;
 @Getter
 public class ListInstance extends ObjectInstance {
 
-    private final List<Object> list;
+    private List<Object> list;
 
     public ListInstance() {
         super(ListDefinition.LIST, ListDefinition.methods);
@@ -21,4 +21,14 @@ public class ListInstance extends ObjectInstance {
         this.list = list;
     }
 
+    /**
+     * @return list which can be changed, a range is copied into such a list on its first change
+     */
+    public List<Object> getMutableList() {
+        if (list instanceof IntRange) {
+            list = new ArrayList<>(list);
+        }
+        return list;
+    }
+
 }
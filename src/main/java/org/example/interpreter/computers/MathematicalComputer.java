@@ -13,6 +13,9 @@ public class MathematicalComputer {
 		if (left instanceof Integer leftInt && right instanceof Integer rightInt) {
 			return computeIntegers(leftInt, rightInt, operation);
 		}
+		if (isIntegral(left) && isIntegral(right)) {
+			return computeLongs(leftNum.longValue(), rightNum.longValue(), operation);
+		}
 		return computeDoubles(leftNum.doubleValue(), rightNum.doubleValue(), operation);
 	}
 
@@ -25,6 +28,15 @@ public class MathematicalComputer {
 		};
 	}
 
+	private static Long computeLongs(Long left, Long right, MathematicalOperation operation) {
+		return switch (operation) {
+			case ADD -> left + right;
+			case SUBTRACT -> left - right;
+			case MULTIPLY -> left * right;
+			case DIVIDE -> left / right;
+		};
+	}
+
 	private static Double computeDoubles(Double left, Double right, MathematicalOperation operation) {
 		return switch (operation) {
 			case ADD -> left + right;
@@ -34,4 +46,8 @@ public class MathematicalComputer {
 		};
 	}
 
+	static boolean isIntegral(Object value) {
+		return value instanceof Integer || value instanceof Long;
+	}
+
 }
@@ -8,6 +8,7 @@ public class NegationComputer {
 	public static Object compute(Object object) {
 		return switch (object) {
 			case Integer i -> -i;
+			case Long l -> -l;
 			case Double d -> -d;
 			case Boolean b -> !b;
 			default -> null;
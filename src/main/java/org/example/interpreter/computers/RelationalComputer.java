@@ -9,12 +9,27 @@ import java.util.Objects;
 public class RelationalComputer {
 
 	public static Object compute(Object left, Object right, RelationalOperation operation) {
+		if (MathematicalComputer.isIntegral(left) && MathematicalComputer.isIntegral(right)) {
+			// longs above 2^53 are not exact as doubles
+			return computeLongs(((Number) left).longValue(), ((Number) right).longValue(), operation);
+		}
 		if (left instanceof Number leftNum && right instanceof Number rightNum) {
 			return computeDoubles(leftNum.doubleValue(), rightNum.doubleValue(), operation);
 		}
 		return null;
 	}
 
+	private static Boolean computeLongs(long left, long right, RelationalOperation operation) {
+		return switch (operation) {
+			case EQUAL -> left == right;
+			case NOT_EQUAL -> left != right;
+			case GREATER -> left > right;
+			case LESS -> left < right;
+			case GREATER_OR_EQUAL -> left >= right;
+			case LESS_OR_EQUAL -> left <= right;
+		};
+	}
+
 	private static Boolean computeDoubles(Double left, Double right, RelationalOperation operation) {
 		return switch (operation) {
 			case EQUAL -> Objects.equals(left, right);
@@ -3,60 +3,87 @@ package org.example.interpreter.environment;
 import lombok.NoArgsConstructor;
 import org.example.interpreter.accessible.ValueReference;
 
-import java.util.Stack;
+import java.util.Arrays;
 
+/**
+ * Stack of call frames. Frames are kept when a call returns and reused by later calls, together with their arrays
+ * of local variables, so that entering and leaving a call allocates nothing once the stack is deep enough.
+ */
 @NoArgsConstructor
 public class Environment {
 
-	private final Stack<FunctionCallContext> functionCallContexts = new Stack<>();
+	private static final int INITIAL_DEPTH = 64;
+
+	private FunctionCallContext[] functionCallContexts = new FunctionCallContext[INITIAL_DEPTH];
+	// number of active frames
+	private int depth = 0;
+	private FunctionCallContext currentContext = null;
 
 	public void enterFunctionCall() {
-		functionCallContexts.push(new FunctionCallContext(ContextType.FUNCTION));
+		enterCall(ContextType.FUNCTION);
 	}
 
 	public void enterMethodCall() {
-		functionCallContexts.push(new FunctionCallContext(ContextType.METHOD));
+		enterCall(ContextType.METHOD);
 	}
 
 	public void enterConstructorCall() {
-		functionCallContexts.push(new FunctionCallContext(ContextType.CONSTRUCTOR));
+		enterCall(ContextType.CONSTRUCTOR);
 	}
 
 	public void exitCurrentCall() {
-		functionCallContexts.pop();
+		currentContext.clear();
+		depth--;
+		currentContext = depth > 0 ? functionCallContexts[depth - 1] : null;
+	}
+
+	private void enterCall(ContextType contextType) {
+		if (depth == functionCallContexts.length) {
+			functionCallContexts = Arrays.copyOf(functionCallContexts, depth * 2);
+		}
+		FunctionCallContext context = functionCallContexts[depth];
+		if (context == null) {
+			context = new FunctionCallContext();
+			functionCallContexts[depth] = context;
+		}
+		context.enter(contextType);
+		depth++;
+		currentContext = context;
+	}
+
+	/**
+	 * Makes room for the local variables of the current call
+	 */
+	public void reserveSlots(int slotCount) {
+		currentContext.reserveSlots(slotCount);
 	}
 
-	public void enterScope() {
-		FunctionCallContext currentContext = functionCallContexts.peek();
-		currentContext.createScope();
+	public void store(int slot, ValueReference valueReference) {
+		currentContext.store(slot, valueReference);
 	}
 
-	public void exitScope() {
-		FunctionCallContext currentContext = functionCallContexts.peek();
-		currentContext.exitScope();
+	public ValueReference find(int slot) {
+		return currentContext.find(slot);
 	}
 
 	public void store(String key, ValueReference valueReference) {
-		FunctionCallContext currentContext = functionCallContexts.peek();
 		currentContext.store(key, valueReference);
 	}
 
 	public ValueReference find(String key) {
-		FunctionCallContext currentContext = functionCallContexts.peek();
-        return currentContext.find(key);
+		return currentContext.find(key);
 	}
 
+	public ContextType getContextType() {
+		return currentContext.getContextType();
+	}
 
-    public ContextType getContextType() {
-        return functionCallContexts.peek().getContextType();
-    }
-
-    public boolean isAssignment() {
-        return functionCallContexts.peek().isAssignment();
-    }
+	public boolean isAssignment() {
+		return currentContext.isAssignment();
+	}
 
-    public void setIsAssignment(boolean isAssignment) {
-        functionCallContexts.peek().setAssignment(isAssignment);
-    }
+	public void setIsAssignment(boolean isAssignment) {
+		currentContext.setAssignment(isAssignment);
+	}
 
 }
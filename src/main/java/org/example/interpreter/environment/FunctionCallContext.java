@@ -6,42 +6,71 @@ import org.example.interpreter.accessible.ValueReference;
 
 import java.util.*;
 
+/**
+ * Frame of a call, reused by the Environment for later calls at the same depth
+ */
 public class FunctionCallContext {
 
-    FunctionCallContext(ContextType contextType) {
-        this.contextType = contextType;
-        createScope();
-    }
+    private static final ValueReference[] NO_SLOTS = new ValueReference[0];
+
+    // local variables, indexed by slots given by the Resolver
+    private ValueReference[] slots = NO_SLOTS;
+    // slots which may hold a variable of the current call
+    private int usedSlots = 0;
 
-    private final List<Map<String, ValueReference>> scopes = new ArrayList<>();
+    // values stored by name: the object of a method call and arguments of built-in functions
+    private Map<String, ValueReference> namedValues = null;
 
     @Getter
-    private final ContextType contextType;
+    private ContextType contextType;
 
     @Getter
     @Setter
     private boolean isAssignment = false;
 
-    public void createScope() {
-        // the scope at position 0 is the newest one
-        scopes.add(0, new HashMap<>());
+    void enter(ContextType contextType) {
+        this.contextType = contextType;
+        this.isAssignment = false;
+    }
+
+    /**
+     * Drops the values of the finished call, so that they can be collected
+     */
+    void clear() {
+        Arrays.fill(slots, 0, usedSlots, null);
+        usedSlots = 0;
+        if (namedValues != null) {
+            namedValues.clear();
+        }
+    }
+
+    public void reserveSlots(int slotCount) {
+        if (slotCount > slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(slotCount, slots.length * 2));
+        }
+        usedSlots = Math.max(usedSlots, slotCount);
+    }
+
+    public void store(int slot, ValueReference value) {
+        if (slot >= usedSlots) {
+            reserveSlots(slot + 1);
+        }
+        slots[slot] = value;
     }
 
-    public void exitScope() {
-        scopes.remove(0);
+    public ValueReference find(int slot) {
+        return slots[slot];
     }
 
     public void store(String key, ValueReference value) {
-        Map<String, ValueReference> scope = scopes.get(0);
-        scope.put(key, value);
+        if (namedValues == null) {
+            namedValues = new HashMap<>();
+        }
+        namedValues.put(key, value);
     }
 
     public ValueReference find(String key) {
-        return scopes.stream()
-                .map(scope -> scope.get(key))
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElse(null);
+        return namedValues == null ? null : namedValues.get(key);
     }
 
 }
@@ -4,15 +4,19 @@ import lombok.SneakyThrows;
 import org.apache.commons.lang3.StringUtils;
 import org.example.properties.Configuration;
 import org.example.commons.EscapeUtils;
+import org.example.commons.KeywordTable;
+import org.example.commons.NumericLiterals;
 import org.example.commons.Position;
 import org.example.commons.TokenGroups;
 import org.example.error.ErrorHandler;
 import org.example.error.details.ErrorLexerDetails;
 import org.example.error.enums.ErrorType;
+import org.example.lexer.source.CharacterSource;
+import org.example.lexer.source.ReaderCharacterSource;
 import org.example.token.*;
 
 import java.io.BufferedReader;
-import java.io.IOException;
+import java.util.Arrays;
 import java.util.Optional;
 
 public class LexerImpl implements Lexer {
@@ -21,31 +25,58 @@ public class LexerImpl implements Lexer {
 	private static final char DOT = '.';
 	private static final char DOUBLE_QUOTE = '\"';
 	private static final char BACKSLASH = '\\';
-	private static final char LINE_SEPARATOR = '\n';
-	private static final char ETX = 3;
-	private static final int LINE_FEED_ASCII = 10;
-	private static final int CARRIAGE_RETURN_ASCII = 13;
+	private static final char LINE_SEPARATOR = CharacterSource.LINE_SEPARATOR;
+	private static final char ETX = CharacterSource.ETX;
+	private static final int NUMBER_BUFFER_SIZE = 32;
 
-	private final BufferedReader bufferedReader;
+	// returned by parseComment() in place of comments which are skipped
+	private static final Token SKIPPED_COMMENT = new TokenComment(null, null);
+
+	private final CharacterSource source;
 	private final ErrorHandler errorHandler;
-	private final Position currentPosition;
+	private final boolean skipComments;
+
+	private final char[] identifierBuffer = new char[Configuration.getIdentifierMaxLength()];
+	private final char[] commentPrefix = new char[Math.min(Configuration.getCommentMaxLength(),
+			Configuration.getErrorMessageExpressionMaxLength() + 1)];
 
+	private char[] numberBuffer = new char[NUMBER_BUFFER_SIZE];
+	private int numberLength;
 	private char currentChar;
 	private Position tokenPosition;
 
 	public LexerImpl(BufferedReader bufferedReader, ErrorHandler errorHandler) {
-		this.bufferedReader = bufferedReader;
+		this(new ReaderCharacterSource(bufferedReader), errorHandler);
+	}
+
+	public LexerImpl(CharacterSource source, ErrorHandler errorHandler) {
+		this(source, errorHandler, false);
+	}
+
+	/**
+	 * @param skipComments if true, comments are checked for length but no TokenComment is returned
+	 */
+	public LexerImpl(CharacterSource source, ErrorHandler errorHandler, boolean skipComments) {
+		this.source = source;
 		this.errorHandler = errorHandler;
-		this.currentPosition = new Position(1, 1);
-		this.currentChar = readChar();
+		this.skipComments = skipComments;
+		this.currentChar = source.next();
 	}
 
 	@Override
 	public Token next() {
-		while (Character.isWhitespace(currentChar)) {
-			currentChar = nextChar();
+		Token token = buildToken();
+		while (token == SKIPPED_COMMENT) {
+			token = buildToken();
 		}
-		this.tokenPosition = currentPosition.copy();
+		return token;
+	}
+
+	private Token buildToken() {
+		while (Character.isWhitespace(currentChar = source.skipBlanks())) {
+			nextChar();
+		}
+		this.tokenPosition = source.getPosition();
 
 		Optional<Token> token = tryBuildEOF();
 		if (token.isPresent()) {
@@ -75,15 +106,16 @@ public class LexerImpl implements Lexer {
 		if (!Character.isDigit(currentChar)) {
 			return Optional.empty();
 		}
-		int value = Character.getNumericValue(currentChar);
-		Integer decimalPart = parseDecimalPart(value);
+		numberLength = 0;
+		Long decimalPart = parseDecimalPart();
 		if (decimalPart == null) {
 			return Optional.of(new TokenUndefined(tokenPosition));
 		}
 
 		if (currentChar == DOT) {
+			appendToNumber(DOT);
 			nextChar();
-			return parseFloat(decimalPart);
+			return parseFloat();
 		}
 
 		// don't allow alpha symbols follow numbers
@@ -92,91 +124,88 @@ public class LexerImpl implements Lexer {
 					StringUtils.join(decimalPart, currentChar)));
 			return Optional.of(new TokenUndefined(tokenPosition));
 		}
-		return Optional.of(new TokenInteger(tokenPosition, decimalPart));
+		return Optional.of(new TokenInteger(tokenPosition, NumericLiterals.narrow(decimalPart)));
 	}
 
-	private Optional<Token> parseFloat(Integer decimalPart) {
-		if (Character.isLetter(currentChar)) {
-			handleError(ErrorType.UNDEFINED_TOKEN, tokenPosition, parseUndefinedSequence(
-					StringUtils.join(decimalPart, DOT, currentChar)));
-			return Optional.of(new TokenUndefined(tokenPosition));
-		}
-		if (!Character.isDigit(currentChar)) {
-			return Optional.of(new TokenFloat(tokenPosition, Double.valueOf(decimalPart)));
-		}
-		int fraction = Character.getNumericValue(currentChar);
-		Double fractionPart = parseFractionPart(decimalPart, fraction);
-		if (fractionPart == null) {
-			return Optional.of(new TokenUndefined(tokenPosition));
+	private Optional<Token> parseFloat() {
+		while (Character.isDigit(currentChar)) {
+			appendToNumber(currentChar);
+			nextChar();
 		}
 		// don't allow alpha symbols follow floats
 		if (Character.isLetter(currentChar)) {
 			handleError(ErrorType.UNDEFINED_TOKEN, tokenPosition, parseUndefinedSequence(
-					StringUtils.join(decimalPart + fractionPart, currentChar)));
+					StringUtils.join(new String(numberBuffer, 0, numberLength), currentChar)));
 			return Optional.of(new TokenUndefined(tokenPosition));
 		}
-		return Optional.of(new TokenFloat(tokenPosition, decimalPart + fractionPart));
+		return Optional.of(new TokenFloat(tokenPosition, NumericLiterals.parseDouble(numberBuffer, 0, numberLength)));
 	}
 
-	private Integer parseDecimalPart(int value) {
+	/**
+	 * Digits beyond the range of a long are still buffered, as they may be the integer part of a float
+	 *
+	 * @return value of the digits, or null if an integer literal exceeds the range of a long
+	 */
+	private Long parseDecimalPart() {
+		long value = 0;
+		boolean exceeded = false;
 		int digit;
-		while (Character.isDigit(nextChar())) {
+		do {
 			digit = Character.getNumericValue(currentChar);
-			if ((Integer.MAX_VALUE - digit) / 10 >= value) {
+			if (!exceeded && (Long.MAX_VALUE - digit) / 10 < value) {
+				exceeded = true;
+			}
+			if (!exceeded) {
 				value = value * 10 + digit;
-			} else {
-				handleError(ErrorType.NUMERIC_LIMIT_EXCEEDED, tokenPosition, value + "...");
-				return null;
 			}
+			appendToNumber(currentChar);
+		} while (Character.isDigit(nextChar()));
+		if (exceeded && currentChar != DOT) {
+			handleError(ErrorType.NUMERIC_LIMIT_EXCEEDED, tokenPosition, value + "...");
+			return null;
 		}
 		return value;
 	}
 
-	private Double parseFractionPart(int decimalPart, int fraction) {
-		int num_of_digits = 1;
-		int digit;
-		while (Character.isDigit(nextChar())) {
-			digit = Character.getNumericValue(currentChar);
-			if ((Integer.MAX_VALUE - digit) / 10 >= fraction) {
-				fraction = fraction * 10 + digit;
-				num_of_digits++;
-			} else {
-				handleError(ErrorType.NUMERIC_LIMIT_EXCEEDED, tokenPosition, StringUtils.join(decimalPart, DOT, fraction, "..."));
-				return null;
-			}
+	/**
+	 * Stores a character of the literal, digits are stored as ASCII, so that the float can be parsed again if needed
+	 */
+	private void appendToNumber(char c) {
+		if (numberLength == numberBuffer.length) {
+			numberBuffer = Arrays.copyOf(numberBuffer, numberLength * 2);
 		}
-		return fraction / Math.pow(10, num_of_digits);
+		numberBuffer[numberLength++] = c == DOT ? DOT : (char) ('0' + Character.getNumericValue(c));
 	}
 
 	private Optional<Token> tryBuildIdentifierOrKeyword() {
 		if (!Character.isLetter(currentChar)) {
 			return Optional.empty();
 		}
-		var builder = new StringBuilder(Character.toString(currentChar));
-		while (isIdentifierChar(nextChar())) {
-			if (builder.length() == Configuration.getIdentifierMaxLength()) {
-				handleError(ErrorType.IDENTIFIER_LENGTH_EXCEEDED, tokenPosition, builder.toString());
-				return Optional.of(new TokenIdentifier(tokenPosition, builder.toString()));
+		int length = 0;
+		int hash = 0;
+		do {
+			if (length == identifierBuffer.length) {
+				final var identifier = new String(identifierBuffer, 0, length);
+				handleError(ErrorType.IDENTIFIER_LENGTH_EXCEEDED, tokenPosition, identifier);
+				return Optional.of(new TokenIdentifier(tokenPosition, identifier));
 			}
-			builder.append(currentChar);
-		}
+			identifierBuffer[length++] = currentChar;
+			hash = KeywordTable.hash(hash, currentChar);
+		} while (isIdentifierChar(nextChar()));
 
-		String key = builder.toString();
-		TokenType tokenType = TokenGroups.BOOL_LITERALS.get(key);
-		if (tokenType != null) {
+		TokenType tokenType = TokenGroups.KEYWORD_TABLE.get(identifierBuffer, 0, length, hash);
+		if (tokenType == TokenType.TRUE || tokenType == TokenType.FALSE) {
 			Boolean value = tokenType == TokenType.TRUE ? Boolean.TRUE : Boolean.FALSE;
 			return Optional.of(new TokenBool(tokenPosition, value));
 		}
-
-		tokenType = TokenGroups.KEYWORDS.get(key);
 		if (tokenType != null) {
 			return Optional.of(new TokenKeyword(tokenType, tokenPosition));
 		}
-		return Optional.of(new TokenIdentifier(tokenPosition, key));
+		return Optional.of(new TokenIdentifier(tokenPosition, new String(identifierBuffer, 0, length)));
 	}
 
 	private Optional<Token> tryBuildSymbolOrComment() {
-		if (!TokenGroups.SYMBOLS.containsKey(Character.toString(currentChar)) && currentChar != '!') {
+		if (TokenGroups.getSymbol(currentChar) == null && currentChar != '!') {
 			return Optional.empty();
 		}
 		switch (currentChar) {
@@ -212,7 +241,7 @@ public class LexerImpl implements Lexer {
 				}
 			}
 			default -> {
-				final var tokenType = TokenGroups.SYMBOLS.get(Character.toString(currentChar));
+				final var tokenType = TokenGroups.getSymbol(currentChar);
 				nextChar();
 				return Optional.of(new TokenSymbol(tokenType, tokenPosition));
 			}
@@ -229,6 +258,9 @@ public class LexerImpl implements Lexer {
 	}
 
 	private Optional<Token> parseComment() {
+		if (skipComments) {
+			return skipComment();
+		}
 		final var builder = new StringBuilder();
 		while (nextChar() != ETX) {
 			if (currentChar == LINE_SEPARATOR) {
@@ -243,6 +275,22 @@ public class LexerImpl implements Lexer {
 		return Optional.of(new TokenComment(tokenPosition, builder.toString()));
 	}
 
+	private Optional<Token> skipComment() {
+		int length = 0;
+		while (nextChar() != ETX && currentChar != LINE_SEPARATOR) {
+			if (length == Configuration.getCommentMaxLength()) {
+				// error message is trimmed, so the kept beginning of the comment is enough
+				handleError(ErrorType.COMMENT_LENGTH_EXCEEDED, tokenPosition, new String(commentPrefix, 0, commentPrefix.length));
+				break;
+			}
+			if (length < commentPrefix.length) {
+				commentPrefix[length] = currentChar;
+			}
+			length++;
+		}
+		return Optional.of(SKIPPED_COMMENT);
+	}
+
 	private Optional<Token> tryBuildText() {
 		if (currentChar != DOUBLE_QUOTE) {
 			return Optional.empty();
@@ -289,57 +337,8 @@ public class LexerImpl implements Lexer {
 	}
 
 	private char nextChar() {
-		movePosition();
-		return readChar();
-	}
-
-	private char readChar() {
-		int character;
-		boolean isLineSeparator;
-		try {
-			character = bufferedReader.read();
-			isLineSeparator = tryConsumeLineSeparator(character);
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		if (isLineSeparator) {
-			this.currentChar = LINE_SEPARATOR;
-			return this.currentChar;
-		}
-		if (character == -1) {
-			this.currentChar = ETX;
-		} else {
-			this.currentChar = (char) character;
-		}
-		return this.currentChar;
-	}
-
-	private boolean tryConsumeLineSeparator(int character) throws IOException {
-		if (character == LINE_FEED_ASCII) {
-			bufferedReader.mark(1);
-			character = bufferedReader.read();    // reading the next character
-			if (character != CARRIAGE_RETURN_ASCII) {    // if it is not carriage return, reset pointer to the previous character
-				bufferedReader.reset();
-			}
-			return true;
-		}
-		if (character == CARRIAGE_RETURN_ASCII) {    // if character is carriage return, the next can be line feed
-			bufferedReader.mark(1);
-			character = bufferedReader.read();    // reading the next character
-			if (character != LINE_FEED_ASCII) {    // if it is not line feed, reset pointer to the previous character
-				bufferedReader.reset();
-			}
-			return true;
-		}
-		return false;
-	}
-
-	private void movePosition() {
-		if (currentChar == LINE_SEPARATOR) {
-			this.currentPosition.nextLine();
-		} else {
-			this.currentPosition.nextChar();
-		}
+		currentChar = source.next();
+		return currentChar;
 	}
 
 	private boolean isIdentifierChar(char c) {
@@ -347,7 +346,7 @@ public class LexerImpl implements Lexer {
 	}
 
 	private boolean isUndefinedTokenChar(char c) {
-		return !(Character.isWhitespace(c) || currentChar == ETX || TokenGroups.SYMBOLS.containsKey(Character.toString(c)));
+		return !(Character.isWhitespace(c) || currentChar == ETX || TokenGroups.getSymbol(c) != null);
 	}
 
 	@SneakyThrows
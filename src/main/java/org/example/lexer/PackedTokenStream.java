@@ -0,0 +1,476 @@
+package org.example.lexer;
+
+import org.example.commons.EscapeUtils;
+import org.example.commons.KeywordTable;
+import org.example.commons.LineIndex;
+import org.example.commons.NumericLiterals;
+import org.example.commons.Position;
+import org.example.commons.TokenGroups;
+import org.example.error.ErrorHandler;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.lexer.source.CharScanner;
+import org.example.lexer.source.CharacterSource;
+import org.example.properties.Configuration;
+import org.example.token.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Token stream stored in parallel primitive arrays: token type, offset and length in the source text,
+ * with a LineIndex of the text for positions. The whole text is scanned up front without allocating any objects,
+ * Token objects (and literal values) are materialized only when the parser asks for them in next().
+ * <p>
+ * Lexical errors are not reported by the scanner. It stops at the first ill-formed token and leaves
+ * a fallback marker, from which a LexerImpl takes over when the parser reaches it, so that errors
+ * are reported exactly as they would be by LexerImpl.
+ */
+public class PackedTokenStream implements Lexer {
+
+	private static final char UNDERSCORE = '_';
+	private static final char DOT = '.';
+	private static final char DOUBLE_QUOTE = '\"';
+	private static final char BACKSLASH = '\\';
+	private static final char LINE_FEED = '\n';
+	private static final char CARRIAGE_RETURN = '\r';
+	private static final char ETX = CharacterSource.ETX;
+
+	private static final int FALLBACK = -1;
+	private static final int MIN_CAPACITY = 16;
+	private static final TokenType[] TYPES = TokenType.values();
+
+	private final char[] text;
+	private final int length;
+	private final ErrorHandler errorHandler;
+	private final boolean skipComments;
+	private final LineIndex lineIndex;
+
+	private int[] types;
+	private int[] offsets;
+	private int[] lengths;
+	private int size = 0;
+
+	// scanner state
+	private int index = 0;
+
+	// consumer state
+	private int cursor = 0;
+	private Lexer fallbackLexer = null;
+
+	public PackedTokenStream(char[] text, int length, ErrorHandler errorHandler) {
+		this(text, length, errorHandler, false);
+	}
+
+	/**
+	 * @param skipComments if true, comments are checked for length but not stored
+	 */
+	public PackedTokenStream(char[] text, int length, ErrorHandler errorHandler, boolean skipComments) {
+		this(text, 0, length, 1, errorHandler, skipComments, Math.max(MIN_CAPACITY, length / 4));
+		scan();
+	}
+
+	private PackedTokenStream(char[] text, int from, int to, int lineNumber, ErrorHandler errorHandler,
+							  boolean skipComments, int initialCapacity) {
+		this.text = text;
+		this.length = to;
+		this.errorHandler = errorHandler;
+		this.skipComments = skipComments;
+		this.types = new int[initialCapacity];
+		this.offsets = new int[initialCapacity];
+		this.lengths = new int[initialCapacity];
+		this.index = from;
+		this.lineIndex = new LineIndex(lineNumber, from);
+	}
+
+	public static PackedTokenStream read(Reader reader, ErrorHandler errorHandler) throws IOException {
+		return read(reader, errorHandler, false);
+	}
+
+	public static PackedTokenStream read(Reader reader, ErrorHandler errorHandler, boolean skipComments) throws IOException {
+		char[] text = readText(reader);
+		return new PackedTokenStream(text, text.length, errorHandler, skipComments);
+	}
+
+	/**
+	 * Reads all remaining characters of the reader
+	 */
+	public static char[] readText(Reader reader) throws IOException {
+		char[] text = new char[BufferedCharacterSource.DEFAULT_WINDOW_SIZE];
+		int length = 0;
+		int read;
+		while ((read = reader.read(text, length, text.length - length)) != -1) {
+			length += read;
+			if (length == text.length) {
+				text = Arrays.copyOf(text, text.length * 2);
+			}
+		}
+		return length == text.length ? text : Arrays.copyOf(text, length);
+	}
+
+	/**
+	 * Scans characters from the given offset up to another one. The fragment has to begin a line,
+	 * its tokens have the same offsets and positions as they would have when the whole text is scanned.
+	 */
+	static PackedTokenStream scanFragment(char[] text, int from, int to, int lineNumber, ErrorHandler errorHandler,
+										  boolean skipComments) {
+		var fragment = new PackedTokenStream(text, from, to, lineNumber, errorHandler, skipComments,
+				Math.max(MIN_CAPACITY, (to - from) / 4));
+		fragment.scan();
+		return fragment;
+	}
+
+	/**
+	 * Joins scanned consecutive fragments of the text into one stream. A fragment which ended before its last
+	 * character (on an ill-formed token or on the ETX character) ends the stream, like it would end the scan of the whole text.
+	 *
+	 * @param length length of the whole text
+	 */
+	static PackedTokenStream concat(List<PackedTokenStream> fragments, int length, ErrorHandler errorHandler) {
+		final int[] counts = new int[fragments.size()];
+		int total = 0;
+		int included = 0;
+		for (int i = 0; i < fragments.size(); i++) {
+			included++;
+			PackedTokenStream fragment = fragments.get(i);
+			int last = fragment.size - 1;
+			boolean complete = fragment.types[last] == TokenType.END_OF_FILE.ordinal() && fragment.offsets[last] == fragment.length;
+			if (i == fragments.size() - 1 || !complete) {
+				counts[i] = fragment.size;
+				total += counts[i];
+				break;
+			}
+			counts[i] = last;	// without END_OF_FILE
+			total += counts[i];
+		}
+		final var first = fragments.get(0);
+		final var stream = new PackedTokenStream(first.text, 0, length, 1, errorHandler, first.skipComments, total);
+		for (int i = 0; i < included; i++) {
+			PackedTokenStream fragment = fragments.get(i);
+			System.arraycopy(fragment.types, 0, stream.types, stream.size, counts[i]);
+			System.arraycopy(fragment.offsets, 0, stream.offsets, stream.size, counts[i]);
+			System.arraycopy(fragment.lengths, 0, stream.lengths, stream.size, counts[i]);
+			stream.size += counts[i];
+			stream.lineIndex.addLines(fragment.lineIndex);
+		}
+		return stream;
+	}
+
+	@Override
+	public Token next() {
+		if (fallbackLexer != null) {
+			return fallbackLexer.next();
+		}
+		if (types[cursor] == FALLBACK) {
+			fallbackLexer = new LexerImpl(new BufferedCharacterSource(text, offsets[cursor], length - offsets[cursor],
+					getLineNumber(cursor), getCharacterNumber(cursor)), errorHandler, skipComments);
+			return fallbackLexer.next();
+		}
+		Token token = materialize(cursor);
+		if (cursor < size - 1) {
+			cursor++;     // END_OF_FILE is returned repeatedly, as LexerImpl does
+		}
+		return token;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return type of the token, null for a fallback marker
+	 */
+	public TokenType getType(int token) {
+		return types[token] == FALLBACK ? null : TYPES[types[token]];
+	}
+
+	public int getOffset(int token) {
+		return offsets[token];
+	}
+
+	public int getLength(int token) {
+		return lengths[token];
+	}
+
+	public int getLineNumber(int token) {
+		return lineIndex.getLineNumber(offsets[token]);
+	}
+
+	public int getCharacterNumber(int token) {
+		return lineIndex.getCharacterNumber(offsets[token]);
+	}
+
+	/**
+	 * @return number of tokens that can be stored without growing the arrays
+	 */
+	public int capacity() {
+		return types.length;
+	}
+
+	private Token materialize(int token) {
+		final TokenType type = TYPES[types[token]];
+		final Position position = new Position(lineIndex, offsets[token]);
+		final int offset = offsets[token];
+		final int tokenLength = lengths[token];
+		return switch (type) {
+			case END_OF_FILE -> new TokenEOF(position);
+			case IDENTIFIER -> new TokenIdentifier(position, new String(text, offset, tokenLength));
+			case TRUE -> new TokenBool(position, Boolean.TRUE);
+			case FALSE -> new TokenBool(position, Boolean.FALSE);
+			case INTEGER -> new TokenInteger(position, parseInteger(offset, offset + tokenLength));
+			case FLOAT -> new TokenFloat(position, NumericLiterals.parseDouble(text, offset, offset + tokenLength));
+			case TEXT -> new TokenText(position, decodeText(offset + 1, offset + tokenLength - 1));
+			case COMMENT -> new TokenComment(position, new String(text, offset + 2, tokenLength - 2));
+			case RETURN, FOR, IN, IF, ELSE, CLASS, THIS, AND, OR, NOT -> new TokenKeyword(type, position);
+			default -> new TokenSymbol(type, position);
+		};
+	}
+
+	private void scan() {
+		while (true) {
+			skipWhitespace();
+			if (!scanToken()) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return false when scanning is finished
+	 */
+	private boolean scanToken() {
+		final int start = index;
+		final char c = current();
+		if (c == ETX) {
+			add(TokenType.END_OF_FILE, start);
+			return false;
+		}
+		if (Character.isDigit(c)) {
+			return scanNumber(start);
+		}
+		if (Character.isLetter(c)) {
+			return scanIdentifierOrKeyword(start);
+		}
+		if (c == DOUBLE_QUOTE) {
+			return scanText(start);
+		}
+		if (c == '!') {
+			if (peek(1) == '=') {
+				index += 2;
+				return add(TokenType.NOT_EQUAL, start);
+			}
+			return fallback(start);
+		}
+		final TokenType symbol = TokenGroups.getSymbol(c);
+		if (symbol == null) {
+			return fallback(start);
+		}
+		return switch (c) {
+			case '=' -> scanDoubleSymbol(start, TokenType.EQUAL, TokenType.ASSIGN);
+			case '+' -> scanDoubleSymbol(start, TokenType.ADD_AND_ASSIGN, TokenType.ADD);
+			case '-' -> scanDoubleSymbol(start, TokenType.SUBTRACT_AND_ASSIGN, TokenType.SUBTRACT);
+			case '<' -> scanDoubleSymbol(start, TokenType.LESS_OR_EQUAL, TokenType.LESS);
+			case '>' -> scanDoubleSymbol(start, TokenType.GREATER_OR_EQUAL, TokenType.GREATER);
+			case '/' -> {
+				if (peek(1) == '/') {
+					yield scanComment(start);
+				}
+				index++;
+				yield add(TokenType.DIVIDE, start);
+			}
+			default -> {
+				index++;
+				yield add(symbol, start);
+			}
+		};
+	}
+
+	private boolean scanDoubleSymbol(int start, TokenType doubleSymbolType, TokenType singleSymbolType) {
+		if (peek(1) == '=') {
+			index += 2;
+			return add(doubleSymbolType, start);
+		}
+		index++;
+		return add(singleSymbolType, start);
+	}
+
+	private boolean scanNumber(int start) {
+		long value = 0;
+		while (Character.isDigit(current())) {
+			int digit = Character.getNumericValue(current());
+			if ((Long.MAX_VALUE - digit) / 10 < value) {
+				return fallback(start);
+			}
+			value = value * 10 + digit;
+			index++;
+		}
+		if (current() != DOT) {
+			if (Character.isLetter(current())) {
+				return fallback(start);
+			}
+			return add(TokenType.INTEGER, start);
+		}
+		index++;
+		while (Character.isDigit(current())) {
+			index++;
+		}
+		if (Character.isLetter(current())) {
+			return fallback(start);
+		}
+		return add(TokenType.FLOAT, start);
+	}
+
+	private boolean scanIdentifierOrKeyword(int start) {
+		final int maxLength = Configuration.getIdentifierMaxLength();
+		int hash = KeywordTable.hash(0, current());
+		index++;
+		char c;
+		while (isIdentifierChar(c = current())) {
+			if (index - start == maxLength) {
+				return fallback(start);
+			}
+			hash = KeywordTable.hash(hash, c);
+			index++;
+		}
+		final TokenType keyword = TokenGroups.KEYWORD_TABLE.get(text, start, index - start, hash);
+		return add(keyword != null ? keyword : TokenType.IDENTIFIER, start);
+	}
+
+	private boolean scanComment(int start) {
+		final int maxLength = Configuration.getCommentMaxLength();
+		final int end = CharScanner.findLineEnd(text, start + 2, length);
+		if (end - start - 2 > maxLength) {
+			return fallback(start);
+		}
+		index = end;
+		return skipComments || add(TokenType.COMMENT, start);
+	}
+
+	private boolean scanText(int start) {
+		final int maxLength = Configuration.getTextMaxLength();
+		int decodedLength = 0;
+		index++;
+		char c;
+		while ((c = current()) != DOUBLE_QUOTE) {
+			if (decodedLength == maxLength || c == ETX) {
+				return fallback(start);
+			}
+			if (c == BACKSLASH) {
+				index++;
+				if (current() == ETX) {
+					return fallback(start);
+				}
+			}
+			if (!skipLineSeparator()) {
+				index++;
+			}
+			decodedLength++;
+		}
+		index++;
+		return add(TokenType.TEXT, start);
+	}
+
+	private void skipWhitespace() {
+		index = CharScanner.skipBlanks(text, index, length);
+		char c;
+		while (Character.isWhitespace(c = current())) {
+			if (c != LINE_FEED && c != CARRIAGE_RETURN) {
+				index++;
+			} else {
+				skipLineSeparator();
+			}
+			index = CharScanner.skipBlanks(text, index, length);
+		}
+	}
+
+	/**
+	 * Skips LF, CR, CRLF or LFCR at the current index
+	 *
+	 * @return false if there is no line separator at the current index
+	 */
+	private boolean skipLineSeparator() {
+		final char c = current();
+		if (c != LINE_FEED && c != CARRIAGE_RETURN) {
+			return false;
+		}
+		index++;
+		if (current() == (c == LINE_FEED ? CARRIAGE_RETURN : LINE_FEED)) {
+			index++;
+		}
+		lineIndex.addLine(index);
+		return true;
+	}
+
+	private char current() {
+		return index < length ? text[index] : ETX;
+	}
+
+	private char peek(int distance) {
+		return index + distance < length ? text[index + distance] : ETX;
+	}
+
+	private boolean add(TokenType type, int start) {
+		append(type.ordinal(), start);
+		return true;
+	}
+
+	private boolean fallback(int start) {
+		append(FALLBACK, start);
+		return false;
+	}
+
+	private void append(int type, int start) {
+		if (size == types.length) {
+			grow();
+		}
+		types[size] = type;
+		offsets[size] = start;
+		lengths[size] = index - start;
+		size++;
+	}
+
+	private void grow() {
+		int capacity = types.length * 2;
+		types = Arrays.copyOf(types, capacity);
+		offsets = Arrays.copyOf(offsets, capacity);
+		lengths = Arrays.copyOf(lengths, capacity);
+	}
+
+	private Number parseInteger(int from, int to) {
+		long value = 0;
+		for (int i = from; i < to; i++) {
+			value = value * 10 + Character.getNumericValue(text[i]);
+		}
+		return NumericLiterals.narrow(value);
+	}
+
+	private String decodeText(int from, int to) {
+		final var builder = new StringBuilder(to - from);
+		for (int i = from; i < to; i++) {
+			char c = text[i];
+			if (c == BACKSLASH) {
+				c = text[++i];
+				if (c != LINE_FEED && c != CARRIAGE_RETURN) {
+					builder.append(EscapeUtils.SEQUENCE_MAP.getOrDefault(c, c));
+					continue;
+				}
+			}
+			if (c == LINE_FEED || c == CARRIAGE_RETURN) {
+				char pair = c == LINE_FEED ? CARRIAGE_RETURN : LINE_FEED;
+				if (i + 1 < to && text[i + 1] == pair) {
+					i++;
+				}
+				builder.append(LINE_FEED);
+				continue;
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+
+	private static boolean isIdentifierChar(char c) {
+		return Character.isLetter(c) || Character.isDigit(c) || c == UNDERSCORE;
+	}
+
+}
@@ -0,0 +1,128 @@
+package org.example.lexer;
+
+import org.example.error.ErrorHandler;
+import org.example.lexer.source.CharacterSource;
+import org.example.token.Token;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Lexer which splits the text into chunks and scans them concurrently on a fork-join pool.
+ * Chunks end right after a line separator which is not inside a text literal, so that every token lies in one chunk.
+ * Scanned chunks are joined into one PackedTokenStream, tokens have the same positions as if the text was scanned at once.
+ */
+public class ParallelLexer implements Lexer {
+
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	private static final char LINE_FEED = '\n';
+	private static final char CARRIAGE_RETURN = '\r';
+	private static final char DOUBLE_QUOTE = '\"';
+	private static final char BACKSLASH = '\\';
+	private static final char SLASH = '/';
+
+	private final PackedTokenStream tokens;
+
+	public ParallelLexer(char[] text, int length, ErrorHandler errorHandler) {
+		this(text, length, errorHandler, false, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param skipComments if true, comments are checked for length but not stored
+	 * @param chunkSize    minimal number of characters in a chunk
+	 */
+	public ParallelLexer(char[] text, int length, ErrorHandler errorHandler, boolean skipComments,
+						 ForkJoinPool pool, int chunkSize) {
+		List<Chunk> chunks = split(text, length, chunkSize);
+		if (chunks.size() == 1) {
+			this.tokens = new PackedTokenStream(text, length, errorHandler, skipComments);
+			return;
+		}
+		List<ForkJoinTask<PackedTokenStream>> tasks = new ArrayList<>(chunks.size());
+		for (Chunk chunk : chunks) {
+			tasks.add(pool.submit(() -> PackedTokenStream.scanFragment(text, chunk.from(), chunk.to(), chunk.lineNumber(),
+					errorHandler, skipComments)));
+		}
+		List<PackedTokenStream> fragments = new ArrayList<>(tasks.size());
+		for (ForkJoinTask<PackedTokenStream> task : tasks) {
+			fragments.add(task.join());
+		}
+		this.tokens = PackedTokenStream.concat(fragments, length, errorHandler);
+	}
+
+	public static ParallelLexer read(Reader reader, ErrorHandler errorHandler, boolean skipComments) throws IOException {
+		char[] text = PackedTokenStream.readText(reader);
+		return new ParallelLexer(text, text.length, errorHandler, skipComments, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	@Override
+	public Token next() {
+		return tokens.next();
+	}
+
+	public PackedTokenStream getTokens() {
+		return tokens;
+	}
+
+	/**
+	 * Finds chunk boundaries in one pass over the text, keeping track of text literals and comments
+	 */
+	static List<Chunk> split(char[] text, int length, int chunkSize) {
+		List<Chunk> chunks = new ArrayList<>();
+		int chunkStart = 0;
+		int chunkLineNumber = 1;
+		int lineNumber = 1;
+		boolean inText = false;
+		boolean inComment = false;
+		int i = 0;
+		while (i < length) {
+			char c = text[i];
+			if (c == CharacterSource.ETX) {
+				break;		// end of the scanned text
+			}
+			if (c == LINE_FEED || c == CARRIAGE_RETURN) {
+				i++;
+				if (i < length && text[i] == (c == LINE_FEED ? CARRIAGE_RETURN : LINE_FEED)) {
+					i++;
+				}
+				lineNumber++;
+				inComment = false;
+				if (!inText && i - chunkStart >= chunkSize && i < length) {
+					chunks.add(new Chunk(chunkStart, i, chunkLineNumber));
+					chunkStart = i;
+					chunkLineNumber = lineNumber;
+				}
+				continue;
+			}
+			if (inText) {
+				if (c == BACKSLASH) {
+					i++;
+					if (i < length && (text[i] == LINE_FEED || text[i] == CARRIAGE_RETURN)) {
+						continue;	// escaped line separator still starts a new line
+					}
+				} else if (c == DOUBLE_QUOTE) {
+					inText = false;
+				}
+			} else if (!inComment) {
+				if (c == DOUBLE_QUOTE) {
+					inText = true;
+				} else if (c == SLASH && i + 1 < length && text[i + 1] == SLASH) {
+					inComment = true;
+					i++;
+				}
+			}
+			i++;
+		}
+		chunks.add(new Chunk(chunkStart, length, chunkLineNumber));
+		return chunks;
+	}
+
+	record Chunk(int from, int to, int lineNumber) {
+	}
+
+}
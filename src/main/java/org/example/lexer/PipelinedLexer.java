@@ -0,0 +1,109 @@
+package org.example.lexer;
+
+import lombok.SneakyThrows;
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorDetails;
+import org.example.token.Token;
+import org.example.token.TokenType;
+
+import java.util.function.Function;
+
+/**
+ * Lexer wrapper which runs the wrapped lexer on its own thread, so that lexing overlaps with parsing.
+ * Tokens are passed through a bounded ring buffer; the lexer waits when the parser falls behind.
+ * <p>
+ * Errors found by the lexer are not handled on its thread. They are put in the buffer between tokens
+ * and given to the error handler when the consumer reaches them, in the same order as without pipelining.
+ * An exception or an error which stops the lexer thread is rethrown to the consumer.
+ */
+public class PipelinedLexer implements Lexer, AutoCloseable {
+
+	public static final int DEFAULT_CAPACITY = 1 << 12;
+
+	private final SpscRingBuffer<Object> buffer;
+	private final ErrorHandler errorHandler;
+	private final Thread producer;
+
+	private Token endOfFile = null;
+	private Throwable failure = null;
+
+	/**
+	 * @param lexerFactory creates the wrapped lexer with a given error handler, it is called on the lexer thread
+	 */
+	public PipelinedLexer(Function<ErrorHandler, Lexer> lexerFactory, ErrorHandler errorHandler) {
+		this(lexerFactory, errorHandler, DEFAULT_CAPACITY);
+	}
+
+	public PipelinedLexer(Function<ErrorHandler, Lexer> lexerFactory, ErrorHandler errorHandler, int capacity) {
+		this.buffer = new SpscRingBuffer<>(capacity);
+		this.errorHandler = errorHandler;
+		this.producer = new Thread(() -> produce(lexerFactory), "lexer");
+		this.producer.setDaemon(true);
+		this.producer.start();
+	}
+
+	@Override
+	@SneakyThrows
+	public Token next() {
+		if (endOfFile != null) {
+			return endOfFile;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		while (true) {
+			Object entry = buffer.take();
+			if (entry == null) {
+				failure = new IllegalStateException("Lexer thread stopped before the end of the file");
+				throw failure;
+			}
+			if (entry instanceof Token token) {
+				if (token.getType() == TokenType.END_OF_FILE) {
+					endOfFile = token;
+				}
+				return token;
+			}
+			if (entry instanceof DeferredError error) {
+				try {
+					errorHandler.handleError(error.details());
+				} catch (Exception e) {
+					close();
+					throw e;
+				}
+			} else if (entry instanceof Failure lexerFailure) {
+				failure = lexerFailure.exception();
+				throw failure;
+			}
+		}
+	}
+
+	/**
+	 * Stops the lexer thread if it is still running
+	 */
+	@Override
+	public void close() {
+		buffer.close();
+	}
+
+	private void produce(Function<ErrorHandler, Lexer> lexerFactory) {
+		try {
+			Lexer lexer = lexerFactory.apply(errorDetails -> buffer.put(new DeferredError(errorDetails)));
+			Token token;
+			do {
+				token = lexer.next();
+			} while (buffer.put(token) && token.getType() != TokenType.END_OF_FILE);
+		} catch (Throwable e) {
+			// an Error too, otherwise the consumer would wait for the next token forever
+			buffer.put(new Failure(e));
+		} finally {
+			buffer.finish();
+		}
+	}
+
+	private record DeferredError(ErrorDetails details) {
+	}
+
+	private record Failure(Throwable exception) {
+	}
+
+}
@@ -0,0 +1,99 @@
+package org.example.lexer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer for exactly one producer thread and one consumer thread.
+ * The producer waits while the buffer is full and the consumer waits while it is empty.
+ */
+class SpscRingBuffer<E> {
+
+	private static final int SPINS_BEFORE_PARKING = 128;
+	private static final long PARK_NANOS = 20_000;
+
+	private final Object[] slots;
+	private final int mask;
+
+	// position of the next element to take, written only by the consumer
+	private volatile long head = 0;
+	// position of the next element to put, written only by the producer
+	private volatile long tail = 0;
+	private volatile boolean closed = false;
+	// set by the producer when it puts nothing more
+	private volatile boolean finished = false;
+
+	/**
+	 * @param capacity rounded up to a power of two
+	 */
+	SpscRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.slots = new Object[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Waits until there is space for the element
+	 *
+	 * @return false if the buffer was closed and the element was dropped
+	 */
+	boolean put(E element) {
+		final long position = tail;
+		int spins = 0;
+		while (position - head == slots.length) {
+			if (closed) {
+				return false;
+			}
+			spins = idle(spins);
+		}
+		slots[(int) position & mask] = element;
+		tail = position + 1;
+		return !closed;
+	}
+
+	/**
+	 * Waits until there is an element to take
+	 *
+	 * @return null if the buffer is empty and the producer has finished
+	 */
+	@SuppressWarnings("unchecked")
+	E take() {
+		final long position = head;
+		int spins = 0;
+		while (position == tail) {
+			// the tail is written before the flag, so it is read again after it
+			if (finished && position == tail) {
+				return null;
+			}
+			spins = idle(spins);
+		}
+		final int index = (int) position & mask;
+		E element = (E) slots[index];
+		slots[index] = null;
+		head = position + 1;
+		return element;
+	}
+
+	/**
+	 * Makes the producer stop waiting for space, called when the consumer takes nothing more
+	 */
+	void close() {
+		closed = true;
+	}
+
+	/**
+	 * Makes the consumer stop waiting once the buffer is empty, called when the producer puts nothing more
+	 */
+	void finish() {
+		finished = true;
+	}
+
+	private static int idle(int spins) {
+		if (spins < SPINS_BEFORE_PARKING) {
+			Thread.onSpinWait();
+		} else {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		return spins + 1;
+	}
+
+}
@@ -0,0 +1,128 @@
+package org.example.lexer;
+
+import org.example.commons.Position;
+import org.example.token.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tokens kept for a later replay, stored in chunks of parallel primitive arrays: token type, line and character number,
+ * with the value only for the tokens which carry one (identifiers and literals). Token objects are created again
+ * only when a span of them is replayed.
+ * <p>
+ * Chunks are never moved once they are filled, so a span may be replayed on another thread than the one adding tokens,
+ * as long as the span itself was handed over safely.
+ */
+public class TokenStore {
+
+	private static final int CHUNK_SHIFT = 10;
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final TokenType[] TYPES = TokenType.values();
+
+	private final List<Chunk> chunks = new ArrayList<>();
+	private int size = 0;
+
+	/**
+	 * @param token token of any type other than END_OF_FILE
+	 */
+	public void add(Token token) {
+		if ((size & CHUNK_MASK) == 0) {
+			chunks.add(new Chunk());
+		}
+		final Chunk chunk = chunks.get(size >>> CHUNK_SHIFT);
+		final int index = size & CHUNK_MASK;
+		final TokenType type = token.getType();
+		chunk.types[index] = (byte) type.ordinal();
+		chunk.lineNumbers[index] = token.getPosition().getLineNumber();
+		chunk.characterNumbers[index] = token.getPosition().getCharacterNumber();
+		chunk.values[index] = switch (type) {
+			case IDENTIFIER, INTEGER, FLOAT, TEXT, BOOL, COMMENT -> token.getValue();
+			default -> null;
+		};
+		size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param from index of the first token of the span, which ends with the last added token
+	 */
+	public Span span(int from) {
+		return new Span(List.copyOf(chunks.subList(from >>> CHUNK_SHIFT, ((size - 1) >>> CHUNK_SHIFT) + 1)),
+				from & CHUNK_MASK, size - (from & ~CHUNK_MASK));
+	}
+
+	/**
+	 * Consecutive stored tokens, at least one
+	 */
+	public static final class Span {
+
+		private final List<Chunk> chunks;
+		private final int from;
+		private final int to;
+
+		/**
+		 * @param from index of the first token in the first chunk
+		 * @param to   index after the last token, counted from the beginning of the first chunk
+		 */
+		private Span(List<Chunk> chunks, int from, int to) {
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * @return lexer returning the tokens of the span, followed by END_OF_FILE at the position of the last of them
+		 */
+		public Lexer lexer() {
+			return new Lexer() {
+				private int index = from;
+
+				@Override
+				public Token next() {
+					if (index == to) {
+						return new TokenEOF(position(to - 1));
+					}
+					return materialize(index++);
+				}
+			};
+		}
+
+		private Token materialize(int token) {
+			final Chunk chunk = chunks.get(token >>> CHUNK_SHIFT);
+			final int index = token & CHUNK_MASK;
+			final TokenType type = TYPES[chunk.types[index]];
+			final Position position = position(token);
+			final Object value = chunk.values[index];
+			return switch (type) {
+				case IDENTIFIER -> new TokenIdentifier(position, (String) value);
+				case INTEGER -> new TokenInteger(position, (Number) value);
+				case FLOAT -> new TokenFloat(position, (Double) value);
+				case TEXT -> new TokenText(position, (String) value);
+				case BOOL -> new TokenBool(position, (Boolean) value);
+				case COMMENT -> new TokenComment(position, (String) value);
+				case RETURN, FOR, IN, IF, ELSE, CLASS, THIS, AND, OR, NOT -> new TokenKeyword(type, position);
+				default -> new TokenSymbol(type, position);
+			};
+		}
+
+		private Position position(int token) {
+			final Chunk chunk = chunks.get(token >>> CHUNK_SHIFT);
+			final int index = token & CHUNK_MASK;
+			return new Position(chunk.lineNumbers[index], chunk.characterNumbers[index]);
+		}
+
+	}
+
+	private static final class Chunk {
+		private final byte[] types = new byte[CHUNK_SIZE];
+		private final int[] lineNumbers = new int[CHUNK_SIZE];
+		private final int[] characterNumbers = new int[CHUNK_SIZE];
+		private final Object[] values = new Object[CHUNK_SIZE];
+	}
+
+}
@@ -0,0 +1,120 @@
+package org.example.lexer.source;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Source reading characters in bulk into a char[] window. Line separators are normalized
+ * by looking ahead in the window, so no mark/reset on the underlying reader is needed
+ */
+public class BufferedCharacterSource extends CharacterSource {
+
+	public static final int DEFAULT_WINDOW_SIZE = 1 << 16;
+
+	private final Reader reader;
+	private final char[] window;
+	private int index = 0;
+	private int limit = 0;
+	private boolean exhausted = false;
+
+	public BufferedCharacterSource(Reader reader) {
+		this(reader, DEFAULT_WINDOW_SIZE);
+	}
+
+	public BufferedCharacterSource(Reader reader, int windowSize) {
+		this.reader = reader;
+		this.window = new char[windowSize];
+	}
+
+	/**
+	 * Constructor for sources which override fill() and do not read from a Reader
+	 */
+	protected BufferedCharacterSource(int windowSize) {
+		this.reader = null;
+		this.window = new char[windowSize];
+	}
+
+	/**
+	 * Source over characters which are already in memory; the array is used as the window directly
+	 */
+	public BufferedCharacterSource(char[] text, int offset, int length) {
+		this(text, offset, length, 1, 1);
+	}
+
+	/**
+	 * Source over a fragment of characters in memory, the first of them being at the given position
+	 */
+	public BufferedCharacterSource(char[] text, int offset, int length, int lineNumber, int characterNumber) {
+		super(lineNumber, characterNumber);
+		this.reader = null;
+		this.window = text;
+		this.index = offset;
+		this.limit = offset + length;
+		this.exhausted = true;
+	}
+
+	@Override
+	protected char read() {
+		if (index == limit && !refill()) {
+			return ETX;
+		}
+		char character = window[index++];
+		if (character != LINE_FEED && character != CARRIAGE_RETURN) {
+			return character;
+		}
+		// LF may be followed by CR and CR may be followed by LF, such a pair is a single separator
+		char pair = character == LINE_FEED ? CARRIAGE_RETURN : LINE_FEED;
+		if ((index < limit || refill()) && window[index] == pair) {
+			index++;
+		}
+		return LINE_SEPARATOR;
+	}
+
+	/**
+	 * Blanks which are already in the window are skipped without reading them one by one
+	 */
+	@Override
+	public char skipBlanks() {
+		char c = current();
+		while (CharScanner.isBlank(c)) {
+			int end = CharScanner.skipBlanks(window, index, limit);
+			advance(end - index);
+			index = end;
+			c = next();
+		}
+		return c;
+	}
+
+	private boolean refill() {
+		if (exhausted) {
+			return false;
+		}
+		int read = fill(window);
+		if (read <= 0) {
+			exhausted = true;
+			index = limit = 0;
+			return false;
+		}
+		index = 0;
+		limit = read;
+		return true;
+	}
+
+	/**
+	 * Fills the window from its beginning
+	 *
+	 * @return number of characters put in the window, -1 at the end of input
+	 */
+	protected int fill(char[] window) {
+		try {
+			int read = reader.read(window, 0, window.length);
+			while (read == 0) {
+				read = reader.read(window, 0, window.length);
+			}
+			return read;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
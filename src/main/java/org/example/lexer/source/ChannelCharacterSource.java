@@ -0,0 +1,75 @@
+package org.example.lexer.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Source reading UTF-8 from any channel, e.g. standard input or a pipe. Bytes are read into one fixed buffer
+ * and decoded incrementally into the window, so memory use does not depend on the length of the input.
+ * A multi-byte sequence split between two reads is kept in the buffer until the rest of it arrives
+ */
+public class ChannelCharacterSource extends BufferedCharacterSource implements Closeable {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer bytes;
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	private boolean endOfInput = false;
+	private boolean flushed = false;
+
+	public ChannelCharacterSource(ReadableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param bufferSize size of the byte buffer, at least 4 bytes for the longest UTF-8 sequence
+	 * @param windowSize size of the char window, at least 2 chars for a surrogate pair
+	 */
+	public ChannelCharacterSource(ReadableByteChannel channel, int bufferSize, int windowSize) {
+		super(Math.max(windowSize, 2));
+		this.channel = channel;
+		this.bytes = ByteBuffer.allocate(Math.max(bufferSize, 4));
+	}
+
+	@Override
+	protected int fill(char[] window) {
+		if (flushed) {
+			return -1;
+		}
+		final CharBuffer chars = CharBuffer.wrap(window);
+		try {
+			while (chars.position() == 0) {
+				if (!endOfInput && channel.read(bytes) == -1) {
+					endOfInput = true;
+				}
+				bytes.flip();
+				CoderResult result = decoder.decode(bytes, chars, endOfInput);
+				bytes.compact();
+				if (endOfInput && result.isUnderflow()) {
+					decoder.flush(chars);
+					flushed = true;
+					break;
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return chars.position() == 0 ? -1 : chars.position();
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.example.lexer.source;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Scanning of char arrays for runs of blanks and for line ends. When the jdk.incubator.vector module
+ * is present, whole vectors of characters are compared at once, otherwise characters are checked one by one.
+ */
+@UtilityClass
+public class CharScanner {
+
+	public static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+	private static final char SPACE = ' ';
+	private static final char TAB = '\t';
+	private static final char LINE_FEED = '\n';
+	private static final char CARRIAGE_RETURN = '\r';
+
+	public static boolean isBlank(char c) {
+		return c == SPACE || c == TAB;
+	}
+
+	/**
+	 * @return index of the first character from the range which is not a space or a tab, to if there is none
+	 */
+	public static int skipBlanks(char[] text, int from, int to) {
+		if (from == to || !isBlank(text[from])) {
+			return from;
+		}
+		if (VECTORIZED) {
+			return VectorCharScanner.skipBlanks(text, from, to);
+		}
+		int i = from;
+		while (i < to && isBlank(text[i])) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * @return index of the first LF, CR or ETX character in the range, to if there is none
+	 */
+	public static int findLineEnd(char[] text, int from, int to) {
+		if (VECTORIZED) {
+			return VectorCharScanner.findLineEnd(text, from, to);
+		}
+		int i = from;
+		while (i < to && !isLineEnd(text[i])) {
+			i++;
+		}
+		return i;
+	}
+
+	static boolean isLineEnd(char c) {
+		return c == LINE_FEED || c == CARRIAGE_RETURN || c == CharacterSource.ETX;
+	}
+
+}
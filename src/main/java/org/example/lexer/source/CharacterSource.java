@@ -0,0 +1,94 @@
+package org.example.lexer.source;
+
+import org.example.commons.LineIndex;
+import org.example.commons.Position;
+
+/**
+ * Sequence of characters consumed by the lexer. Every line separator (LF, CR, CRLF or LFCR)
+ * is normalized to a single LF and the end of input is marked with ETX
+ */
+public abstract class CharacterSource {
+
+	public static final char LINE_SEPARATOR = '\n';
+	public static final char ETX = 3;
+
+	protected static final char LINE_FEED = '\n';
+	protected static final char CARRIAGE_RETURN = '\r';
+
+	private final LineIndex lineIndex;
+
+	private char current = ETX;
+	private int offset = -1;
+
+	protected CharacterSource() {
+		this(1, 1);
+	}
+
+	/**
+	 * @param lineNumber      line number of the first character
+	 * @param characterNumber position of the first character in its line
+	 */
+	protected CharacterSource(int lineNumber, int characterNumber) {
+		this.lineIndex = new LineIndex(lineNumber, 1 - characterNumber);
+	}
+
+	/**
+	 * Moves to the next character of the source
+	 *
+	 * @return character at the new position
+	 */
+	public char next() {
+		if (current == LINE_SEPARATOR) {
+			lineIndex.addLine(offset + 1);
+		}
+		offset++;
+		current = read();
+		return current;
+	}
+
+	/**
+	 * Moves past spaces and tabs, starting with the current character
+	 *
+	 * @return the first character which is neither
+	 */
+	public char skipBlanks() {
+		while (CharScanner.isBlank(current)) {
+			next();
+		}
+		return current;
+	}
+
+	/**
+	 * @return character returned by the last call to next()
+	 */
+	public char current() {
+		return current;
+	}
+
+	/**
+	 * @return position of the character returned by the last call to next()
+	 */
+	public Position getPosition() {
+		return new Position(lineIndex, offset);
+	}
+
+	/**
+	 * @return index of the lines read so far, offsets are counted in normalized characters
+	 */
+	public LineIndex getLineIndex() {
+		return lineIndex;
+	}
+
+	/**
+	 * Moves over characters which a subclass skipped without reading them; none of them may be a line separator
+	 */
+	protected void advance(int count) {
+		offset += count;
+	}
+
+	/**
+	 * Reads the next character with line separators already normalized
+	 */
+	protected abstract char read();
+
+}
@@ -0,0 +1,115 @@
+package org.example.lexer.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Source decoding UTF-8 directly from a memory-mapped file. ASCII bytes are copied to the window
+ * as they are, only multi-byte sequences (e.g. Polish diacritics) go through the slow path
+ */
+public class MappedCharacterSource extends BufferedCharacterSource implements Closeable {
+
+	private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final int size;
+	private int position = 0;
+
+	private MappedCharacterSource(FileChannel channel, MappedByteBuffer buffer, int size, int windowSize) {
+		super(windowSize);
+		this.channel = channel;
+		this.buffer = buffer;
+		this.size = size;
+	}
+
+	public static MappedCharacterSource open(Path path) throws IOException {
+		return open(path, DEFAULT_WINDOW_SIZE);
+	}
+
+	public static MappedCharacterSource open(Path path, int windowSize) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("File too large to be mapped: " + path);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return new MappedCharacterSource(channel, buffer, (int) size, Math.max(windowSize, 2));
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	protected int fill(char[] window) {
+		if (position == size) {
+			return -1;
+		}
+		final int last = window.length - 1;    // one char is kept free for a surrogate pair
+		int count = 0;
+		while (count < last && position < size) {
+			byte b = buffer.get(position);
+			if (b >= 0) {
+				window[count++] = (char) b;
+				position++;
+			} else {
+				count = decodeMultiByte(b, window, count);
+			}
+		}
+		return count;
+	}
+
+	private int decodeMultiByte(byte first, char[] window, int count) {
+		int length;
+		int codePoint;
+		if ((first & 0xE0) == 0xC0) {
+			length = 2;
+			codePoint = first & 0x1F;
+		} else if ((first & 0xF0) == 0xE0) {
+			length = 3;
+			codePoint = first & 0x0F;
+		} else if ((first & 0xF8) == 0xF0) {
+			length = 4;
+			codePoint = first & 0x07;
+		} else {
+			position++;
+			window[count] = REPLACEMENT_CHARACTER;
+			return count + 1;
+		}
+		int i = 1;
+		for (; i < length && position + i < size; i++) {
+			byte next = buffer.get(position + i);
+			if ((next & 0xC0) != 0x80) {
+				break;
+			}
+			codePoint = (codePoint << 6) | (next & 0x3F);
+		}
+		position += i;
+		if (i < length || isOverlong(codePoint, length) || !Character.isValidCodePoint(codePoint)
+				|| (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+			window[count] = REPLACEMENT_CHARACTER;
+			return count + 1;
+		}
+		return count + Character.toChars(codePoint, window, count);
+	}
+
+	private static boolean isOverlong(int codePoint, int length) {
+		return switch (length) {
+			case 2 -> codePoint < 0x80;
+			case 3 -> codePoint < 0x800;
+			default -> codePoint < 0x10000;
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
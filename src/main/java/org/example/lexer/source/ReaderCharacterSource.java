@@ -0,0 +1,56 @@
+package org.example.lexer.source;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Source reading one character at a time from a BufferedReader
+ */
+public class ReaderCharacterSource extends CharacterSource {
+
+	private final BufferedReader bufferedReader;
+
+	public ReaderCharacterSource(BufferedReader bufferedReader) {
+		this.bufferedReader = bufferedReader;
+	}
+
+	@Override
+	protected char read() {
+		int character;
+		boolean isLineSeparator;
+		try {
+			character = bufferedReader.read();
+			isLineSeparator = tryConsumeLineSeparator(character);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		if (isLineSeparator) {
+			return LINE_SEPARATOR;
+		}
+		if (character == -1) {
+			return ETX;
+		}
+		return (char) character;
+	}
+
+	private boolean tryConsumeLineSeparator(int character) throws IOException {
+		if (character == LINE_FEED) {
+			bufferedReader.mark(1);
+			character = bufferedReader.read();    // reading the next character
+			if (character != CARRIAGE_RETURN) {    // if it is not carriage return, reset pointer to the previous character
+				bufferedReader.reset();
+			}
+			return true;
+		}
+		if (character == CARRIAGE_RETURN) {    // if character is carriage return, the next can be line feed
+			bufferedReader.mark(1);
+			character = bufferedReader.read();    // reading the next character
+			if (character != LINE_FEED) {    // if it is not line feed, reset pointer to the previous character
+				bufferedReader.reset();
+			}
+			return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,51 @@
+package org.example.lexer.source;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Vector API implementation of CharScanner, loaded only when the jdk.incubator.vector module is present.
+ * Characters are loaded as 16-bit lanes, 8 to 32 of them at a time depending on the hardware.
+ */
+@UtilityClass
+class VectorCharScanner {
+
+	private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+	static int skipBlanks(char[] text, int from, int to) {
+		int i = from;
+		final int bound = from + SPECIES.loopBound(to - from);
+		for (; i < bound; i += SPECIES.length()) {
+			ShortVector chars = ShortVector.fromCharArray(SPECIES, text, i);
+			VectorMask<Short> blanks = chars.eq((short) ' ').or(chars.eq((short) '\t'));
+			if (!blanks.allTrue()) {
+				return i + blanks.not().firstTrue();
+			}
+		}
+		while (i < to && CharScanner.isBlank(text[i])) {
+			i++;
+		}
+		return i;
+	}
+
+	static int findLineEnd(char[] text, int from, int to) {
+		int i = from;
+		final int bound = from + SPECIES.loopBound(to - from);
+		for (; i < bound; i += SPECIES.length()) {
+			ShortVector chars = ShortVector.fromCharArray(SPECIES, text, i);
+			VectorMask<Short> lineEnds = chars.eq((short) '\n')
+					.or(chars.eq((short) '\r'))
+					.or(chars.eq((short) CharacterSource.ETX));
+			if (lineEnds.anyTrue()) {
+				return i + lineEnds.firstTrue();
+			}
+		}
+		while (i < to && !CharScanner.isLineEnd(text[i])) {
+			i++;
+		}
+		return i;
+	}
+
+}
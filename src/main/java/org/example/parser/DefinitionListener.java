@@ -0,0 +1,15 @@
+package org.example.parser;
+
+import org.example.programstructure.containers.ClassDefinition;
+import org.example.programstructure.containers.FunctionDefinition;
+
+/**
+ * Receives top-level definitions one by one, in the order of the source
+ */
+public interface DefinitionListener {
+
+	void functionParsed(FunctionDefinition functionDefinition);
+
+	void classParsed(ClassDefinition classDefinition);
+
+}
@@ -0,0 +1,355 @@
+package org.example.parser;
+
+import lombok.SneakyThrows;
+import org.example.commons.LineIndex;
+import org.example.commons.Position;
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorParserDetails;
+import org.example.error.enums.ErrorType;
+import org.example.error.exception.SyntacticException;
+import org.example.lexer.LexerImpl;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.programstructure.containers.ClassDefinition;
+import org.example.programstructure.containers.FunctionDefinition;
+import org.example.programstructure.containers.Program;
+import org.example.programstructure.containers.UserClassDefinition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Front end which keeps the parsed program between edits of its source. The source is divided into segments,
+ * each ending with the closing bracket of a top-level definition, or with the end of its line if no token follows. An edit re-scans the text only from the first
+ * damaged segment until the boundaries meet the old ones again, and only the new segments are lexed and parsed.
+ * <p>
+ * Every segment is lexed with its own LineIndex, so positions in the segments after an edit are moved
+ * by changing the first line number of their indexes.
+ */
+public class IncrementalFrontEnd implements Parser {
+
+	private static final char LINE_FEED = '\n';
+	private static final char CARRIAGE_RETURN = '\r';
+	private static final char DOUBLE_QUOTE = '\"';
+	private static final char BACKSLASH = '\\';
+	private static final char SLASH = '/';
+	private static final char OPEN_BRACKET = '{';
+	private static final char CLOSE_BRACKET = '}';
+
+	private final ErrorHandler errorHandler;
+	private final Map<String, FunctionDefinition> functions = new HashMap<>();
+	private final Map<String, ClassDefinition> classes = new HashMap<>();
+	// segments cover the whole text, in order
+	private List<Segment> segments;
+	// segments not parsed yet or not added to the program because of an error
+	private final List<Segment> pending = new ArrayList<>();
+
+	private char[] text;
+	private int length;
+	private int lastParsedCount;
+
+	public IncrementalFrontEnd(String text, ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+		this.text = text.toCharArray();
+		this.length = this.text.length;
+		segments = scan(0, 1, 1, List.of());
+		segments.remove(segments.size() - 1);
+		pending.addAll(segments);
+	}
+
+	/**
+	 * @return the program of the current text, definitions of segments left after the last edit are reused
+	 */
+	@Override
+	public Program parse() {
+		lastParsedCount = 0;
+		while (!pending.isEmpty()) {
+			final Segment segment = pending.get(0);
+			if (segment.program == null) {
+				segment.program = parseSegment(segment);
+				lastParsedCount++;
+			}
+			addDefinitions(segment);
+			pending.remove(0);
+		}
+		return new Program(new HashMap<>(functions), new HashMap<>(classes));
+	}
+
+	/**
+	 * Replaces characters of the text and parses the damaged part again
+	 *
+	 * @param offset        offset of the first replaced character
+	 * @param removedLength number of replaced characters
+	 * @param insertedText  characters put in their place
+	 */
+	public Program edit(int offset, int removedLength, String insertedText) {
+		replace(offset, removedLength, insertedText);
+		final int delta = insertedText.length() - removedLength;
+		final int editEnd = offset + removedLength;
+
+		// the first damaged segment starts before the edit, so its position has not changed
+		int first = 0;
+		while (first < segments.size() - 1 && segments.get(first).end <= offset) {
+			first++;
+		}
+		final Segment restart = segments.get(first);
+		int reused = first + 1;
+		while (reused < segments.size() && segments.get(reused).start < editEnd) {
+			reused++;
+		}
+		for (Segment segment : segments.subList(reused, segments.size())) {
+			segment.start += delta;
+			segment.end += delta;
+		}
+
+		final List<Segment> candidates = segments.subList(reused, segments.size());
+		final List<Segment> scanned = scan(restart.start, restart.lineNumber, restart.characterNumber, candidates);
+		final Segment resumed = scanned.remove(scanned.size() - 1);
+		final int kept = resumed == null ? segments.size() : segments.indexOf(resumed);
+
+		final List<Segment> result = new ArrayList<>(first + scanned.size() + segments.size() - kept);
+		result.addAll(segments.subList(0, first));
+		result.addAll(scanned);
+		for (Segment dropped : segments.subList(first, kept)) {
+			removeDefinitions(dropped);
+		}
+		if (resumed != null) {
+			final int lineDelta = resumed.scannedLineNumber - resumed.lineNumber;
+			for (Segment segment : segments.subList(kept, segments.size())) {
+				segment.move(lineDelta);
+			}
+			result.addAll(segments.subList(kept, segments.size()));
+		}
+		segments = result;
+		pending.addAll(scanned);
+		return parse();
+	}
+
+	/**
+	 * Replaces the whole text, only the range between its unchanged beginning and end is treated as edited
+	 */
+	public Program update(String newText) {
+		int prefix = 0;
+		final int common = Math.min(length, newText.length());
+		while (prefix < common && text[prefix] == newText.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < common - prefix
+				&& text[length - 1 - suffix] == newText.charAt(newText.length() - 1 - suffix)) {
+			suffix++;
+		}
+		return edit(prefix, length - prefix - suffix, newText.substring(prefix, newText.length() - suffix));
+	}
+
+	public String getText() {
+		return new String(text, 0, length);
+	}
+
+	/**
+	 * @return number of segments lexed and parsed by the last call to parse() or edit()
+	 */
+	int getLastParsedCount() {
+		return lastParsedCount;
+	}
+
+	int getSegmentCount() {
+		return segments.size();
+	}
+
+	private void replace(int offset, int removedLength, String insertedText) {
+		final int newLength = length - removedLength + insertedText.length();
+		if (newLength > text.length) {
+			char[] grown = new char[Math.max(newLength, text.length * 2)];
+			System.arraycopy(text, 0, grown, 0, offset);
+			System.arraycopy(text, offset + removedLength, grown, offset + insertedText.length(), length - offset - removedLength);
+			text = grown;
+		} else {
+			System.arraycopy(text, offset + removedLength, text, offset + insertedText.length(), length - offset - removedLength);
+		}
+		insertedText.getChars(0, insertedText.length(), text, offset);
+		length = newLength;
+	}
+
+	/**
+	 * Finds segment boundaries from the given offset, keeping track of text literals and comments.
+	 * The scan stops at the end of a segment which meets the start of one of the candidates,
+	 * i.e. at the same offset and in the same column.
+	 *
+	 * @return new segments followed by the candidate which was met, or by null at the end of the text
+	 */
+	private List<Segment> scan(int from, int lineNumber, int characterNumber, List<Segment> candidates) {
+		final List<Segment> scanned = new ArrayList<>();
+		int candidate = 0;
+		int segmentStart = from;
+		int segmentLineNumber = lineNumber;
+		int segmentCharacterNumber = characterNumber;
+		int definitionStart = -1;
+		int normalizedOffset = 0;		// offset in the segment with line separators counted as one character
+		int lineStart = from - (characterNumber - 1);
+		int depth = 0;
+		boolean inText = false;
+		boolean inComment = false;
+		int i = from;
+		while (i < length) {
+			final char c = text[i];
+			if (c == LINE_FEED || c == CARRIAGE_RETURN) {
+				i++;
+				if (i < length && text[i] == (c == LINE_FEED ? CARRIAGE_RETURN : LINE_FEED)) {
+					i++;
+				}
+				normalizedOffset++;
+				lineNumber++;
+				lineStart = i;
+				inComment = false;
+				continue;
+			}
+			if (inText) {
+				if (c == BACKSLASH && i + 1 < length) {
+					i++;
+					normalizedOffset++;
+					if (text[i] == LINE_FEED || text[i] == CARRIAGE_RETURN) {
+						continue;	// escaped line separator still starts a new line
+					}
+				} else if (c == DOUBLE_QUOTE) {
+					inText = false;
+				}
+			} else if (!inComment) {
+				if (definitionStart < 0 && !Character.isWhitespace(c) && !(c == SLASH && i + 1 < length && text[i + 1] == SLASH)) {
+					definitionStart = normalizedOffset;
+				}
+				if (c == DOUBLE_QUOTE) {
+					inText = true;
+				} else if (c == SLASH && i + 1 < length && text[i + 1] == SLASH) {
+					inComment = true;
+					i++;
+					normalizedOffset++;
+				} else if (c == OPEN_BRACKET) {
+					depth++;
+				} else if (c == CLOSE_BRACKET && --depth <= 0) {
+					depth = 0;
+					i++;
+					normalizedOffset++;
+					// the rest of the line goes to the segment if it holds no tokens, so that the next one starts a line
+					int end = i;
+					while (end < length && (text[end] == ' ' || text[end] == '\t')) {
+						end++;
+					}
+					if (end + 1 < length && text[end] == SLASH && text[end + 1] == SLASH) {
+						while (end < length && text[end] != LINE_FEED && text[end] != CARRIAGE_RETURN) {
+							end++;
+						}
+					}
+					if (end == length || text[end] == LINE_FEED || text[end] == CARRIAGE_RETURN) {
+						normalizedOffset += end - i;
+						i = end;
+						if (i < length) {
+							i++;
+							if (i < length && text[i] == (text[i - 1] == LINE_FEED ? CARRIAGE_RETURN : LINE_FEED)) {
+								i++;
+							}
+							normalizedOffset++;
+							lineNumber++;
+						}
+						lineStart = i;
+					}
+					final int column = i - lineStart + 1;
+					scanned.add(new Segment(segmentStart, i, segmentLineNumber, segmentCharacterNumber, definitionStart));
+					while (candidate < candidates.size() && candidates.get(candidate).start < i) {
+						candidate++;
+					}
+					if (candidate < candidates.size() && candidates.get(candidate).start == i
+							&& candidates.get(candidate).characterNumber == column) {
+						final Segment resumed = candidates.get(candidate);
+						resumed.scannedLineNumber = lineNumber;
+						scanned.add(resumed);
+						return scanned;
+					}
+					segmentStart = i;
+					segmentLineNumber = lineNumber;
+					segmentCharacterNumber = column;
+					definitionStart = -1;
+					normalizedOffset = 0;
+					continue;
+				}
+			}
+			i++;
+			normalizedOffset++;
+		}
+		if (segmentStart < length || scanned.isEmpty()) {
+			scanned.add(new Segment(segmentStart, length, segmentLineNumber, segmentCharacterNumber, definitionStart));
+		}
+		scanned.add(null);
+		return scanned;
+	}
+
+	private Program parseSegment(Segment segment) {
+		final var source = new BufferedCharacterSource(text, segment.start, segment.end - segment.start,
+				segment.lineNumber, segment.characterNumber);
+		segment.lineIndex = source.getLineIndex();
+		return new ParserImpl(new LexerImpl(source, errorHandler, true), errorHandler).parse();
+	}
+
+	private void addDefinitions(Segment segment) {
+		for (String name : segment.program.functionDefinitions().keySet()) {
+			if (functions.containsKey(name)) {
+				handleCriticalError(ErrorType.FUNCTION_NAME_NOT_UNIQUE,
+						new Position(segment.lineIndex, Math.max(segment.definitionStart, 0)), name);
+			}
+		}
+		for (ClassDefinition definition : segment.program.classDefinitions().values()) {
+			if (classes.containsKey(definition.name())) {
+				handleCriticalError(ErrorType.CLASS_NAME_NOT_UNIQUE, ((UserClassDefinition) definition).position(),
+						definition.name());
+			}
+		}
+		functions.putAll(segment.program.functionDefinitions());
+		classes.putAll(segment.program.classDefinitions());
+	}
+
+	private void removeDefinitions(Segment segment) {
+		if (pending.remove(segment) || segment.program == null) {
+			return;		// never added to the program
+		}
+		segment.program.functionDefinitions().forEach(functions::remove);
+		segment.program.classDefinitions().forEach(classes::remove);
+	}
+
+	@SneakyThrows
+	private void handleCriticalError(ErrorType errorType, Position position, String expression) {
+		errorHandler.handleError(new ErrorParserDetails(errorType, position, expression));
+		throw new SyntacticException("Syntax error");
+	}
+
+	private static class Segment {
+
+		private int start;
+		private int end;
+		private int lineNumber;
+		private final int characterNumber;
+		// offset of the first token in the segment, counted like offsets of its LineIndex
+		private final int definitionStart;
+		private LineIndex lineIndex;
+		private Program program;
+		// line number found for the segment start by the scan which resumed at it
+		private int scannedLineNumber;
+
+		private Segment(int start, int end, int lineNumber, int characterNumber, int definitionStart) {
+			this.start = start;
+			this.end = end;
+			this.lineNumber = lineNumber;
+			this.characterNumber = characterNumber;
+			this.definitionStart = definitionStart;
+		}
+
+		private void move(int lineDelta) {
+			lineNumber += lineDelta;
+			if (lineIndex != null) {
+				lineIndex.setFirstLineNumber(lineNumber);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,226 @@
+package org.example.parser;
+
+import lombok.SneakyThrows;
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorDetails;
+import org.example.lexer.Lexer;
+import org.example.programstructure.containers.ClassDefinition;
+import org.example.programstructure.containers.FunctionDefinition;
+import org.example.programstructure.containers.Program;
+import org.example.token.Token;
+import org.example.token.TokenEOF;
+import org.example.token.TokenType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Parser which reads all tokens first, splits them into top-level definitions by matching brackets
+ * and parses the definitions concurrently on a fork-join pool.
+ * <p>
+ * Results are merged in the order of the text. Errors found on the pool are held back and given to the error handler
+ * during the merge, a definition which failed or whose name is already taken is parsed again on the calling thread,
+ * so errors are reported in the same order as by ParserImpl alone.
+ */
+public class ParallelParser implements Parser {
+
+	public static final int DEFAULT_BATCH_SIZE = 1 << 14;
+
+	private final ErrorHandler errorHandler;
+	private final boolean lazy;
+	private final ForkJoinPool pool;
+	private final int batchSize;
+	private final List<Token> tokens = new ArrayList<>();
+	private final List<DeferredError> lexicalErrors = new ArrayList<>();
+
+	/**
+	 * @param lexerFactory creates the lexer with a given error handler, lexical errors are reported when the parser reaches them
+	 */
+	public ParallelParser(Function<ErrorHandler, Lexer> lexerFactory, ErrorHandler errorHandler, boolean lazy) {
+		this(lexerFactory, errorHandler, lazy, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param batchSize minimal number of tokens parsed by one task
+	 */
+	public ParallelParser(Function<ErrorHandler, Lexer> lexerFactory, ErrorHandler errorHandler, boolean lazy,
+						  ForkJoinPool pool, int batchSize) {
+		this.errorHandler = errorHandler;
+		this.lazy = lazy;
+		this.pool = pool;
+		this.batchSize = batchSize;
+		readTokens(lexerFactory.apply(details -> lexicalErrors.add(new DeferredError(tokens.size(), details))));
+	}
+
+	@Override
+	public Program parse() {
+		final List<Span> spans = split();
+		if (spans.size() == 1 || tokens.size() < 2 * batchSize) {
+			return new ParserImpl(new SpanLexer(0, tokens.size(), errorHandler), errorHandler, lazy).parse();
+		}
+		final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		int batchStart = 0;
+		int batchTokens = 0;
+		for (int i = 0; i < spans.size(); i++) {
+			batchTokens += spans.get(i).to - spans.get(i).from;
+			if (batchTokens >= batchSize || i == spans.size() - 1) {
+				final List<Span> batch = spans.subList(batchStart, i + 1);
+				tasks.add(pool.submit(() -> batch.forEach(this::parseSpan)));
+				batchStart = i + 1;
+				batchTokens = 0;
+			}
+		}
+		tasks.forEach(ForkJoinTask::join);
+		return merge(spans);
+	}
+
+	private void readTokens(Lexer lexer) {
+		Token token;
+		do {
+			token = lexer.next();
+			if (token.getType() != TokenType.COMMENT) {
+				tokens.add(token);
+			}
+		} while (token.getType() != TokenType.END_OF_FILE);
+	}
+
+	/**
+	 * A span ends with a closing bracket at the top level, the last one ends with END_OF_FILE
+	 */
+	private List<Span> split() {
+		final List<Span> spans = new ArrayList<>();
+		int start = 0;
+		int depth = 0;
+		for (int i = 0; i < tokens.size() - 1; i++) {
+			switch (tokens.get(i).getType()) {
+				case OPEN_BRACKET -> depth++;
+				case CLOSE_BRACKET -> {
+					if (--depth <= 0) {
+						spans.add(new Span(start, i + 1));
+						start = i + 1;
+						depth = 0;
+					}
+				}
+			}
+		}
+		spans.add(new Span(start, tokens.size()));
+		return spans;
+	}
+
+	private void parseSpan(Span span) {
+		final var handler = new DeferringErrorHandler(errorHandler);
+		span.handler = handler;
+		try {
+			span.program = new ParserImpl(new SpanLexer(span.from, span.to, handler), handler, lazy).parse();
+		} catch (Exception e) {
+			span.program = null;		// parsed again during the merge, which reports the error
+		}
+	}
+
+	private Program merge(List<Span> spans) {
+		final Map<String, FunctionDefinition> functions = new HashMap<>();
+		final Map<String, ClassDefinition> classes = new HashMap<>();
+		for (Span span : spans) {
+			if (span.program == null || containsAny(functions, span.program.functionDefinitions())
+					|| containsAny(classes, span.program.classDefinitions())) {
+				new ParserImpl(new SpanLexer(span.from, span.to, errorHandler), errorHandler, lazy)
+						.parse(functions, classes);
+				continue;
+			}
+			span.handler.replay();
+			functions.putAll(span.program.functionDefinitions());
+			classes.putAll(span.program.classDefinitions());
+		}
+		return new Program(functions, classes);
+	}
+
+	private static boolean containsAny(Map<String, ?> merged, Map<String, ?> parsed) {
+		return parsed.keySet().stream().anyMatch(merged::containsKey);
+	}
+
+	/**
+	 * Tokens from..to of one span, lexical errors are reported before the token at which they were found
+	 */
+	private class SpanLexer implements Lexer {
+
+		private final int to;
+		private final ErrorHandler handler;
+		private int index;
+		private int errorIndex;
+
+		SpanLexer(int from, int to, ErrorHandler handler) {
+			this.to = to;
+			this.handler = handler;
+			this.index = from;
+			while (errorIndex < lexicalErrors.size() && lexicalErrors.get(errorIndex).tokenIndex() < from) {
+				errorIndex++;
+			}
+		}
+
+		@Override
+		@SneakyThrows
+		public Token next() {
+			if (index == to) {
+				// the next definition starts here, as far as this span is concerned the text ends
+				return to < tokens.size() ? new TokenEOF(tokens.get(to).getPosition()) : tokens.get(to - 1);
+			}
+			while (errorIndex < lexicalErrors.size() && lexicalErrors.get(errorIndex).tokenIndex() == index) {
+				handler.handleError(lexicalErrors.get(errorIndex++).details());
+			}
+			return tokens.get(index++);
+		}
+	}
+
+	/**
+	 * Keeps errors until they are replayed, then passes them on, e.g. from lazily parsed function bodies
+	 */
+	private static class DeferringErrorHandler implements ErrorHandler {
+
+		private final ErrorHandler target;
+		private final List<ErrorDetails> errors = new ArrayList<>();
+		private volatile boolean replayed = false;
+
+		DeferringErrorHandler(ErrorHandler target) {
+			this.target = target;
+		}
+
+		@Override
+		public void handleError(ErrorDetails errorDetails) throws Exception {
+			if (replayed) {
+				target.handleError(errorDetails);
+			} else {
+				errors.add(errorDetails);
+			}
+		}
+
+		@SneakyThrows
+		void replay() {
+			replayed = true;
+			for (ErrorDetails details : errors) {
+				target.handleError(details);
+			}
+		}
+	}
+
+	private static final class Span {
+
+		private final int from;
+		private final int to;
+		private DeferringErrorHandler handler;
+		private Program program;
+
+		Span(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	private record DeferredError(int tokenIndex, ErrorDetails details) {
+	}
+
+}
@@ -9,6 +9,7 @@ import org.example.error.details.ErrorParserDetails;
 import org.example.error.enums.ErrorType;
 import org.example.error.exception.SyntacticException;
 import org.example.lexer.Lexer;
+import org.example.lexer.TokenStore;
 import org.example.programstructure.containers.*;
 import org.example.programstructure.expression.*;
 import org.example.programstructure.expression.enums.AdditiveType;
@@ -19,24 +20,64 @@ import org.example.token.Token;
 import org.example.commons.TokenGroups;
 import org.example.token.TokenType;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class ParserImpl implements Parser {
+	private static final int NO_PRECEDENCE = 0;
+	private static final int OR_PRECEDENCE = 1;
+	private static final int AND_PRECEDENCE = 2;
+	private static final int RELATIONAL_PRECEDENCE = 3;
+	private static final int ADDITIVE_PRECEDENCE = 4;
+	private static final int MULTIPLICATIVE_PRECEDENCE = 5;
+
+	// binding power of binary operators indexed by token type, NO_PRECEDENCE for other tokens
+	private static final int[] PRECEDENCE = new int[TokenType.values().length];
+	static {
+		PRECEDENCE[TokenType.OR.ordinal()] = OR_PRECEDENCE;
+		PRECEDENCE[TokenType.AND.ordinal()] = AND_PRECEDENCE;
+		TokenGroups.RELATIONAL_OPERATORS.keySet().forEach(type -> PRECEDENCE[type.ordinal()] = RELATIONAL_PRECEDENCE);
+		TokenGroups.ADDITIVE_OPERATORS.keySet().forEach(type -> PRECEDENCE[type.ordinal()] = ADDITIVE_PRECEDENCE);
+		TokenGroups.MULTIPLICATIVE_OPERATORS.keySet().forEach(type -> PRECEDENCE[type.ordinal()] = MULTIPLICATIVE_PRECEDENCE);
+	}
+
+	private static final DefinitionListener NO_LISTENER = new DefinitionListener() {
+		@Override
+		public void functionParsed(FunctionDefinition functionDefinition) {
+		}
+
+		@Override
+		public void classParsed(ClassDefinition classDefinition) {
+		}
+	};
+
 	private final Lexer lexer;
 	private final ErrorHandler errorHandler;
 	private final ErrorContext errorContext;
+	private final boolean lazy;
+	private final TokenStore skippedTokens = new TokenStore();
 	private Token currentToken;
 	private Token previousToken;
 
 	public ParserImpl(Lexer lexer, ErrorHandler errorHandler) {
+		this(lexer, errorHandler, false);
+	}
+
+	/**
+	 * @param lazy if true, function bodies are only matched by brackets and parsed when the function is first visited,
+	 *             see {@link LazyFunctionDefinition}
+	 */
+	public ParserImpl(Lexer lexer, ErrorHandler errorHandler, boolean lazy) {
 		this.lexer = lexer;
 		this.errorHandler = errorHandler;
+		this.lazy = lazy;
 		this.previousToken = null;
 		this.currentToken = null;
-		this.errorContext = new ErrorContext(new Position(), new StringBuilder());
+		this.errorContext = new ErrorContext(new Position());
 		nextToken();
 	}
 
@@ -48,9 +89,27 @@ public class ParserImpl implements Parser {
 	 */
 	@Override
 	public Program parse() {
-		Map<String, FunctionDefinition> functions = new HashMap<>();
-		Map<String, ClassDefinition> classes = new HashMap<>();
-		while (parseFunctionDefinition(functions) || parseClassDefinition(classes)) {
+		return parse(new HashMap<>(), new HashMap<>());
+	}
+
+	/**
+	 * Parses definitions into the given maps, names which are already in them are reported as not unique
+	 */
+	Program parse(Map<String, FunctionDefinition> functions, Map<String, ClassDefinition> classes) {
+		return parse(functions, classes, NO_LISTENER);
+	}
+
+	/**
+	 * Parses the program and gives every top-level definition to the listener as soon as it is complete,
+	 * before the rest of the source is lexed
+	 */
+	public Program parse(DefinitionListener listener) {
+		return parse(new HashMap<>(), new HashMap<>(), listener);
+	}
+
+	private Program parse(Map<String, FunctionDefinition> functions, Map<String, ClassDefinition> classes,
+						  DefinitionListener listener) {
+		while (parseDefinition(functions, classes, listener)) {
 			errorContext.reset();
 		}
 		if (currentToken.getType() != TokenType.END_OF_FILE) {
@@ -60,12 +119,32 @@ public class ParserImpl implements Parser {
 		return new Program(functions, classes);
 	}
 
+	/**
+	 * definition = function-definition | class-definition
+	 */
+	private boolean parseDefinition(Map<String, FunctionDefinition> functions, Map<String, ClassDefinition> classes,
+									DefinitionListener listener) {
+		final FunctionDefinition functionDefinition = parseFunctionDefinition(functions);
+		if (functionDefinition != null) {
+			listener.functionParsed(functionDefinition);
+			return true;
+		}
+		final ClassDefinition classDefinition = parseClassDefinition(classes);
+		if (classDefinition != null) {
+			listener.classParsed(classDefinition);
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * function-definition = identifier, "(", [parameters-list], ")", block;
+	 *
+	 * @return the definition, also put in the map, null if there is none
 	 */
-	private boolean parseFunctionDefinition(Map<String, FunctionDefinition> functions) {
+	private FunctionDefinition parseFunctionDefinition(Map<String, FunctionDefinition> functions) {
 		if (!consumeIf(TokenType.IDENTIFIER)) {
-			return false;
+			return null;
 		}
 		final String functionName = previousToken.getValue();
 		if (functions.containsKey(functionName)) {
@@ -78,12 +157,49 @@ public class ParserImpl implements Parser {
 		if (!consumeIf(TokenType.CLOSE_PARENTHESIS)) {
 			handleCriticalError(ErrorType.CLOSING_PARENTHESIS_MISSING, errorContext.getPosition(), errorContext.getContext());
 		}
-		final Block block = parseBlock(errorContext.getContext());
+		if (lazy) {
+			final List<Token> preceding = errorContext.snapshot();
+			final TokenStore.Span body = skipBlock(preceding);
+			if (body == null) {
+				handleCriticalError(ErrorType.FUNCTION_BODY_MISSING, errorContext.getPosition(), errorContext.getContext());
+			}
+			final FunctionDefinition functionDefinition = new LazyFunctionDefinition(functionName, parameters,
+					() -> new ParserImpl(body.lexer(), errorHandler).parseBlock(preceding));
+			functions.put(functionName, functionDefinition);
+			return functionDefinition;
+		}
+		final Block block = parseBlock(errorContext.snapshot());
 		if (block == null) {
 			handleCriticalError(ErrorType.FUNCTION_BODY_MISSING, errorContext.getPosition(), errorContext.getContext());
 		}
-		functions.put(functionName, new UserFunctionDefinition(functionName, parameters, block));
-		return true;
+		final FunctionDefinition functionDefinition = new UserFunctionDefinition(functionName, parameters, block);
+		functions.put(functionName, functionDefinition);
+		return functionDefinition;
+	}
+
+	/**
+	 * Moves past a block, matching brackets only, and keeps its tokens in the store shared by the skipped blocks
+	 *
+	 * @return span of the tokens of the block with its brackets, null if there is no block
+	 */
+	private TokenStore.Span skipBlock(List<Token> preceding) {
+		if (currentToken.getType() != TokenType.OPEN_BRACKET) {
+			return null;
+		}
+		final int start = skippedTokens.size();
+		int depth = 0;
+		do {
+			switch (currentToken.getType()) {
+				case OPEN_BRACKET -> depth++;
+				case CLOSE_BRACKET -> depth--;
+				case END_OF_FILE -> handleCriticalError(ErrorType.CLOSING_BRACKET_MISSING, currentToken.getPosition(),
+						ErrorContext.render(preceding).concat("{"));
+			}
+			skippedTokens.add(currentToken);
+			nextToken();
+		} while (depth > 0);
+		errorContext.update(previousToken);
+		return skippedTokens.span(start);
 	}
 
 	/**
@@ -122,10 +238,12 @@ public class ParserImpl implements Parser {
 
 	/**
 	 * class-definition = class-keyword, identifier, class-body;
+	 *
+	 * @return the definition, also put in the map, null if there is none
 	 */
-	private boolean parseClassDefinition(Map<String, ClassDefinition> classes) {
+	private ClassDefinition parseClassDefinition(Map<String, ClassDefinition> classes) {
 		if (!consumeIf(TokenType.CLASS)) {
-			return false;
+			return null;
 		}
 		if (!consumeIf(TokenType.IDENTIFIER)) {
 			handleCriticalError(ErrorType.CLASS_NAME_MISSING, errorContext.getPosition(), errorContext.getContext());
@@ -138,10 +256,10 @@ public class ParserImpl implements Parser {
 		final Map<String, FunctionDefinition> methods = parseClassBody(className);
 		if (methods == null) {
 			handleCriticalError(ErrorType.CLASS_BODY_MISSING, errorContext.getPosition(), errorContext.getContext());
-		} else {
-			classes.put(className, new UserClassDefinition(className, methods, classPosition));
 		}
-		return true;
+		final ClassDefinition classDefinition = new UserClassDefinition(className, methods, classPosition);
+		classes.put(className, classDefinition);
+		return classDefinition;
 	}
 
 	/**
@@ -153,7 +271,7 @@ public class ParserImpl implements Parser {
 		}
 		final Map<String, FunctionDefinition> methods = new HashMap<>();
 		while (true) {
-			if (!parseFunctionDefinition(methods)) break;
+			if (parseFunctionDefinition(methods) == null) break;
 		}
 		if (!consumeIf(TokenType.CLOSE_BRACKET)) {
 			handleCriticalError(ErrorType.CLOSING_BRACKET_MISSING, errorContext.getPosition(),
@@ -165,11 +283,10 @@ public class ParserImpl implements Parser {
 	/**
 	 * block = "{", {statement}, "}";
 	 */
-	private Block parseBlock(String preceding) {
+	private Block parseBlock(List<Token> preceding) {
 		if (!consumeIf(TokenType.OPEN_BRACKET)) {
 			return null;
 		}
-		preceding = preceding.concat("{");
 		final List<Statement> statements = new ArrayList<>();
 		Statement statement = parseStatement();
 		while (statement != null) {
@@ -177,7 +294,8 @@ public class ParserImpl implements Parser {
 			statement = parseStatement();
 		}
 		if (!consumeIf(TokenType.CLOSE_BRACKET)) {
-			handleCriticalError(ErrorType.CLOSING_BRACKET_MISSING, errorContext.getPosition(), preceding);
+			handleCriticalError(ErrorType.CLOSING_BRACKET_MISSING, errorContext.getPosition(),
+					ErrorContext.render(preceding).concat("{"));
 		}
 		return new Block(statements);
 	}
@@ -337,24 +455,26 @@ public class ParserImpl implements Parser {
 		if (!consumeIf(TokenType.OPEN_PARENTHESIS)) {
 			handleNonCriticalError(ErrorType.OPENING_PARENTHESIS_MISSING, errorContext.getPosition(), errorContext.getContext());
 		}
-		Expression condition = parseOrExpression();
+		Expression condition = parseExpression();
 		if (condition == null) {
 			handleCriticalError(ErrorType.CONDITION_EXPECTED, errorContext.getPosition(), errorContext.getContext());
 		}
 		if (!consumeIf(TokenType.CLOSE_PARENTHESIS)) {
 			handleNonCriticalError(ErrorType.CLOSING_PARENTHESIS_MISSING, errorContext.getPosition(), errorContext.getContext());
 		}
-		String conditionContext = errorContext.getContext();
+		final List<Token> conditionContext = errorContext.snapshot();
 		Block blockIfTrue = parseBlock(conditionContext);
 		if (blockIfTrue == null) {
-			handleCriticalError(ErrorType.CONDITIONAL_STATEMENT_BODY_EXPECTED, errorContext.getPosition(), conditionContext);
+			handleCriticalError(ErrorType.CONDITIONAL_STATEMENT_BODY_EXPECTED, errorContext.getPosition(),
+					ErrorContext.render(conditionContext));
 		}
 		if (!consumeIf(TokenType.ELSE)) {
 			return new IfStatement(condition, blockIfTrue, null, position);
 		}
 		Block elseBlock = parseBlock(conditionContext);
 		if (elseBlock == null) {
-			handleCriticalError(ErrorType.CONDITIONAL_STATEMENT_BODY_EXPECTED, errorContext.getPosition(), conditionContext);
+			handleCriticalError(ErrorType.CONDITIONAL_STATEMENT_BODY_EXPECTED, errorContext.getPosition(),
+					ErrorContext.render(conditionContext));
 		}
 		return new IfStatement(condition, blockIfTrue, elseBlock, position);
 	}
@@ -377,7 +497,7 @@ public class ParserImpl implements Parser {
 		if (range == null) {
 			handleCriticalError(ErrorType.LOOP_RANGE_EXPECTED, errorContext.getPosition(), errorContext.getContext());
 		}
-		Block block = parseBlock(errorContext.getContext());
+		Block block = parseBlock(errorContext.snapshot());
 		if (block == null) {
 			handleCriticalError(ErrorType.CONDITIONAL_STATEMENT_BODY_EXPECTED, errorContext.getPosition(), errorContext.getContext());
 		}
@@ -402,110 +522,69 @@ public class ParserImpl implements Parser {
 	}
 
 	/**
-	 * expression = or-expression;
+	 * expression                = or-expression;
+	 * or-expression             = and-expression, {or-keyword, and-expression};
+	 * and-expression            = relational-expression, {and-keyword, relational-expression};
+	 * relational-expression     = arithmetic-expression, [relational-operator, arithmetic-expression];
+	 * arithmetic-expression     = multiplicative-expression, {("+" | "-"), multiplicative-expression};
+	 * multiplicative-expression = factor, {("*" | "/"), factor};
+	 * <p>
+	 * Parsed by precedence climbing in one loop with stacks of operands and operators, instead of a method per level.
+	 * Operators are left-associative, a relational expression takes at most one relational operator.
 	 */
 	private Expression parseExpression() {
-		return parseOrExpression();
-	}
-
-	/**
-	 * or-expression = and-expression, {or-keyword, and-expression};
-	 */
-	private Expression parseOrExpression() {
-		Expression left = parseAndExpression();
-		if (left == null) {
+		final Expression first = parseNegatedFactor();
+		if (first == null) {
 			return null;
 		}
-		while (consumeIf(TokenType.OR)) {
-			Expression right = parseAndExpression();
-			if (right == null) {
-				handleCriticalError(ErrorType.EXPRESSION_EXPECTED, errorContext.getPosition(), errorContext.getContext());
-			}
-			left = new OrExpression(left, right);
-		}
-		return left;
-	}
-
-	/**
-	 * and-expression = relational-expression, {and-keyword, relational-expression};
-	 */
-	private Expression parseAndExpression() {
-		Expression left = parseRelationalExpression();
-		if (left == null) {
-			return null;
+		int precedence = PRECEDENCE[currentToken.getType().ordinal()];
+		if (precedence == NO_PRECEDENCE) {
+			return first;
 		}
-		while (consumeIf(TokenType.AND)) {
-			Expression right = parseRelationalExpression();
-			if (right == null) {
-				handleCriticalError(ErrorType.EXPRESSION_EXPECTED, errorContext.getPosition(), errorContext.getContext());
+		final Deque<Expression> operands = new ArrayDeque<>();
+		final Deque<TokenType> operators = new ArrayDeque<>();
+		operands.push(first);
+		while (precedence != NO_PRECEDENCE) {
+			while (!operators.isEmpty() && PRECEDENCE[operators.peek().ordinal()] > precedence) {
+				reduce(operands, operators);
 			}
-			left = new AndExpression(left, right);
-		}
-		return left;
-	}
-
-	/**
-	 * relational-expression = arithmetic-expression, [relational-operator, arithmetic-expression];
-	 */
-	private Expression parseRelationalExpression() {
-		Expression left = parseArithmeticExpression();
-		if (left == null) {
-			return null;
-		}
-		RelationalType relationalType;
-		if ((relationalType = TokenGroups.RELATIONAL_OPERATORS.get(currentToken.getType())) != null) {
+			if (!operators.isEmpty() && PRECEDENCE[operators.peek().ordinal()] == precedence) {
+				if (precedence == RELATIONAL_PRECEDENCE) {
+					break;
+				}
+				reduce(operands, operators);
+			}
+			operators.push(currentToken.getType());
 			consumeCurrent();
-			Expression right = parseArithmeticExpression();
+			final Expression right = parseNegatedFactor();
 			if (right == null) {
 				handleCriticalError(ErrorType.EXPRESSION_EXPECTED, errorContext.getPosition(), errorContext.getContext());
 			}
-			left = new RelationalExpression(relationalType, left, right);
+			operands.push(right);
+			precedence = PRECEDENCE[currentToken.getType().ordinal()];
 		}
-		return left;
+		while (!operators.isEmpty()) {
+			reduce(operands, operators);
+		}
+		return operands.pop();
 	}
 
-	/**
-	 * arithmetic-expression = multiplicative-expression, {("+" | "-"), multiplicative-expression};
-	 */
-
-	private Expression parseArithmeticExpression() {
-		Expression left = parseMultiplicativeExpression();
-		if (left == null) {
-			return null;
-		}
-		AdditiveType additiveType;
-		while ((additiveType = TokenGroups.ADDITIVE_OPERATORS.get(currentToken.getType())) != null) {
-			consumeCurrent();
-			Expression right = parseMultiplicativeExpression();
-			if (right == null) {
-				handleCriticalError(ErrorType.EXPRESSION_EXPECTED, errorContext.getPosition(), errorContext.getContext());
-			}
-			left = new ArithmeticExpression(additiveType, left, right);
-		}
-		return left;
+	private static void reduce(Deque<Expression> operands, Deque<TokenType> operators) {
+		final TokenType operator = operators.pop();
+		final Expression right = operands.pop();
+		final Expression left = operands.pop();
+		operands.push(switch (PRECEDENCE[operator.ordinal()]) {
+			case OR_PRECEDENCE -> new OrExpression(left, right);
+			case AND_PRECEDENCE -> new AndExpression(left, right);
+			case RELATIONAL_PRECEDENCE -> new RelationalExpression(TokenGroups.RELATIONAL_OPERATORS.get(operator), left, right);
+			case ADDITIVE_PRECEDENCE -> new ArithmeticExpression(TokenGroups.ADDITIVE_OPERATORS.get(operator), left, right);
+			default -> new MultiplicativeExpression(TokenGroups.MULTIPLICATIVE_OPERATORS.get(operator), left, right);
+		});
 	}
 
 	/**
-	 * multiplicative-expression = factor, {("*" | "/"), factor};
+	 * factor = [negation], (literal | object-access | "(", expression, ")");
 	 */
-	private Expression parseMultiplicativeExpression() {
-		Expression left = parseNegatedFactor();
-		if (left == null) {
-			return null;
-		}
-		MultiplicativeType multiplicativeType;
-		while ((multiplicativeType = TokenGroups.MULTIPLICATIVE_OPERATORS.get(currentToken.getType())) != null) {
-			consumeCurrent();
-			Expression right = parseNegatedFactor();
-			if (right == null) {
-				handleCriticalError(ErrorType.EXPRESSION_EXPECTED, errorContext.getPosition(), errorContext.getContext());
-			}
-			left = new MultiplicativeExpression(multiplicativeType, left, right);
-		}
-		return left;
-	}
-
-
 	private Expression parseNegatedFactor() {
 		boolean negated = false;
 		Position position = currentToken.getPosition();
@@ -522,9 +601,6 @@ public class ParserImpl implements Parser {
 		return expression;
 	}
 
-	/**
-	 * factor = [negation], (literal | object-access | "(", expression, ")");
-	 */
 	private Expression parseFactor() {
 		Expression expression = parseLiteral();
 		if (expression != null) {
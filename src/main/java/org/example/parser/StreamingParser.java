@@ -0,0 +1,147 @@
+package org.example.parser;
+
+import lombok.SneakyThrows;
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorDetails;
+import org.example.programstructure.containers.ClassDefinition;
+import org.example.programstructure.containers.FunctionDefinition;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Runs a parser on its own thread and hands over top-level definitions one at a time, as soon as each is parsed,
+ * so that the consumer can start using the first definitions while the rest of the source is still being read.
+ * <p>
+ * Errors found on the parser thread are not handled there. They are queued between the definitions and given
+ * to the error handler when the consumer reaches them, in the same order as without streaming.
+ * Errors of lazily parsed bodies are reported on the thread which parses the body. An exception or an error which
+ * stops the parser thread, such as a stack overflow on deeply nested source, is rethrown to the consumer.
+ */
+public class StreamingParser implements AutoCloseable {
+
+	private static final Object END = new Object();
+
+	private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+	private final ErrorHandler errorHandler;
+	private final Thread producer;
+
+	private volatile boolean closed = false;
+	private boolean finished = false;
+	private Throwable failure = null;
+
+	/**
+	 * @param parserFactory creates the parser with a given error handler, it is called on the parser thread
+	 */
+	public StreamingParser(Function<ErrorHandler, ParserImpl> parserFactory, ErrorHandler errorHandler) {
+		this.errorHandler = errorHandler;
+		this.producer = new Thread(() -> produce(parserFactory), "parser");
+		this.producer.setDaemon(true);
+		this.producer.start();
+	}
+
+	/**
+	 * Waits for the next definition and gives it to the listener
+	 *
+	 * @return false if the whole source has been parsed
+	 */
+	@SneakyThrows
+	public boolean next(DefinitionListener listener) {
+		if (failure != null) {
+			throw failure;
+		}
+		if (finished) {
+			return false;
+		}
+		while (true) {
+			Object entry = take();
+			if (entry instanceof FunctionDefinition functionDefinition) {
+				listener.functionParsed(functionDefinition);
+				return true;
+			}
+			if (entry instanceof ClassDefinition classDefinition) {
+				listener.classParsed(classDefinition);
+				return true;
+			}
+			if (entry instanceof DeferredError error) {
+				try {
+					errorHandler.handleError(error.details());
+				} catch (Exception e) {
+					close();
+					failure = e;
+					throw e;
+				}
+			} else if (entry instanceof Failure parserFailure) {
+				failure = parserFailure.exception();
+				throw failure;
+			} else {
+				finished = true;
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Stops the parser thread at its next definition if it is still running
+	 */
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	private void produce(Function<ErrorHandler, ParserImpl> parserFactory) {
+		try {
+			ParserImpl parser = parserFactory.apply(this::handleError);
+			parser.parse(new DefinitionListener() {
+				@Override
+				public void functionParsed(FunctionDefinition functionDefinition) {
+					put(functionDefinition);
+				}
+
+				@Override
+				public void classParsed(ClassDefinition classDefinition) {
+					put(classDefinition);
+				}
+			});
+			queue.add(END);
+		} catch (CancellationException e) {
+			// closed by the consumer
+		} catch (Throwable e) {
+			// an Error too, otherwise the consumer would wait for the next definition forever
+			queue.add(new Failure(e));
+		}
+	}
+
+	private Object take() {
+		try {
+			return queue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for the parser");
+		}
+	}
+
+	private void put(Object definition) {
+		if (closed) {
+			throw new CancellationException();
+		}
+		queue.add(definition);
+	}
+
+	private void handleError(ErrorDetails errorDetails) throws Exception {
+		if (Thread.currentThread() == producer) {
+			queue.add(new DeferredError(errorDetails));
+		} else {
+			errorHandler.handleError(errorDetails);
+		}
+	}
+
+	private record DeferredError(ErrorDetails details) {
+	}
+
+	private record Failure(Throwable exception) {
+	}
+
+}
@@ -0,0 +1,147 @@
+package org.example.programstructure.arena;
+
+import org.example.commons.Position;
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.example.programstructure.arena.AstArena.NONE;
+
+/**
+ * Walks an AstArena with a cursor and builds records for the interpreter. Functions and methods are decoded
+ * as LazyFunctionDefinition, so records of a body are built only when the function is first called.
+ */
+class ArenaDecoder {
+
+	private final AstArena arena;
+	private final AstCursor cursor;
+
+	ArenaDecoder(AstArena arena) {
+		this.arena = arena;
+		this.cursor = arena.cursor();
+	}
+
+	Program decode() {
+		final Map<String, FunctionDefinition> functions = new HashMap<>();
+		final Map<String, ClassDefinition> classes = new HashMap<>();
+		final int program = arena.root();
+		final int length = cursor.moveTo(program).listLength();
+		for (int i = 0; i < length; i++) {
+			final int definition = cursor.moveTo(program).listElement(i);
+			if (cursor.moveTo(definition).kind() == NodeKind.FUNCTION) {
+				functions.put(cursor.name(), function(definition));
+			} else {
+				final UserClassDefinition classDefinition = userClass(definition);
+				classes.put(classDefinition.name(), classDefinition);
+			}
+		}
+		return new Program(functions, classes);
+	}
+
+	private FunctionDefinition function(int node) {
+		cursor.moveTo(node);
+		final String name = cursor.name();
+		final List<Parameter> parameters = new ArrayList<>(cursor.listLength());
+		for (int i = 0; i < cursor.listLength(); i++) {
+			parameters.add(new Parameter(cursor.parameter(i)));
+		}
+		final int block = cursor.third();
+		// every body gets its own cursor, it may be decoded while another one is being walked
+		return new LazyFunctionDefinition(name, parameters, () -> new ArenaDecoder(arena).block(block));
+	}
+
+	private UserClassDefinition userClass(int node) {
+		cursor.moveTo(node);
+		final String name = cursor.name();
+		final Position position = cursor.position();
+		final int length = cursor.listLength();
+		final Map<String, FunctionDefinition> methods = new HashMap<>();
+		for (int i = 0; i < length; i++) {
+			final FunctionDefinition method = function(cursor.moveTo(node).listElement(i));
+			methods.put(method.name(), method);
+		}
+		return new UserClassDefinition(name, methods, position);
+	}
+
+	private Block block(int node) {
+		final int length = cursor.moveTo(node).listLength();
+		final List<Statement> statements = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			statements.add(statement(cursor.moveTo(node).listElement(i)));
+		}
+		return new Block(statements);
+	}
+
+	private Statement statement(int node) {
+		cursor.moveTo(node);
+		final int first = cursor.first();
+		final int second = cursor.second();
+		return switch (cursor.kind()) {
+			case MODIFY_AND_ASSIGN -> {
+				final var additiveType = cursor.additiveType();
+				yield new ModifyAndAssignStatement(additiveType, expression(first), expression(second));
+			}
+			case ASSIGNMENT -> new AssignmentStatement(expression(first), expression(second));
+			case FOR -> {
+				final String iteratorName = cursor.name();
+				yield new ForStatement(iteratorName, expression(first), block(second));
+			}
+			case IF -> {
+				final int third = cursor.third();
+				final Position position = cursor.position();
+				yield new IfStatement(expression(first), block(second), third == NONE ? null : block(third), position);
+			}
+			case RETURN -> new ReturnStatement(expression(first));
+			default -> (Statement) expression(node);
+		};
+	}
+
+	private Expression expression(int node) {
+		cursor.moveTo(node);
+		final int first = cursor.first();
+		final int second = cursor.second();
+		return switch (cursor.kind()) {
+			case OR -> new OrExpression(expression(first), expression(second));
+			case AND -> new AndExpression(expression(first), expression(second));
+			case RELATIONAL -> {
+				final var relationalType = cursor.relationalType();
+				yield new RelationalExpression(relationalType, expression(first), expression(second));
+			}
+			case ARITHMETIC -> {
+				final var additiveType = cursor.additiveType();
+				yield new ArithmeticExpression(additiveType, expression(first), expression(second));
+			}
+			case MULTIPLICATIVE -> {
+				final var multiplicativeType = cursor.multiplicativeType();
+				yield new MultiplicativeExpression(multiplicativeType, expression(first), expression(second));
+			}
+			case FUNCTION_CALL -> {
+				final String name = cursor.name();
+				final Position position = cursor.position();
+				final List<Expression> arguments = new ArrayList<>(second);
+				for (int i = 0; i < second; i++) {
+					arguments.add(expression(cursor.moveTo(node).listElement(i)));
+				}
+				yield new FunctionCallExpression(name, arguments, position);
+			}
+			case IDENTIFIER -> new IdentifierExpression(cursor.name(), cursor.position());
+			case NEGATED -> {
+				final Position position = cursor.position();
+				yield new NegatedExpression(expression(first), position);
+			}
+			case LITERAL_BOOL -> new LiteralBool((Boolean) cursor.value(), cursor.position());
+			case LITERAL_FLOAT -> new LiteralFloat((Double) cursor.value(), cursor.position());
+			case LITERAL_INTEGER -> new LiteralInteger((Number) cursor.value(), cursor.position());
+			case LITERAL_TEXT -> new LiteralText((String) cursor.value(), cursor.position());
+			case SELF_ACCESS -> new SelfAccess(cursor.position());
+			case OBJECT_ACCESS -> new ObjectAccess(expression(first), expression(second));
+			default -> throw new IllegalStateException("Not an expression: " + cursor);
+		};
+	}
+
+}
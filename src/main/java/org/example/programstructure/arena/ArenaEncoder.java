@@ -0,0 +1,251 @@
+package org.example.programstructure.arena;
+
+import org.example.commons.Position;
+import org.example.interpreter.builtins.*;
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.*;
+import org.example.visitor.Visitable;
+import org.example.visitor.Visitor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.example.programstructure.arena.AstArena.NONE;
+
+/**
+ * Copies a record AST into an AstArena. Children are added before their parents, the index of the node
+ * added by the last visit is kept in lastNode. Lazily parsed functions are parsed on the way.
+ */
+class ArenaEncoder implements Visitor {
+
+	private final AstArena arena = new AstArena();
+	private int lastNode = NONE;
+
+	AstArena encode(Program program) {
+		program.accept(this);
+		arena.finish(lastNode);
+		return arena;
+	}
+
+	@Override
+	public void visit(Program program) {
+		final int[] functions = encodeAll(program.functionDefinitions().values());
+		final int[] classes = encodeAll(program.classDefinitions().values());
+		final int[] definitions = new int[functions.length + classes.length];
+		System.arraycopy(functions, 0, definitions, 0, functions.length);
+		System.arraycopy(classes, 0, definitions, functions.length, classes.length);
+		lastNode = arena.add(NodeKind.PROGRAM, 0, NONE, arena.addList(definitions, definitions.length), definitions.length,
+				NONE, null);
+	}
+
+	@Override
+	public void visit(UserFunctionDefinition functionDefinition) {
+		final List<Parameter> parameters = functionDefinition.parameters();
+		final int[] names = new int[parameters.size()];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = arena.intern(parameters.get(i).name());
+		}
+		final int block = encode(functionDefinition.block());
+		lastNode = arena.add(NodeKind.FUNCTION, 0, arena.intern(functionDefinition.name()),
+				arena.addList(names, names.length), names.length, block, null);
+	}
+
+	@Override
+	public void visit(UserClassDefinition userClassDefinition) {
+		final int[] methods = encodeAll(userClassDefinition.methods().values());
+		lastNode = arena.add(NodeKind.CLASS, 0, arena.intern(userClassDefinition.name()),
+				arena.addList(methods, methods.length), methods.length, NONE, userClassDefinition.position());
+	}
+
+	@Override
+	public void visit(Block block) {
+		final int[] statements = encodeAll(block.statements());
+		lastNode = arena.add(NodeKind.BLOCK, 0, NONE, arena.addList(statements, statements.length), statements.length,
+				NONE, null);
+	}
+
+	@Override
+	public void visit(Parameter parameter) {
+	}
+
+	@Override
+	public void visit(OrExpression expression) {
+		addBinary(NodeKind.OR, 0, expression.left(), expression.right(), expression.position());
+	}
+
+	@Override
+	public void visit(AndExpression expression) {
+		addBinary(NodeKind.AND, 0, expression.left(), expression.right(), expression.position());
+	}
+
+	@Override
+	public void visit(RelationalExpression expression) {
+		addBinary(NodeKind.RELATIONAL, expression.relationalType().ordinal(), expression.left(), expression.right(),
+				expression.position());
+	}
+
+	@Override
+	public void visit(ArithmeticExpression expression) {
+		addBinary(NodeKind.ARITHMETIC, expression.additiveType().ordinal(), expression.left(), expression.right(),
+				expression.position());
+	}
+
+	@Override
+	public void visit(MultiplicativeExpression expression) {
+		addBinary(NodeKind.MULTIPLICATIVE, expression.multiplicativeType().ordinal(), expression.left(), expression.right(),
+				expression.position());
+	}
+
+	@Override
+	public void visit(FunctionCallExpression expression) {
+		final int[] arguments = encodeAll(expression.arguments());
+		lastNode = arena.add(NodeKind.FUNCTION_CALL, 0, arena.intern(expression.name()),
+				arena.addList(arguments, arguments.length), arguments.length, NONE, expression.position());
+	}
+
+	@Override
+	public void visit(IdentifierExpression expression) {
+		lastNode = arena.add(NodeKind.IDENTIFIER, 0, arena.intern(expression.name()), NONE, NONE, NONE,
+				expression.position());
+	}
+
+	@Override
+	public void visit(NegatedExpression expression) {
+		final int negated = encode(expression.expression());
+		lastNode = arena.add(NodeKind.NEGATED, 0, NONE, negated, NONE, NONE, expression.position());
+	}
+
+	@Override
+	public void visit(LiteralBool expression) {
+		addLiteral(NodeKind.LITERAL_BOOL, expression.value(), expression);
+	}
+
+	@Override
+	public void visit(LiteralFloat expression) {
+		addLiteral(NodeKind.LITERAL_FLOAT, expression.value(), expression);
+	}
+
+	@Override
+	public void visit(LiteralInteger expression) {
+		addLiteral(NodeKind.LITERAL_INTEGER, expression.value(), expression);
+	}
+
+	@Override
+	public void visit(LiteralText expression) {
+		addLiteral(NodeKind.LITERAL_TEXT, expression.value(), expression);
+	}
+
+	@Override
+	public void visit(SelfAccess expression) {
+		lastNode = arena.add(NodeKind.SELF_ACCESS, 0, NONE, NONE, NONE, NONE, expression.position());
+	}
+
+	@Override
+	public void visit(ModifyAndAssignStatement statement) {
+		addBinary(NodeKind.MODIFY_AND_ASSIGN, statement.additiveType().ordinal(), statement.left(), statement.right(),
+				statement.left().position());
+	}
+
+	@Override
+	public void visit(AssignmentStatement statement) {
+		addBinary(NodeKind.ASSIGNMENT, 0, statement.left(), statement.right(), statement.left().position());
+	}
+
+	@Override
+	public void visit(ForStatement statement) {
+		final int range = encode(statement.range());
+		final int block = encode(statement.block());
+		lastNode = arena.add(NodeKind.FOR, 0, arena.intern(statement.iteratorName()), range, block, NONE,
+				statement.range().position());
+	}
+
+	@Override
+	public void visit(IfStatement statement) {
+		final int condition = encode(statement.condition());
+		final int blockIfTrue = encode(statement.blockIfTrue());
+		final int elseBlock = statement.elseBlock() == null ? NONE : encode(statement.elseBlock());
+		lastNode = arena.add(NodeKind.IF, 0, NONE, condition, blockIfTrue, elseBlock, statement.position());
+	}
+
+	@Override
+	public void visit(ObjectAccess statement) {
+		addBinary(NodeKind.OBJECT_ACCESS, 0, statement.left(), statement.right(), statement.position());
+	}
+
+	@Override
+	public void visit(ReturnStatement statement) {
+		final int expression = encode(statement.expression());
+		lastNode = arena.add(NodeKind.RETURN, 0, NONE, expression, NONE, NONE, statement.expression().position());
+	}
+
+	@Override
+	public void visit(PrintFunction printFunction) {
+	}
+
+	@Override
+	public void visit(AbortFunction abortFunction) {
+	}
+
+	@Override
+	public void visit(RangeFunction rangeFunction) {
+	}
+
+	@Override
+	public void visit(ListDefinition listDefinition) {
+	}
+
+	@Override
+	public void visit(ListConstructor listConstructor) {
+	}
+
+	@Override
+	public void visit(AppendMethod method) {
+	}
+
+	@Override
+	public void visit(GetMethod method) {
+	}
+
+	@Override
+	public void visit(RemoveMethod method) {
+	}
+
+	@Override
+	public void visit(LengthMethod method) {
+	}
+
+	private int encode(Visitable visitable) {
+		lastNode = NONE;
+		visitable.accept(this);
+		return lastNode;
+	}
+
+	/**
+	 * Built-in definitions have no nodes and are left out
+	 */
+	private int[] encodeAll(Collection<? extends Visitable> visitables) {
+		final int[] nodes = new int[visitables.size()];
+		int count = 0;
+		for (Visitable visitable : visitables) {
+			final int node = encode(visitable);
+			if (node != NONE) {
+				nodes[count++] = node;
+			}
+		}
+		return count == nodes.length ? nodes : Arrays.copyOf(nodes, count);
+	}
+
+	private void addBinary(NodeKind kind, int operator, Expression left, Expression right,
+						   Position position) {
+		final int leftNode = encode(left);
+		final int rightNode = encode(right);
+		lastNode = arena.add(kind, operator, NONE, leftNode, rightNode, NONE, position);
+	}
+
+	private void addLiteral(NodeKind kind, Object value, Expression expression) {
+		lastNode = arena.add(kind, 0, arena.intern(value), NONE, NONE, NONE, expression.position());
+	}
+
+}
@@ -0,0 +1,188 @@
+package org.example.programstructure.arena;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Binary form of an AstArena:
+ * <pre>
+ * magic, version, payload length, payload, CRC32 of the payload
+ * payload = node count, kinds, operators, symbols, firsts, seconds, thirds, locations,
+ *           list length, lists, symbol count, tagged symbols, root
+ * </pre>
+ * Reading fails with CorruptArenaException when any part does not match, so that the caller can rebuild the arena.
+ */
+@UtilityClass
+public class ArenaFormat {
+
+	public static final int MAGIC = 0x5A4D494A;		// "ZMIJ"
+	public static final short VERSION = 1;
+
+	private static final byte TEXT = 0;
+	private static final byte INTEGER = 1;
+	private static final byte LONG = 2;
+	private static final byte DOUBLE = 3;
+	private static final byte BOOLEAN = 4;
+
+	public static void write(AstArena arena, OutputStream stream) throws IOException {
+		final var payload = new ByteArrayOutputStream(arena.nodeCount() * 32);
+		final var data = new DataOutputStream(payload);
+		final int nodeCount = arena.nodeCount();
+		data.writeInt(nodeCount);
+		data.write(arena.kinds(), 0, nodeCount);
+		data.write(arena.operators(), 0, nodeCount);
+		writeInts(data, arena.symbols(), nodeCount);
+		writeInts(data, arena.firsts(), nodeCount);
+		writeInts(data, arena.seconds(), nodeCount);
+		writeInts(data, arena.thirds(), nodeCount);
+		for (int i = 0; i < nodeCount; i++) {
+			data.writeLong(arena.locations()[i]);
+		}
+		data.writeInt(arena.listLength());
+		writeInts(data, arena.lists(), arena.listLength());
+		data.writeInt(arena.symbolCount());
+		for (int i = 0; i < arena.symbolCount(); i++) {
+			writeSymbol(data, arena.symbolAt(i));
+		}
+		data.writeInt(arena.root());
+		data.flush();
+
+		final byte[] bytes = payload.toByteArray();
+		final var crc = new CRC32();
+		crc.update(bytes);
+		final var output = new DataOutputStream(stream);
+		output.writeInt(MAGIC);
+		output.writeShort(VERSION);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+		output.writeLong(crc.getValue());
+		output.flush();
+	}
+
+	public static AstArena read(InputStream stream) throws IOException {
+		final var input = new DataInputStream(stream);
+		if (input.readInt() != MAGIC) {
+			throw new CorruptArenaException("Not an arena file");
+		}
+		final short version = input.readShort();
+		if (version != VERSION) {
+			throw new CorruptArenaException("Arena format version " + version + ", expected " + VERSION);
+		}
+		final int length = input.readInt();
+		if (length < 0) {
+			throw new CorruptArenaException("Negative payload length");
+		}
+		final byte[] bytes = input.readNBytes(length);
+		final var crc = new CRC32();
+		crc.update(bytes);
+		if (bytes.length != length || input.readLong() != crc.getValue()) {
+			throw new CorruptArenaException("Checksum mismatch");
+		}
+		try {
+			return readPayload(ByteBuffer.wrap(bytes));
+		} catch (RuntimeException e) {
+			throw new CorruptArenaException("Malformed payload: " + e);
+		}
+	}
+
+	private static AstArena readPayload(ByteBuffer buffer) throws CorruptArenaException {
+		final int nodeCount = buffer.getInt();
+		final byte[] kinds = new byte[nodeCount];
+		final byte[] operators = new byte[nodeCount];
+		buffer.get(kinds).get(operators);
+		final int[] symbols = readInts(buffer, nodeCount);
+		final int[] firsts = readInts(buffer, nodeCount);
+		final int[] seconds = readInts(buffer, nodeCount);
+		final int[] thirds = readInts(buffer, nodeCount);
+		final long[] locations = new long[nodeCount];
+		buffer.asLongBuffer().get(locations);
+		buffer.position(buffer.position() + nodeCount * Long.BYTES);
+		final int[] lists = readInts(buffer, buffer.getInt());
+		final Object[] symbolTable = new Object[buffer.getInt()];
+		for (int i = 0; i < symbolTable.length; i++) {
+			symbolTable[i] = readSymbol(buffer);
+		}
+		final int root = buffer.getInt();
+		if (buffer.hasRemaining()) {
+			throw new CorruptArenaException("Trailing bytes");
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			if (kinds[node] < 0 || kinds[node] >= NodeKind.VALUES.length || symbols[node] >= symbolTable.length) {
+				throw new CorruptArenaException("Invalid node " + node);
+			}
+		}
+		if (root < 0 || root >= nodeCount || kinds[root] != NodeKind.PROGRAM.ordinal()) {
+			throw new CorruptArenaException("Invalid root");
+		}
+		return new AstArena(kinds, operators, symbols, firsts, seconds, thirds, locations, lists, symbolTable, root);
+	}
+
+	private static void writeInts(DataOutputStream data, int[] values, int length) throws IOException {
+		for (int i = 0; i < length; i++) {
+			data.writeInt(values[i]);
+		}
+	}
+
+	private static int[] readInts(ByteBuffer buffer, int length) {
+		final int[] values = new int[length];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + length * Integer.BYTES);
+		return values;
+	}
+
+	private static void writeSymbol(DataOutputStream data, Object symbol) throws IOException {
+		if (symbol instanceof String text) {
+			final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			data.writeByte(TEXT);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+		} else if (symbol instanceof Integer value) {
+			data.writeByte(INTEGER);
+			data.writeInt(value);
+		} else if (symbol instanceof Long value) {
+			data.writeByte(LONG);
+			data.writeLong(value);
+		} else if (symbol instanceof Double value) {
+			data.writeByte(DOUBLE);
+			data.writeDouble(value);
+		} else if (symbol instanceof Boolean value) {
+			data.writeByte(BOOLEAN);
+			data.writeBoolean(value);
+		} else {
+			throw new IllegalArgumentException("Unexpected symbol " + symbol);
+		}
+	}
+
+	private static Object readSymbol(ByteBuffer buffer) throws CorruptArenaException {
+		final byte tag = buffer.get();
+		return switch (tag) {
+			case TEXT -> {
+				final byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				yield new String(bytes, StandardCharsets.UTF_8);
+			}
+			case INTEGER -> buffer.getInt();
+			case LONG -> buffer.getLong();
+			case DOUBLE -> buffer.getDouble();
+			case BOOLEAN -> buffer.get() != 0;
+			default -> throw new CorruptArenaException("Unknown symbol tag " + tag);
+		};
+	}
+
+	public static class CorruptArenaException extends IOException {
+
+		public CorruptArenaException(String message) {
+			super(message);
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+package org.example.programstructure.arena;
+
+import org.example.commons.Position;
+import org.example.programstructure.containers.Program;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact AST stored in flat primitive arrays instead of records. A node is an index; it has a kind, an operator,
+ * a symbol, three child slots and a source location packed as line and character number.
+ * Names and literal values are kept once each in a side table of symbols, runs of children in a shared list pool.
+ * The meaning of the slots depends on the kind, see {@link NodeKind}.
+ * <p>
+ * The arena is built from a record AST by {@link ArenaEncoder}, walked with {@link AstCursor}
+ * and turned back into records by {@link ArenaDecoder}.
+ */
+public final class AstArena {
+
+	public static final int NONE = -1;
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private byte[] kinds = new byte[INITIAL_CAPACITY];
+	private byte[] operators = new byte[INITIAL_CAPACITY];
+	private int[] symbols = new int[INITIAL_CAPACITY];
+	private int[] firsts = new int[INITIAL_CAPACITY];
+	private int[] seconds = new int[INITIAL_CAPACITY];
+	private int[] thirds = new int[INITIAL_CAPACITY];
+	private long[] locations = new long[INITIAL_CAPACITY];
+	private int nodeCount = 0;
+
+	private int[] lists = new int[INITIAL_CAPACITY];
+	private int listLength = 0;
+
+	private Object[] symbolTable = new Object[INITIAL_CAPACITY];
+	private int symbolCount = 0;
+	private Map<Object, Integer> symbolIndex = new HashMap<>();
+
+	private int root = NONE;
+
+	AstArena() {
+	}
+
+	AstArena(byte[] kinds, byte[] operators, int[] symbols, int[] firsts, int[] seconds, int[] thirds, long[] locations,
+			 int[] lists, Object[] symbolTable, int root) {
+		this.kinds = kinds;
+		this.operators = operators;
+		this.symbols = symbols;
+		this.firsts = firsts;
+		this.seconds = seconds;
+		this.thirds = thirds;
+		this.locations = locations;
+		this.nodeCount = kinds.length;
+		this.lists = lists;
+		this.listLength = lists.length;
+		this.symbolTable = symbolTable;
+		this.symbolCount = symbolTable.length;
+		this.symbolIndex = null;
+		this.root = root;
+	}
+
+	public static AstArena encode(Program program) {
+		return new ArenaEncoder().encode(program);
+	}
+
+	public Program toProgram() {
+		return new ArenaDecoder(this).decode();
+	}
+
+	public AstCursor cursor() {
+		return new AstCursor(this, root);
+	}
+
+	public int root() {
+		return root;
+	}
+
+	public int nodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return bytes taken by the node arrays and the list pool, without the symbol table
+	 */
+	public long arrayBytes() {
+		return (long) nodeCount * (2 * Byte.BYTES + 4 * Integer.BYTES + Long.BYTES) + (long) listLength * Integer.BYTES;
+	}
+
+	// arrays for ArenaFormat, valid up to nodeCount, listLength and symbolCount
+
+	byte[] kinds() {
+		return kinds;
+	}
+
+	byte[] operators() {
+		return operators;
+	}
+
+	int[] symbols() {
+		return symbols;
+	}
+
+	int[] firsts() {
+		return firsts;
+	}
+
+	int[] seconds() {
+		return seconds;
+	}
+
+	int[] thirds() {
+		return thirds;
+	}
+
+	long[] locations() {
+		return locations;
+	}
+
+	int[] lists() {
+		return lists;
+	}
+
+	int listLength() {
+		return listLength;
+	}
+
+	int symbolCount() {
+		return symbolCount;
+	}
+
+	NodeKind kind(int node) {
+		return NodeKind.VALUES[kinds[node]];
+	}
+
+	int operator(int node) {
+		return operators[node];
+	}
+
+	int first(int node) {
+		return firsts[node];
+	}
+
+	int second(int node) {
+		return seconds[node];
+	}
+
+	int third(int node) {
+		return thirds[node];
+	}
+
+	Object symbol(int node) {
+		return symbolTable[symbols[node]];
+	}
+
+	int listElement(int index) {
+		return lists[index];
+	}
+
+	Object symbolAt(int index) {
+		return symbolTable[index];
+	}
+
+	Position position(int node) {
+		return new Position((int) (locations[node] >>> 32), (int) locations[node]);
+	}
+
+	int add(NodeKind kind, int operator, int symbol, int first, int second, int third, Position position) {
+		if (nodeCount == kinds.length) {
+			int capacity = nodeCount * 2;
+			kinds = Arrays.copyOf(kinds, capacity);
+			operators = Arrays.copyOf(operators, capacity);
+			symbols = Arrays.copyOf(symbols, capacity);
+			firsts = Arrays.copyOf(firsts, capacity);
+			seconds = Arrays.copyOf(seconds, capacity);
+			thirds = Arrays.copyOf(thirds, capacity);
+			locations = Arrays.copyOf(locations, capacity);
+		}
+		kinds[nodeCount] = (byte) kind.ordinal();
+		operators[nodeCount] = (byte) operator;
+		symbols[nodeCount] = symbol;
+		firsts[nodeCount] = first;
+		seconds[nodeCount] = second;
+		thirds[nodeCount] = third;
+		locations[nodeCount] = position == null ? 0
+				: (long) position.getLineNumber() << 32 | position.getCharacterNumber() & 0xFFFFFFFFL;
+		return nodeCount++;
+	}
+
+	/**
+	 * @return start of the run in the list pool
+	 */
+	int addList(int[] elements, int length) {
+		if (listLength + length > lists.length) {
+			lists = Arrays.copyOf(lists, Math.max(lists.length * 2, listLength + length));
+		}
+		System.arraycopy(elements, 0, lists, listLength, length);
+		listLength += length;
+		return listLength - length;
+	}
+
+	/**
+	 * @return index of the value in the symbol table, equal values share one entry
+	 */
+	int intern(Object value) {
+		Integer index = symbolIndex.get(value);
+		if (index != null) {
+			return index;
+		}
+		if (symbolCount == symbolTable.length) {
+			symbolTable = Arrays.copyOf(symbolTable, symbolCount * 2);
+		}
+		symbolTable[symbolCount] = value;
+		symbolIndex.put(value, symbolCount);
+		return symbolCount++;
+	}
+
+	/**
+	 * Sets the root and trims the arrays to their contents
+	 */
+	void finish(int root) {
+		this.root = root;
+		kinds = Arrays.copyOf(kinds, nodeCount);
+		operators = Arrays.copyOf(operators, nodeCount);
+		symbols = Arrays.copyOf(symbols, nodeCount);
+		firsts = Arrays.copyOf(firsts, nodeCount);
+		seconds = Arrays.copyOf(seconds, nodeCount);
+		thirds = Arrays.copyOf(thirds, nodeCount);
+		locations = Arrays.copyOf(locations, nodeCount);
+		lists = Arrays.copyOf(lists, listLength);
+		symbolTable = Arrays.copyOf(symbolTable, symbolCount);
+		symbolIndex = null;
+	}
+
+}
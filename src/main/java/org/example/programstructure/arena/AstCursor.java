@@ -0,0 +1,117 @@
+package org.example.programstructure.arena;
+
+import org.example.commons.Position;
+import org.example.programstructure.expression.enums.AdditiveType;
+import org.example.programstructure.expression.enums.MultiplicativeType;
+import org.example.programstructure.expression.enums.RelationalType;
+
+/**
+ * Position in an AstArena. Children are given as node indices, the cursor is moved to them with moveTo()
+ * and moved back by the walker, so walking allocates nothing per node.
+ */
+public final class AstCursor {
+
+	private final AstArena arena;
+	private int node;
+
+	AstCursor(AstArena arena, int node) {
+		this.arena = arena;
+		this.node = node;
+	}
+
+	public AstCursor moveTo(int node) {
+		this.node = node;
+		return this;
+	}
+
+	public int node() {
+		return node;
+	}
+
+	public NodeKind kind() {
+		return arena.kind(node);
+	}
+
+	/**
+	 * @return left operand, condition, range or the only child, depending on the kind
+	 */
+	public int first() {
+		return arena.first(node);
+	}
+
+	/**
+	 * @return right operand or block, depending on the kind
+	 */
+	public int second() {
+		return arena.second(node);
+	}
+
+	/**
+	 * @return block of a function or else block of an if statement, AstArena.NONE if there is none
+	 */
+	public int third() {
+		return arena.third(node);
+	}
+
+	/**
+	 * @return number of elements of the list of a PROGRAM, FUNCTION, CLASS, BLOCK or FUNCTION_CALL node
+	 */
+	public int listLength() {
+		return arena.second(node);
+	}
+
+	/**
+	 * @return node index of a list element, for FUNCTION it is a parameter name, see parameter()
+	 */
+	public int listElement(int index) {
+		return arena.listElement(arena.first(node) + index);
+	}
+
+	public String parameter(int index) {
+		return (String) arena.symbolAt(listElement(index));
+	}
+
+	/**
+	 * @return name of a function, class, call, identifier or iterator
+	 */
+	public String name() {
+		return (String) arena.symbol(node);
+	}
+
+	/**
+	 * @return value of a literal
+	 */
+	public Object value() {
+		return arena.symbol(node);
+	}
+
+	public AdditiveType additiveType() {
+		return AdditiveType.values()[arena.operator(node)];
+	}
+
+	public MultiplicativeType multiplicativeType() {
+		return MultiplicativeType.values()[arena.operator(node)];
+	}
+
+	public RelationalType relationalType() {
+		return RelationalType.values()[arena.operator(node)];
+	}
+
+	public Position position() {
+		return arena.position(node);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder(kind().name());
+		switch (kind()) {
+			case FUNCTION, CLASS, FUNCTION_CALL, IDENTIFIER, FOR -> builder.append(' ').append(name());
+			case LITERAL_BOOL, LITERAL_FLOAT, LITERAL_INTEGER, LITERAL_TEXT -> builder.append(' ').append(value());
+			case RELATIONAL -> builder.append(' ').append(relationalType());
+			case ARITHMETIC, MODIFY_AND_ASSIGN -> builder.append(' ').append(additiveType());
+			case MULTIPLICATIVE -> builder.append(' ').append(multiplicativeType());
+		}
+		return builder.append(" at ").append(position()).toString();
+	}
+
+}
@@ -0,0 +1,40 @@
+package org.example.programstructure.arena;
+
+/**
+ * Kinds of nodes of AstArena. Comments give the meaning of the symbol, first, second and third slots,
+ * "list" stands for first = start and second = length of a run in the list pool.
+ */
+public enum NodeKind {
+
+	// containers
+	PROGRAM,			// list of FUNCTION and CLASS nodes
+	FUNCTION,			// symbol = name, list of parameter name symbols, third = BLOCK
+	CLASS,				// symbol = name, list of FUNCTION nodes
+	BLOCK,				// list of statement nodes
+
+	// expressions
+	OR,					// first = left, second = right
+	AND,				// first = left, second = right
+	RELATIONAL,			// operator = RelationalType, first = left, second = right
+	ARITHMETIC,			// operator = AdditiveType, first = left, second = right
+	MULTIPLICATIVE,		// operator = MultiplicativeType, first = left, second = right
+	FUNCTION_CALL,		// symbol = name, list of argument nodes
+	IDENTIFIER,			// symbol = name
+	NEGATED,			// first = expression
+	LITERAL_BOOL,		// symbol = value
+	LITERAL_FLOAT,		// symbol = value
+	LITERAL_INTEGER,	// symbol = value
+	LITERAL_TEXT,		// symbol = value
+	SELF_ACCESS,		// no slots
+
+	// statements
+	MODIFY_AND_ASSIGN,	// operator = AdditiveType, first = left, second = right
+	ASSIGNMENT,			// first = left, second = right
+	FOR,				// symbol = iterator name, first = range, second = BLOCK
+	IF,					// first = condition, second = BLOCK, third = else BLOCK or NONE
+	OBJECT_ACCESS,		// first = left, second = right
+	RETURN;				// first = expression
+
+	static final NodeKind[] VALUES = values();
+
+}
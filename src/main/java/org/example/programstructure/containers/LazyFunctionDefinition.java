@@ -0,0 +1,75 @@
+package org.example.programstructure.containers;
+
+import org.example.visitor.Visitor;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Function whose body is parsed the first time it is visited, e.g. called by the interpreter.
+ * Until then only the signature and whatever the body parser keeps, like the span of the tokens of the body, are held.
+ */
+public class LazyFunctionDefinition implements FunctionDefinition {
+
+	private final String name;
+	private final List<Parameter> parameters;
+	private Supplier<UserFunctionDefinition> definitionSupplier;
+	private UserFunctionDefinition definition;
+
+	public LazyFunctionDefinition(String name, List<Parameter> parameters, Supplier<Block> bodyParser) {
+		this(name, parameters);
+		this.definitionSupplier = () -> new UserFunctionDefinition(name, parameters, bodyParser.get());
+	}
+
+	private LazyFunctionDefinition(String name, List<Parameter> parameters) {
+		this.name = name;
+		this.parameters = parameters;
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public List<Parameter> parameters() {
+		return parameters;
+	}
+
+	/**
+	 * Parses the body if it has not been parsed yet; syntax errors in the body are reported now
+	 */
+	public UserFunctionDefinition resolve() {
+		if (definition == null) {
+			definition = definitionSupplier.get();
+			definitionSupplier = null;
+		}
+		return definition;
+	}
+
+	/**
+	 * @return function which is still parsed when it is first visited and then changed by the transformation
+	 */
+	public LazyFunctionDefinition transform(List<Parameter> parameters,
+											UnaryOperator<UserFunctionDefinition> transformation) {
+		final var transformed = new LazyFunctionDefinition(name, parameters);
+		transformed.definitionSupplier = () -> transformation.apply(resolve());
+		return transformed;
+	}
+
+	public boolean isResolved() {
+		return definition != null;
+	}
+
+	@Override
+	public void accept(Visitor visitor) {
+		resolve().accept(visitor);
+	}
+
+	@Override
+	public String toString() {
+		return isResolved() ? definition.toString() : "LazyFunctionDefinition[name=" + name + ", parameters=" + parameters + "]";
+	}
+
+}
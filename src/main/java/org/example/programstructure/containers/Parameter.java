@@ -1,9 +1,18 @@
 package org.example.programstructure.containers;
 
+import org.example.programstructure.expression.IdentifierExpression;
 import org.example.visitor.Visitable;
 import org.example.visitor.Visitor;
 
-public record Parameter(String name) implements Visitable {
+/**
+ * @param slot frame slot of the parameter, see {@link IdentifierExpression#slot()}; parameters of built-in functions
+ *             have no slots and are stored by name
+ */
+public record Parameter(String name, int slot) implements Visitable {
+
+	public Parameter(String name) {
+		this(name, IdentifierExpression.NO_SLOT);
+	}
 
 	@Override
 	public void accept(Visitor visitor) {
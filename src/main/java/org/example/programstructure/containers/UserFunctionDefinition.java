@@ -4,7 +4,15 @@ import org.example.visitor.Visitor;
 
 import java.util.List;
 
-public record UserFunctionDefinition(String name, List<Parameter> parameters, Block block) implements FunctionDefinition {
+/**
+ * @param slotCount number of frame slots a call needs, 0 until the function is resolved
+ */
+public record UserFunctionDefinition(String name, List<Parameter> parameters, Block block, int slotCount)
+		implements FunctionDefinition {
+
+	public UserFunctionDefinition(String name, List<Parameter> parameters, Block block) {
+		this(name, parameters, block, 0);
+	}
 
 	@Override
 	public void accept(Visitor visitor) {
@@ -4,7 +4,18 @@ import org.example.commons.Position;
 import org.example.visitor.Visitor;
 import org.example.programstructure.statement.Statement;
 
-public record IdentifierExpression(String name, Position position) implements Expression, Statement {
+/**
+ * @param slot        frame slot of the local variable, NO_SLOT if the name is not resolved or not defined
+ * @param declaration true if the variable is created here, on the left side of an assignment
+ */
+public record IdentifierExpression(String name, Position position, int slot, boolean declaration)
+		implements Expression, Statement {
+
+	public static final int NO_SLOT = -1;
+
+	public IdentifierExpression(String name, Position position) {
+		this(name, position, NO_SLOT, false);
+	}
 
 	@Override
 	public void accept(Visitor visitor) {
@@ -3,7 +3,15 @@ package org.example.programstructure.expression;
 import org.example.commons.Position;
 import org.example.visitor.Visitor;
 
-public record LiteralInteger(Integer value, Position position) implements Expression {
+/**
+ * @param source expression which the constant folder computed into this literal, shown in errors instead of the value,
+ *               null for a literal written in the source
+ */
+public record LiteralInteger(Number value, Position position, Expression source) implements Expression {
+
+	public LiteralInteger(Number value, Position position) {
+		this(value, position, null);
+	}
 
 	@Override
 	public void accept(Visitor visitor) {
@@ -3,8 +3,16 @@ package org.example.programstructure.statement;
 import org.example.visitor.Visitor;
 import org.example.programstructure.containers.Block;
 import org.example.programstructure.expression.Expression;
+import org.example.programstructure.expression.IdentifierExpression;
 
-public record ForStatement(String iteratorName, Expression range, Block block) implements Statement {
+/**
+ * @param iteratorSlot frame slot of the iterator, see {@link IdentifierExpression#slot()}
+ */
+public record ForStatement(String iteratorName, Expression range, Block block, int iteratorSlot) implements Statement {
+
+	public ForStatement(String iteratorName, Expression range, Block block) {
+		this(iteratorName, range, block, IdentifierExpression.NO_SLOT);
+	}
 
 	@Override
 	public void accept(Visitor visitor) {
@@ -4,6 +4,8 @@ import lombok.Getter;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Properties;
 
 public class Configuration {
@@ -30,6 +32,15 @@ public class Configuration {
 	private static final Integer textMaxLength = Integer.valueOf(getPropertyValue("text.maxlength"));
 	@Getter
 	private static final Integer errorMessageExpressionMaxLength = Integer.valueOf(getPropertyValue("error.message.expression.maxlength"));
+	@Getter
+	private static final String cacheDirectory = getPropertyValue("cache.directory");
+
+	/**
+	 * @return files whose contents change how a source is parsed
+	 */
+	public static List<Path> getConfigurationFiles() {
+		return List.of(Path.of(APPLICATION_CONFIG_PATH), Path.of(languageConfigPath));
+	}
 
 	private static String getPropertyValue(String key) {
 		return applicationProperties.getProperty(key);
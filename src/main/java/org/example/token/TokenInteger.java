@@ -12,6 +12,6 @@ public class TokenInteger implements Token {
 
 	private final TokenType type = TokenType.INTEGER;
 	private final Position position;
-	private final Integer value;
+	private final Number value;
 
 }
@@ -0,0 +1,238 @@
+package org.example.visitor;
+
+import org.example.interpreter.builtins.*;
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Visitor which builds a copy of a function body, the copy of the last visited node is kept in lastNode.
+ * Subclasses override the visits of the nodes they change. A statement copied as null is left out of its block.
+ */
+public abstract class AstRewriter implements Visitor {
+
+    protected Visitable lastNode = null;
+
+    /**
+     * @return program with the same built-ins and every user function and method changed by the rewriter
+     */
+    protected static Program rewriteFunctions(Program program, UnaryOperator<FunctionDefinition> rewriter) {
+        final Map<String, FunctionDefinition> functions = new HashMap<>();
+        program.functionDefinitions().forEach((name, definition) -> functions.put(name, rewriter.apply(definition)));
+        final Map<String, ClassDefinition> classes = new HashMap<>();
+        program.classDefinitions().forEach((name, definition) -> classes.put(name, rewriteMethods(definition, rewriter)));
+        return new Program(functions, classes);
+    }
+
+    protected static ClassDefinition rewriteMethods(ClassDefinition classDefinition,
+                                                    UnaryOperator<FunctionDefinition> rewriter) {
+        if (classDefinition instanceof UserClassDefinition userClassDefinition) {
+            final Map<String, FunctionDefinition> methods = new HashMap<>();
+            userClassDefinition.methods().forEach((name, method) -> methods.put(name, rewriter.apply(method)));
+            return new UserClassDefinition(userClassDefinition.name(), methods, userClassDefinition.position());
+        }
+        return classDefinition;
+    }
+
+    protected Block rewrite(Block block) {
+        block.accept(this);
+        return (Block) lastNode;
+    }
+
+    protected Expression rewrite(Expression expression) {
+        expression.accept(this);
+        return (Expression) lastNode;
+    }
+
+    protected Statement rewrite(Statement statement) {
+        statement.accept(this);
+        return (Statement) lastNode;
+    }
+
+    @Override
+    public void visit(Block block) {
+        final List<Statement> statements = new ArrayList<>(block.statements().size());
+        for (Statement statement : block.statements()) {
+            final Statement rewritten = rewrite(statement);
+            if (rewritten != null) {
+                statements.add(rewritten);
+            }
+        }
+        lastNode = new Block(statements);
+    }
+
+    @Override
+    public void visit(OrExpression expression) {
+        final Expression left = rewrite(expression.left());
+        lastNode = new OrExpression(left, rewrite(expression.right()));
+    }
+
+    @Override
+    public void visit(AndExpression expression) {
+        final Expression left = rewrite(expression.left());
+        lastNode = new AndExpression(left, rewrite(expression.right()));
+    }
+
+    @Override
+    public void visit(RelationalExpression expression) {
+        final Expression left = rewrite(expression.left());
+        lastNode = new RelationalExpression(expression.relationalType(), left, rewrite(expression.right()));
+    }
+
+    @Override
+    public void visit(ArithmeticExpression expression) {
+        final Expression left = rewrite(expression.left());
+        lastNode = new ArithmeticExpression(expression.additiveType(), left, rewrite(expression.right()));
+    }
+
+    @Override
+    public void visit(MultiplicativeExpression expression) {
+        final Expression left = rewrite(expression.left());
+        lastNode = new MultiplicativeExpression(expression.multiplicativeType(), left, rewrite(expression.right()));
+    }
+
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        final List<Expression> arguments = new ArrayList<>(expression.arguments().size());
+        for (Expression argument : expression.arguments()) {
+            arguments.add(rewrite(argument));
+        }
+        lastNode = new FunctionCallExpression(expression.name(), arguments, expression.position());
+    }
+
+    @Override
+    public void visit(IdentifierExpression expression) {
+        lastNode = expression;
+    }
+
+    @Override
+    public void visit(NegatedExpression expression) {
+        lastNode = new NegatedExpression(rewrite(expression.expression()), expression.position());
+    }
+
+    @Override
+    public void visit(LiteralBool expression) {
+        lastNode = expression;
+    }
+
+    @Override
+    public void visit(LiteralFloat expression) {
+        lastNode = expression;
+    }
+
+    @Override
+    public void visit(LiteralInteger expression) {
+        lastNode = expression;
+    }
+
+    @Override
+    public void visit(LiteralText expression) {
+        lastNode = expression;
+    }
+
+    @Override
+    public void visit(SelfAccess expression) {
+        lastNode = expression;
+    }
+
+    @Override
+    public void visit(ModifyAndAssignStatement statement) {
+        final Expression left = rewrite(statement.left());
+        lastNode = new ModifyAndAssignStatement(statement.additiveType(), left, rewrite(statement.right()));
+    }
+
+    @Override
+    public void visit(AssignmentStatement statement) {
+        final Expression left = rewrite(statement.left());
+        lastNode = new AssignmentStatement(left, rewrite(statement.right()));
+    }
+
+    @Override
+    public void visit(ForStatement statement) {
+        final Expression range = rewrite(statement.range());
+        lastNode = new ForStatement(statement.iteratorName(), range, rewrite(statement.block()), statement.iteratorSlot());
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        final Expression condition = rewrite(statement.condition());
+        final Block blockIfTrue = rewrite(statement.blockIfTrue());
+        final Block elseBlock = statement.elseBlock() == null ? null : rewrite(statement.elseBlock());
+        lastNode = new IfStatement(condition, blockIfTrue, elseBlock, statement.position());
+    }
+
+    /**
+     * The right side names an attribute or a method, only arguments of a method are rewritten
+     */
+    @Override
+    public void visit(ObjectAccess statement) {
+        final Expression left = rewrite(statement.left());
+        final Expression right = statement.right() instanceof FunctionCallExpression ? rewrite(statement.right())
+                : statement.right();
+        lastNode = new ObjectAccess(left, right);
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        lastNode = new ReturnStatement(rewrite(statement.expression()));
+    }
+
+    @Override
+    public void visit(Program program) {
+    }
+
+    @Override
+    public void visit(UserFunctionDefinition functionDefinition) {
+    }
+
+    @Override
+    public void visit(UserClassDefinition userClassDefinition) {
+    }
+
+    @Override
+    public void visit(Parameter parameter) {
+    }
+
+    @Override
+    public void visit(PrintFunction printFunction) {
+    }
+
+    @Override
+    public void visit(AbortFunction abortFunction) {
+    }
+
+    @Override
+    public void visit(RangeFunction rangeFunction) {
+    }
+
+    @Override
+    public void visit(ListDefinition listDefinition) {
+    }
+
+    @Override
+    public void visit(ListConstructor listConstructor) {
+    }
+
+    @Override
+    public void visit(AppendMethod method) {
+    }
+
+    @Override
+    public void visit(GetMethod method) {
+    }
+
+    @Override
+    public void visit(RemoveMethod method) {
+    }
+
+    @Override
+    public void visit(LengthMethod method) {
+    }
+
+}
@@ -138,7 +138,9 @@ public class ErrorContextBuilder implements Visitor {
 
     @Override
     public void visit(LiteralBool expression) {
-        if (expression.value() == Boolean.TRUE) {
+        if (expression.source() != null) {
+            expression.source().accept(this);
+        } else if (expression.value() == Boolean.TRUE) {
             contextBuilder.append(LanguageProperties.get("TRUE"));
         } else
             contextBuilder.append(LanguageProperties.get("FALSE"));
@@ -146,11 +148,19 @@ public class ErrorContextBuilder implements Visitor {
 
     @Override
     public void visit(LiteralFloat expression) {
+        if (expression.source() != null) {
+            expression.source().accept(this);
+            return;
+        }
         contextBuilder.append(expression.value());
     }
 
     @Override
     public void visit(LiteralInteger expression) {
+        if (expression.source() != null) {
+            expression.source().accept(this);
+            return;
+        }
         contextBuilder.append(expression.value());
     }
 
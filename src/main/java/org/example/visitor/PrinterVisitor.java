@@ -2,6 +2,8 @@ package org.example.visitor;
 
 import org.apache.commons.lang3.StringUtils;
 import org.example.interpreter.builtins.*;
+import org.example.programstructure.arena.AstArena;
+import org.example.programstructure.arena.AstCursor;
 import org.example.programstructure.containers.*;
 import org.example.programstructure.expression.*;
 import org.example.programstructure.statement.*;
@@ -250,6 +252,47 @@ public class PrinterVisitor implements Visitor {
     }
 
 
+	/**
+	 * Prints the nodes of an arena with the same indentation as the records, one line per node
+	 */
+	public void print(AstArena arena) {
+		print(arena.cursor(), arena.root());
+	}
+
+	private void print(AstCursor cursor, int node) {
+		print(cursor.moveTo(node));
+		spaces += 2;
+		switch (cursor.kind()) {
+			case PROGRAM, CLASS, BLOCK, FUNCTION_CALL -> {
+				for (int i = 0; i < cursor.moveTo(node).listLength(); i++) {
+					print(cursor, cursor.moveTo(node).listElement(i));
+				}
+			}
+			case FUNCTION -> {
+				for (int i = 0; i < cursor.listLength(); i++) {
+					System.out.println(space() + cursor.parameter(i));
+				}
+				print(cursor, cursor.third());
+			}
+			case IF -> {
+				final int elseBlock = cursor.third();
+				final int blockIfTrue = cursor.second();
+				print(cursor, cursor.first());
+				print(cursor, blockIfTrue);
+				if (elseBlock != AstArena.NONE) {
+					print(cursor, elseBlock);
+				}
+			}
+			case OR, AND, RELATIONAL, ARITHMETIC, MULTIPLICATIVE, MODIFY_AND_ASSIGN, ASSIGNMENT, FOR, OBJECT_ACCESS -> {
+				final int second = cursor.second();
+				print(cursor, cursor.first());
+				print(cursor, second);
+			}
+			case NEGATED, RETURN -> print(cursor, cursor.first());
+		}
+		spaces -= 2;
+	}
+
     private String space() {
 		return "-".repeat(spaces);
 	}
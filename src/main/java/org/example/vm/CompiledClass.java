@@ -0,0 +1,29 @@
+package org.example.vm;
+
+import lombok.Getter;
+import org.example.programstructure.containers.ClassDefinition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class of the program with its methods, the constructor is one of them
+ */
+@Getter
+public class CompiledClass {
+
+    private final ClassDefinition definition;
+    private final Map<String, CompiledFunction> methods = new HashMap<>();
+    private final CompiledFunction constructor;
+
+    CompiledClass(ClassDefinition definition) {
+        this.definition = definition;
+        definition.methods().forEach((name, method) -> methods.put(name, new CompiledFunction(method)));
+        this.constructor = methods.get(definition.name());
+    }
+
+    public String getName() {
+        return definition.name();
+    }
+
+}
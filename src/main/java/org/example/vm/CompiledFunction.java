@@ -0,0 +1,41 @@
+package org.example.vm;
+
+import lombok.Getter;
+import org.example.programstructure.containers.FunctionDefinition;
+
+/**
+ * Function or method of the program, its body is compiled when it is first called
+ */
+public class CompiledFunction {
+
+    @Getter
+    private final String name;
+    // user or lazily parsed definition
+    @Getter
+    private final FunctionDefinition definition;
+    final int parameterCount;
+
+    // filled by the Compiler
+    int[] code = null;
+    Object[] constants;
+    // parameters and local variables, the first slots of the frame
+    int localCount;
+    // values of literals, copied into the frame after the local variables, integers are kept in integerValues
+    Object[] values;
+    int[] integerValues;
+    // local variables, values and temporary values
+    int frameSize;
+    // parameters are cells, given to the function as the interpreter gives its arguments
+    boolean cellParameters;
+
+    CompiledFunction(FunctionDefinition definition) {
+        this.name = definition.name();
+        this.definition = definition;
+        this.parameterCount = definition.parameters().size();
+    }
+
+    boolean isCompiled() {
+        return code != null;
+    }
+
+}
@@ -0,0 +1,894 @@
+package org.example.vm;
+
+import org.example.commons.Position;
+import org.example.error.enums.ErrorType;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.builtins.*;
+import org.example.interpreter.computers.OperationMapper;
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.expression.enums.AdditiveType;
+import org.example.programstructure.statement.*;
+import org.example.visitor.ErrorContextBuilder;
+import org.example.visitor.Visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates the body of a function into code of the virtual machine. The program must be resolved: local variables
+ * keep the slots given by the Resolver, values of literals and temporary values get the slots after them. An
+ * expression is compiled into the slot chosen by its parent, variables and literals are read from their own slots.
+ * <p>
+ * Errors which do not depend on values, such as a call of an undefined function, are compiled into instructions
+ * reporting them, as the interpreter reports them only when they are reached.
+ * <p>
+ * A variable is kept as a cell, see Opcode, if the interpreter could give its ValueReference away: a local variable
+ * passed to a call or whose method is called, and all parameters of a function in which an argument could be assigned
+ * or given away, or could be changed by a call or an assignment of an attribute while the function runs. Such
+ * variables are found while compiling, a function which has any is compiled again knowing them.
+ */
+class Compiler implements Visitor {
+
+    private static final int INITIAL_CODE_LENGTH = 64;
+
+    private final Map<String, FunctionDefinition> definitions;
+    private final Map<String, CompiledFunction> functions;
+    private final Map<String, CompiledClass> classes;
+    // slots of the variables compiled as cells, null if there are none
+    private final boolean[] cellSlots;
+
+    private int[] code = new int[INITIAL_CODE_LENGTH];
+    private int length = 0;
+    // positions of the operands which are slots, renumbered when the number of values is known
+    private int[] slotOperands = new int[INITIAL_CODE_LENGTH];
+    private int slotOperandCount = 0;
+    private final List<Object> constants = new ArrayList<>();
+    private final Map<Object, Integer> constantIndexes = new HashMap<>();
+    private final List<Object> values = new ArrayList<>();
+    private final Map<Object, Integer> valueIndexes = new HashMap<>();
+    private int localCount;
+    private int parameterCount;
+    // the function is a constructor
+    private boolean constructor;
+    // slots of the variables found to be cells
+    private boolean[] foundCells;
+    // first free slot for a temporary value
+    private int top;
+    private int maxTop;
+    // slot of the value of the expression being compiled
+    private int target;
+    // the expression is compiled into a cell where the interpreter would have a ValueReference
+    private boolean cellTarget;
+
+    /**
+     * @param definitions functions of the program, built-ins included
+     * @param functions   compiled user functions
+     * @param classes     classes of the program which have a constructor
+     */
+    Compiler(Map<String, FunctionDefinition> definitions, Map<String, CompiledFunction> functions,
+             Map<String, CompiledClass> classes) {
+        this(definitions, functions, classes, null);
+    }
+
+    private Compiler(Map<String, FunctionDefinition> definitions, Map<String, CompiledFunction> functions,
+                     Map<String, CompiledClass> classes, boolean[] cellSlots) {
+        this.definitions = definitions;
+        this.functions = functions;
+        this.classes = classes;
+        this.cellSlots = cellSlots;
+    }
+
+    void compile(CompiledFunction function) {
+        final UserFunctionDefinition definition = Interpreter.toUserFunction(function.getDefinition());
+        top = maxTop = localCount = Math.max(definition.slotCount(), function.parameterCount);
+        parameterCount = function.parameterCount;
+        final CompiledClass compiledClass = classes.get(function.getName());
+        constructor = compiledClass != null && compiledClass.getConstructor() == function;
+        foundCells = new boolean[localCount];
+        definition.block().accept(this);
+        emit(Opcode.RETURN_NULL);
+        if (!Arrays.equals(foundCells, cellSlots == null ? new boolean[localCount] : cellSlots)) {
+            new Compiler(definitions, functions, classes, foundCells).compile(function);
+            return;
+        }
+        function.cellParameters = parameterCount > 0 && isCell(0);
+        // values of literals follow the local variables, temporary values follow them
+        final int valueCount = values.size();
+        for (int i = 0; i < slotOperandCount; ++i) {
+            final int slot = code[slotOperands[i]];
+            if (slot < 0) {
+                code[slotOperands[i]] = localCount - 1 - slot;
+            } else if (slot >= localCount) {
+                code[slotOperands[i]] = slot + valueCount;
+            }
+        }
+        function.values = new Object[valueCount];
+        function.integerValues = new int[valueCount];
+        for (int i = 0; i < valueCount; ++i) {
+            if (values.get(i) instanceof Integer integer) {
+                function.values[i] = VirtualMachine.INTEGER;
+                function.integerValues[i] = integer;
+            } else {
+                function.values[i] = values.get(i);
+            }
+        }
+        function.constants = constants.toArray();
+        function.localCount = localCount;
+        // the result of a call is left in the first slot of its frame
+        function.frameSize = Math.max(1, maxTop + valueCount);
+        function.code = Arrays.copyOf(code, length);
+    }
+
+    @Override
+    public void visit(Block block) {
+        for (Statement statement : block.statements()) {
+            final int saved = top;
+            if (statement instanceof Expression expression) {
+                // function call, method call or access to a variable, its value is not used
+                compileInto(expression, allocate());
+            } else {
+                statement.accept(this);
+            }
+            top = saved;
+        }
+    }
+
+    @Override
+    public void visit(OrExpression expression) {
+        logical(expression, expression.left(), expression.right(), Opcode.JUMP_IF_TRUE);
+    }
+
+    @Override
+    public void visit(AndExpression expression) {
+        logical(expression, expression.left(), expression.right(), Opcode.JUMP_IF_FALSE);
+    }
+
+    /**
+     * The right operand is evaluated only if the left one does not decide the value
+     */
+    private void logical(Expression expression, Expression left, Expression right, int decidedJump) {
+        final int result = target;
+        final int saved = top;
+        // the target may be a variable read by the right operand
+        final int value = allocate();
+        compileInto(left, value);
+        emit(Opcode.CHECK_BOOLEAN);
+        slot(value);
+        emit(constant(expression));
+        emit(decidedJump);
+        slot(value);
+        final int jump = placeholder();
+        compileInto(right, value);
+        emit(Opcode.CHECK_BOOLEAN);
+        slot(value);
+        emit(constant(expression));
+        patch(jump);
+        move(result, value);
+        top = saved;
+    }
+
+    @Override
+    public void visit(RelationalExpression expression) {
+        final int result = target;
+        final int saved = top;
+        final int left = operand(expression.left());
+        final int right = operand(expression.right());
+        emit(Opcode.COMPARE);
+        slot(result);
+        slot(left);
+        slot(right);
+        emit(OperationMapper.map(expression.relationalType()).ordinal(), constant(expression));
+        top = saved;
+    }
+
+    @Override
+    public void visit(ArithmeticExpression expression) {
+        binary(expression.additiveType() == AdditiveType.ADD ? Opcode.ADD : Opcode.SUBTRACT, expression,
+                expression.left(), expression.right());
+    }
+
+    @Override
+    public void visit(MultiplicativeExpression expression) {
+        final int opcode = switch (OperationMapper.map(expression.multiplicativeType())) {
+            case DIVIDE -> Opcode.DIVIDE;
+            default -> Opcode.MULTIPLY;
+        };
+        binary(opcode, expression, expression.left(), expression.right());
+    }
+
+    private void binary(int opcode, Expression expression, Expression left, Expression right) {
+        final int result = target;
+        final int saved = top;
+        final int leftSlot = operand(left);
+        final int rightSlot = operand(right);
+        emit(opcode);
+        slot(result);
+        slot(leftSlot);
+        slot(rightSlot);
+        emit(constant(expression));
+        top = saved;
+    }
+
+    /**
+     * Call of a function or a constructor, calls of methods are compiled with the object access
+     */
+    @Override
+    public void visit(FunctionCallExpression expression) {
+        final int result = target;
+        final int resultFlag = cellTarget ? Opcode.CELL_RESULT : 0;
+        final int saved = top;
+        final String name = expression.name();
+        final CompiledClass compiledClass = classes.get(name);
+        final FunctionDefinition definition = definitions.get(name);
+        if (compiledClass != null) {
+            final int arguments = top;
+            final int flags = userArguments(expression) | resultFlag;
+            if (checkArgumentCount(expression, compiledClass.getConstructor().parameterCount)) {
+                emit(Opcode.NEW);
+                slot(result);
+                emit(constant(compiledClass));
+                slot(arguments);
+                emit(flags);
+            }
+        } else if (name.equals(ListDefinition.LIST)) {
+            arguments(expression);
+            if (checkArgumentCount(expression, 0)) {
+                emit(Opcode.NEW_LIST);
+                slot(result);
+            }
+        } else if (definition == null) {
+            emitError(ErrorType.FUNCTION_NOT_DEFINED, expression.position(), name);
+        } else if (definition instanceof PrintFunction) {
+            final int arguments = arguments(expression);
+            emit(Opcode.PRINT);
+            slot(result);
+            slot(arguments);
+            emit(expression.arguments().size());
+        } else if (definition instanceof AbortFunction) {
+            arguments(expression);
+            if (checkArgumentCount(expression, 0)) {
+                emit(Opcode.ABORT, constant(expression));
+            }
+        } else if (definition instanceof RangeFunction) {
+            final int arguments = arguments(expression);
+            if (checkArgumentCount(expression, 2)) {
+                emit(Opcode.RANGE);
+                slot(result);
+                slot(arguments);
+                slot(arguments + 1);
+                emit(constant(expression));
+            }
+        } else {
+            final CompiledFunction function = functions.get(name);
+            final int arguments = top;
+            final int flags = userArguments(expression) | resultFlag;
+            if (checkArgumentCount(expression, function.parameterCount)) {
+                emit(Opcode.CALL);
+                slot(result);
+                emit(constant(function));
+                slot(arguments);
+                emit(flags);
+            }
+        }
+        top = saved;
+    }
+
+    /**
+     * Evaluates the arguments into consecutive slots, which become the first slots of the frame of the callee
+     *
+     * @return slot of the first argument
+     */
+    private int arguments(FunctionCallExpression expression) {
+        final int first = top;
+        for (Expression argument : expression.arguments()) {
+            compileInto(argument, allocate());
+        }
+        return first;
+    }
+
+    /**
+     * Evaluates the arguments of a call of a user function, method or constructor, as arguments(). An argument
+     * which the interpreter could give as a ValueReference is left as a cell, the callee may reach what it holds,
+     * so the parameters of this function become cells.
+     *
+     * @return CELL_ARGUMENTS if an argument may be a cell, otherwise 0
+     */
+    private int userArguments(FunctionCallExpression expression) {
+        int flags = 0;
+        for (Expression argument : expression.arguments()) {
+            final int slot = allocate();
+            if (isPlainValue(argument)) {
+                compileInto(argument, slot);
+            } else {
+                escape(argument);
+                compileCell(argument, slot);
+                flags = Opcode.CELL_ARGUMENTS;
+            }
+        }
+        if (flags != 0) {
+            exposeParameters();
+        }
+        return flags;
+    }
+
+    /**
+     * @return true for an expression whose value is computed, never a ValueReference in the interpreter
+     */
+    private static boolean isPlainValue(Expression expression) {
+        return expression instanceof LiteralBool || expression instanceof LiteralFloat
+                || expression instanceof LiteralInteger || expression instanceof LiteralText
+                || expression instanceof ArithmeticExpression || expression instanceof MultiplicativeExpression
+                || expression instanceof RelationalExpression || expression instanceof NegatedExpression
+                || expression instanceof AndExpression || expression instanceof OrExpression;
+    }
+
+    /**
+     * If the number of arguments is wrong, the error is reported after they are evaluated
+     *
+     * @return false if the number of arguments is wrong
+     */
+    private boolean checkArgumentCount(FunctionCallExpression expression, int parameterCount) {
+        if (expression.arguments().size() != parameterCount) {
+            emitError(ErrorType.INCORRECT_NUMBER_OF_ARGUMENTS, expression.position(), context(expression));
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void visit(IdentifierExpression expression) {
+        final int variable = expression.slot();
+        if (expression.declaration()) {
+            // a new variable which has not been assigned yet
+            if (isCell(variable)) {
+                emit(Opcode.NEW_CELL);
+                slot(variable);
+            }
+            if (cellTarget && isCell(variable)) {
+                move(target, variable);
+            } else {
+                emit(Opcode.NULL);
+                slot(target);
+            }
+        } else if (isCell(variable)) {
+            if (cellTarget) {
+                move(target, variable);
+            } else {
+                emit(Opcode.LOAD_CELL);
+                slot(target);
+                slot(variable);
+            }
+        } else if (variable != IdentifierExpression.NO_SLOT) {
+            move(target, variable);
+            if (cellTarget) {
+                emit(Opcode.WRAP);
+                slot(target);
+            }
+        } else {
+            emitError(ErrorType.VARIABLE_NOT_DEFINED_IN_SCOPE, expression.position(), expression.name());
+        }
+    }
+
+    @Override
+    public void visit(NegatedExpression expression) {
+        final int result = target;
+        final int saved = top;
+        final int operand = operand(expression.expression());
+        emit(Opcode.NEGATE);
+        slot(result);
+        slot(operand);
+        emit(constant(expression));
+        top = saved;
+    }
+
+    @Override
+    public void visit(LiteralBool expression) {
+        move(target, valueSlot(expression.value()));
+    }
+
+    @Override
+    public void visit(LiteralFloat expression) {
+        move(target, valueSlot(expression.value()));
+    }
+
+    @Override
+    public void visit(LiteralInteger expression) {
+        move(target, valueSlot(expression.value()));
+    }
+
+    @Override
+    public void visit(LiteralText expression) {
+        move(target, valueSlot(expression.value()));
+    }
+
+    @Override
+    public void visit(SelfAccess expression) {
+        emit(cellTarget ? Opcode.LOAD_SELF_CELL : Opcode.LOAD_SELF);
+        slot(target);
+        emit(constant(expression));
+    }
+
+    @Override
+    public void visit(ModifyAndAssignStatement statement) {
+        final int operation = OperationMapper.map(statement.additiveType()).ordinal();
+        if (statement.left() instanceof IdentifierExpression identifier
+                && identifier.slot() != IdentifierExpression.NO_SLOT) {
+            assigned(identifier.slot());
+            if (isCell(identifier.slot())) {
+                if (identifier.declaration()) {
+                    emit(Opcode.NEW_CELL);
+                    slot(identifier.slot());
+                }
+                final int value = allocate();
+                emit(Opcode.LOAD_CELL);
+                slot(value);
+                slot(identifier.slot());
+                final int right = operand(statement.right());
+                emit(Opcode.MODIFY);
+                slot(value);
+                slot(right);
+                emit(operation);
+                emit(Opcode.STORE_CELL);
+                slot(identifier.slot());
+                slot(value);
+                return;
+            }
+            if (identifier.declaration()) {
+                emit(Opcode.NULL);
+                slot(identifier.slot());
+            }
+            final int right = operand(statement.right());
+            emit(Opcode.MODIFY);
+            slot(identifier.slot());
+            slot(right);
+            emit(operation);
+        } else if (statement.left() instanceof ObjectAccess access
+                && access.right() instanceof IdentifierExpression attribute) {
+            final int object = assignableAttribute(access, attribute);
+            final int name = constant(attribute.name());
+            final int value = allocate();
+            emit(Opcode.GET_ATTRIBUTE_OR_NULL);
+            slot(value);
+            slot(object);
+            emit(name);
+            final int right = operand(statement.right());
+            emit(Opcode.MODIFY);
+            slot(value);
+            slot(right);
+            emit(operation);
+            emit(Opcode.SET_ATTRIBUTE);
+            slot(object);
+            emit(name);
+            slot(value);
+        } else {
+            incorrectAssignment(statement.left(), statement);
+        }
+    }
+
+    @Override
+    public void visit(AssignmentStatement statement) {
+        if (statement.left() instanceof IdentifierExpression identifier
+                && identifier.slot() != IdentifierExpression.NO_SLOT) {
+            assigned(identifier.slot());
+            if (isCell(identifier.slot())) {
+                // the interpreter declares the variable before it evaluates the value
+                if (identifier.declaration()) {
+                    emit(Opcode.NEW_CELL);
+                    slot(identifier.slot());
+                }
+                final int value = operand(statement.right());
+                emit(Opcode.STORE_CELL);
+                slot(identifier.slot());
+                slot(value);
+            } else {
+                // every instruction reads its operands before writing its result, so the value goes to the variable
+                compileInto(statement.right(), identifier.slot());
+            }
+        } else if (statement.left() instanceof ObjectAccess access
+                && access.right() instanceof IdentifierExpression attribute) {
+            final int object = assignableAttribute(access, attribute);
+            final int value = operand(statement.right());
+            emit(Opcode.SET_ATTRIBUTE);
+            slot(object);
+            emit(constant(attribute.name()));
+            slot(value);
+        } else {
+            incorrectAssignment(statement.left(), statement);
+        }
+    }
+
+    /**
+     * Evaluates the object and checks that the attribute may be assigned
+     *
+     * @return slot of the object
+     */
+    private int assignableAttribute(ObjectAccess access, IdentifierExpression attribute) {
+        if (!(constructor && access.left() instanceof SelfAccess)) {
+            // the attribute may be an argument of this function, attributes of the object being constructed
+            // are created after the arguments are given
+            exposeParameters();
+        }
+        final int object = operand(access.left());
+        emit(Opcode.CHECK_OBJECT);
+        slot(object);
+        emit(constant(access));
+        emit(Opcode.CHECK_ATTRIBUTE);
+        slot(object);
+        emit(constant(attribute.name()), constant(attribute));
+        return object;
+    }
+
+    private void incorrectAssignment(Expression left, Statement statement) {
+        compileInto(left, allocate());
+        emitError(ErrorType.ASSIGNMENT_INCORRECT, left.position(), ErrorContextBuilder.buildContext(statement));
+    }
+
+    /**
+     * The loop is tested after its body, so an iteration takes one jump
+     */
+    @Override
+    public void visit(ForStatement statement) {
+        final int loop = allocate();
+        allocate();
+        final int next;
+        if (statement.range() instanceof FunctionCallExpression call && call.name().equals(RangeFunction.RANGE)
+                && definitions.get(RangeFunction.RANGE) instanceof RangeFunction) {
+            // counted loop, as in the interpreter
+            final int arguments = arguments(call);
+            if (!checkArgumentCount(call, 2)) {
+                return;
+            }
+            emit(Opcode.RANGE_LOOP);
+            slot(loop);
+            slot(arguments);
+            slot(arguments + 1);
+            emit(constant(call));
+            next = Opcode.NEXT_NUMBER;
+        } else {
+            final int range = operand(statement.range());
+            emit(Opcode.LIST_LOOP);
+            slot(loop);
+            slot(range);
+            emit(constant(statement));
+            next = Opcode.NEXT_ELEMENT;
+        }
+        top = loop + 2;
+        final int iterator = statement.iteratorSlot();
+        int element = iterator;
+        if (isCell(iterator)) {
+            emit(Opcode.NEW_CELL);
+            slot(iterator);
+            element = allocate();
+        }
+        emit(Opcode.JUMP);
+        final int test = placeholder();
+        final int body = length;
+        if (element != iterator) {
+            emit(Opcode.STORE_CELL);
+            slot(iterator);
+            slot(element);
+        }
+        statement.block().accept(this);
+        patch(test);
+        emit(next);
+        slot(loop);
+        slot(element);
+        emit(body - (length + 1));
+    }
+
+    @Override
+    public void visit(IfStatement statement) {
+        if (statement.condition() instanceof RelationalExpression condition) {
+            // a comparison gives a boolean or fails, so it is fused with the branch
+            final int left = operand(condition.left());
+            final int right = operand(condition.right());
+            emit(Opcode.BRANCH_IF_NOT_COMPARE);
+            slot(left);
+            slot(right);
+            emit(OperationMapper.map(condition.relationalType()).ordinal(), constant(condition));
+        } else {
+            final int condition = operand(statement.condition());
+            emit(Opcode.BRANCH_IF_FALSE);
+            slot(condition);
+            emit(constant(statement));
+        }
+        final int elseJump = placeholder();
+        statement.blockIfTrue().accept(this);
+        if (statement.elseBlock() == null) {
+            patch(elseJump);
+            return;
+        }
+        emit(Opcode.JUMP);
+        final int endJump = placeholder();
+        patch(elseJump);
+        statement.elseBlock().accept(this);
+        patch(endJump);
+    }
+
+    @Override
+    public void visit(ObjectAccess statement) {
+        final int result = target;
+        final boolean cell = cellTarget;
+        final int saved = top;
+        if (statement.right() instanceof FunctionCallExpression call) {
+            // the method gets the ValueReference of the object, it may reach the arguments of this function
+            escape(statement.left());
+            exposeParameters();
+            final int receiver = cellOperand(statement.left());
+            final int object = allocate();
+            emit(Opcode.DEREFERENCE);
+            slot(object);
+            slot(receiver);
+            emit(Opcode.CHECK_OBJECT);
+            slot(object);
+            emit(constant(statement));
+            final int site = constant(new MethodCallSite(call));
+            final int method = allocate();
+            emit(Opcode.LOOKUP_METHOD);
+            slot(method);
+            slot(object);
+            emit(site);
+            final int arguments = top;
+            final int flags = userArguments(call) | (cell ? Opcode.CELL_RESULT : 0);
+            emit(Opcode.INVOKE_METHOD);
+            slot(result);
+            slot(method);
+            slot(receiver);
+            emit(site);
+            slot(arguments);
+            emit(flags);
+        } else {
+            final IdentifierExpression attribute = (IdentifierExpression) statement.right();
+            final int object = operand(statement.left());
+            emit(Opcode.CHECK_OBJECT);
+            slot(object);
+            emit(constant(statement));
+            emit(cell ? Opcode.GET_ATTRIBUTE_CELL : Opcode.GET_ATTRIBUTE);
+            slot(result);
+            slot(object);
+            emit(constant(attribute.name()), constant(attribute));
+        }
+        top = saved;
+    }
+
+    @Override
+    public void visit(ReturnStatement statement) {
+        if (statement.expression() instanceof IdentifierExpression identifier && isParameter(identifier.slot())) {
+            // the ValueReference of the argument is given to the caller
+            exposeParameters();
+        }
+        final int value = cellOperand(statement.expression());
+        emit(Opcode.RETURN);
+        slot(value);
+    }
+
+    /**
+     * @return slot of the value of the expression, variables and literals are read without a copy
+     */
+    private int operand(Expression expression) {
+        if (expression instanceof IdentifierExpression identifier && !identifier.declaration()
+                && identifier.slot() != IdentifierExpression.NO_SLOT && !isCell(identifier.slot())) {
+            return identifier.slot();
+        }
+        if (expression instanceof LiteralBool literal) {
+            return valueSlot(literal.value());
+        }
+        if (expression instanceof LiteralFloat literal) {
+            return valueSlot(literal.value());
+        }
+        if (expression instanceof LiteralInteger literal) {
+            return valueSlot(literal.value());
+        }
+        if (expression instanceof LiteralText literal) {
+            return valueSlot(literal.value());
+        }
+        final int slot = allocate();
+        compileInto(expression, slot);
+        return slot;
+    }
+
+    /**
+     * @return slot of the value or the cell of the expression, see compileCell()
+     */
+    private int cellOperand(Expression expression) {
+        if (expression instanceof IdentifierExpression identifier && !identifier.declaration()
+                && isCell(identifier.slot())) {
+            return identifier.slot();
+        }
+        if (isPlainValue(expression)) {
+            return operand(expression);
+        }
+        final int slot = allocate();
+        compileCell(expression, slot);
+        return slot;
+    }
+
+    private void compileInto(Expression expression, int slot) {
+        compile(expression, slot, false);
+    }
+
+    /**
+     * Compiles the expression into a cell where the interpreter would have a ValueReference, for an argument,
+     * a returned value or an object whose method is called
+     */
+    private void compileCell(Expression expression, int slot) {
+        compile(expression, slot, true);
+    }
+
+    private void compile(Expression expression, int slot, boolean cell) {
+        final int savedTarget = target;
+        final boolean savedCell = cellTarget;
+        target = slot;
+        cellTarget = cell;
+        expression.accept(this);
+        target = savedTarget;
+        cellTarget = savedCell;
+    }
+
+    private boolean isCell(int slot) {
+        return cellSlots != null && slot >= 0 && slot < cellSlots.length && cellSlots[slot];
+    }
+
+    private boolean isParameter(int slot) {
+        return slot >= 0 && slot < parameterCount;
+    }
+
+    /**
+     * Notes that the ValueReference of a variable given as an argument or as an object of a method may be kept
+     */
+    private void escape(Expression expression) {
+        if (expression instanceof IdentifierExpression identifier && identifier.slot() >= 0) {
+            if (isParameter(identifier.slot())) {
+                exposeParameters();
+            } else {
+                foundCells[identifier.slot()] = true;
+            }
+        }
+    }
+
+    private void assigned(int slot) {
+        if (isParameter(slot)) {
+            exposeParameters();
+        }
+    }
+
+    /**
+     * Notes that the parameters must be cells, an argument may be the ValueReference of another one
+     */
+    private void exposeParameters() {
+        Arrays.fill(foundCells, 0, parameterCount, true);
+    }
+
+    private int allocate() {
+        maxTop = Math.max(maxTop, top + 1);
+        return top++;
+    }
+
+    private void move(int slot, int source) {
+        emit(Opcode.MOVE);
+        slot(slot);
+        slot(source);
+    }
+
+    private static String context(Expression expression) {
+        return ErrorContextBuilder.buildContext(expression);
+    }
+
+    private void emitError(ErrorType type, Position position, String expression) {
+        emit(Opcode.ERROR, constant(new ErrorSite(type, position, expression)));
+    }
+
+    private void emit(int... words) {
+        if (length + words.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, length + words.length));
+        }
+        for (int word : words) {
+            code[length++] = word;
+        }
+    }
+
+    /**
+     * Emits an operand which is a slot, a value of a literal is numbered below zero until the code is complete
+     */
+    private void slot(int slot) {
+        if (slotOperandCount == slotOperands.length) {
+            slotOperands = Arrays.copyOf(slotOperands, slotOperandCount * 2);
+        }
+        slotOperands[slotOperandCount++] = length;
+        emit(slot);
+    }
+
+    /**
+     * Emits the offset of a jump
+     *
+     * @return position of the offset, to be patched
+     */
+    private int placeholder() {
+        emit(0);
+        return length - 1;
+    }
+
+    /**
+     * Makes the jump lead to the next instruction emitted
+     */
+    private void patch(int offsetPosition) {
+        code[offsetPosition] = length - (offsetPosition + 1);
+    }
+
+    private int constant(Object value) {
+        if (value instanceof MethodCallSite) {
+            // every call keeps its own cache
+            constants.add(value);
+            return constants.size() - 1;
+        }
+        return constantIndexes.computeIfAbsent(value, key -> {
+            constants.add(key);
+            return constants.size() - 1;
+        });
+    }
+
+    private int valueSlot(Object value) {
+        final int index = valueIndexes.computeIfAbsent(value, key -> {
+            values.add(key);
+            return values.size() - 1;
+        });
+        return -1 - index;
+    }
+
+    @Override
+    public void visit(Program program) {
+    }
+
+    @Override
+    public void visit(UserFunctionDefinition functionDefinition) {
+    }
+
+    @Override
+    public void visit(UserClassDefinition userClassDefinition) {
+    }
+
+    @Override
+    public void visit(Parameter parameter) {
+    }
+
+    @Override
+    public void visit(PrintFunction printFunction) {
+    }
+
+    @Override
+    public void visit(AbortFunction abortFunction) {
+    }
+
+    @Override
+    public void visit(RangeFunction rangeFunction) {
+    }
+
+    @Override
+    public void visit(ListDefinition listDefinition) {
+    }
+
+    @Override
+    public void visit(ListConstructor listConstructor) {
+    }
+
+    @Override
+    public void visit(AppendMethod method) {
+    }
+
+    @Override
+    public void visit(GetMethod method) {
+    }
+
+    @Override
+    public void visit(RemoveMethod method) {
+    }
+
+    @Override
+    public void visit(LengthMethod method) {
+    }
+
+}
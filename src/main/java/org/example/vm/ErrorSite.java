@@ -0,0 +1,10 @@
+package org.example.vm;
+
+import org.example.commons.Position;
+import org.example.error.enums.ErrorType;
+
+/**
+ * Error found by the compiler, reported only if the program reaches it, as the interpreter does
+ */
+record ErrorSite(ErrorType type, Position position, String expression) {
+}
@@ -0,0 +1,52 @@
+package org.example.vm;
+
+import org.example.interpreter.builtins.AppendMethod;
+import org.example.interpreter.builtins.GetMethod;
+import org.example.interpreter.builtins.LengthMethod;
+import org.example.interpreter.builtins.RemoveMethod;
+import org.example.programstructure.expression.FunctionCallExpression;
+
+/**
+ * Call of a method in the code, keeps the method found for the class of the last object it was called on
+ */
+class MethodCallSite {
+
+    static final int NOT_LIST_METHOD = 0;
+    static final int APPEND = 1;
+    static final int GET = 2;
+    static final int REMOVE = 3;
+    static final int LENGTH = 4;
+
+    final FunctionCallExpression call;
+    final String name;
+    final int argumentCount;
+    // method of a list with the same name
+    final int listMethod;
+
+    CompiledClass cachedClass = null;
+    CompiledFunction cachedMethod = null;
+
+    MethodCallSite(FunctionCallExpression call) {
+        this.call = call;
+        this.name = call.name();
+        this.argumentCount = call.arguments().size();
+        this.listMethod = listMethod(name);
+    }
+
+    private static int listMethod(String name) {
+        if (name.equals(AppendMethod.APPEND)) {
+            return APPEND;
+        }
+        if (name.equals(GetMethod.GET)) {
+            return GET;
+        }
+        if (name.equals(RemoveMethod.REMOVE)) {
+            return REMOVE;
+        }
+        if (name.equals(LengthMethod.LENGTH)) {
+            return LENGTH;
+        }
+        return NOT_LIST_METHOD;
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.example.vm;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Instructions of the virtual machine. An instruction is an opcode followed by its operands, each one int of the code.
+ * Operands named "slot" index the frame of the call, where local variables, values of literals and temporary values
+ * are kept, so an instruction reads its operands and writes its result without an operand stack. Operands named
+ * "constant" index the constant pool of the function, "node" is the constant holding the part of the program
+ * reported if the instruction fails, "offset" is a jump relative to the next instruction.
+ * <p>
+ * A variable whose ValueReference the interpreter could hand to another part of the program is kept in its slot
+ * as a ValueReference, a cell, and read and assigned through it. Where the interpreter would have a ValueReference
+ * rather than a value, as for an argument or the result of a call, a slot holds either a cell or a value which is not
+ * a ValueReference.
+ */
+@UtilityClass
+public class Opcode {
+
+    // slot, source slot: copies the value
+    public static final int MOVE = 0;
+    // slot: sets null, the value of a variable declared by a modifying assignment
+    public static final int NULL = 1;
+    // slot, cell slot: copies the value of the cell
+    public static final int LOAD_CELL = 2;
+    // cell slot, source slot: assigns the value to the cell
+    public static final int STORE_CELL = 3;
+    // cell slot: a new cell holding null, where the interpreter declares a variable
+    public static final int NEW_CELL = 4;
+    // slot, source slot: copies the value, the value of the cell if the source holds a cell
+    public static final int DEREFERENCE = 5;
+    // slot: a value which is a ValueReference, an element of a list taken by a loop, is put into a new cell
+    public static final int WRAP = 6;
+
+    // slot, left slot, right slot, node: computes as MathematicalComputer
+    public static final int ADD = 10;
+    public static final int SUBTRACT = 11;
+    public static final int MULTIPLY = 12;
+    public static final int DIVIDE = 13;
+    // slot, left slot, right slot, operation, node: compares as RelationalComputer, operation is an ordinal
+    // of RelationalOperation
+    public static final int COMPARE = 14;
+    // slot, source slot, node
+    public static final int NEGATE = 15;
+    // slot, right slot, operation: as MathematicalComputer, without reporting an error, for += and -=
+    public static final int MODIFY = 16;
+    // slot, node: reports an error if the value is not a boolean
+    public static final int CHECK_BOOLEAN = 17;
+
+    // offset
+    public static final int JUMP = 20;
+    // slot, offset: jumps if the boolean is false
+    public static final int JUMP_IF_FALSE = 21;
+    // slot, offset: jumps if the boolean is true
+    public static final int JUMP_IF_TRUE = 22;
+    // slot, node, offset: jumps if the condition is false, reports an error if it is not a boolean
+    public static final int BRANCH_IF_FALSE = 23;
+    // left slot, right slot, operation, node, offset: compares as COMPARE, jumps if the result is false
+    public static final int BRANCH_IF_NOT_COMPARE = 24;
+
+    // slot, node: the object of the current method or constructor
+    public static final int LOAD_SELF = 30;
+    // slot, node: the cell of the object of the current method or constructor
+    public static final int LOAD_SELF_CELL = 37;
+    // slot, node: reports an error if the value is not an object
+    public static final int CHECK_OBJECT = 31;
+    // slot, object slot, constant of the name, node
+    public static final int GET_ATTRIBUTE = 32;
+    // slot, object slot, constant of the name: the attribute or null if the object has none
+    public static final int GET_ATTRIBUTE_OR_NULL = 33;
+    // object slot, constant of the name, node: reports an error if the attribute can not be assigned
+    public static final int CHECK_ATTRIBUTE = 34;
+    // object slot, constant of the name, source slot
+    public static final int SET_ATTRIBUTE = 35;
+    // slot, object slot, constant of the name, node: as GET_ATTRIBUTE, but the attribute itself, a cell
+    public static final int GET_ATTRIBUTE_CELL = 36;
+
+    // slot, constant of the function, slot of the first argument, where the frame of the callee starts, flags
+    public static final int CALL = 40;
+    // slot, constant of the class, slot of the first argument, flags: the new object
+    public static final int NEW = 41;
+    // slot, object slot, constant of the call site: the method called on the object
+    public static final int LOOKUP_METHOD = 42;
+    // slot, method slot, slot of the object or its cell, constant of the call site, slot of the first argument, flags
+    public static final int INVOKE_METHOD = 43;
+    // source slot: the value or the cell
+    public static final int RETURN = 44;
+    public static final int RETURN_NULL = 45;
+
+    // slot, slot of the first argument, argument count: prints the arguments, the result is null
+    public static final int PRINT = 50;
+    // node
+    public static final int ABORT = 51;
+    // slot, start slot, stop slot, node
+    public static final int RANGE = 52;
+    // slot
+    public static final int NEW_LIST = 53;
+
+    // slot, start slot, stop slot, node: keeps the next number of a counted loop in the slot, its stop in the next one
+    public static final int RANGE_LOOP = 60;
+    // slot, iterator slot, offset: puts the next number into the iterator and jumps back to the body of the loop
+    public static final int NEXT_NUMBER = 61;
+    // slot, list slot, node: keeps the list of a loop in the slot, the position in the list in the next one
+    public static final int LIST_LOOP = 62;
+    // slot, iterator slot, offset: puts the next element into the iterator and jumps back to the body of the loop
+    public static final int NEXT_ELEMENT = 63;
+
+    // constant of an ErrorSite: reports the error
+    public static final int ERROR = 70;
+
+    // flags of CALL, NEW and INVOKE_METHOD: an argument may be a cell
+    public static final int CELL_ARGUMENTS = 1;
+    // flags of CALL, NEW and INVOKE_METHOD: the result is left as a cell if the callee gives one
+    public static final int CELL_RESULT = 2;
+
+}
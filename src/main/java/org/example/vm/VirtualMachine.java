@@ -0,0 +1,722 @@
+package org.example.vm;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
+import org.example.commons.NumericLiterals;
+import org.example.commons.Position;
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorDetails;
+import org.example.error.details.ErrorInterpreterDetails;
+import org.example.error.enums.ErrorType;
+import org.example.error.exception.SemanticException;
+import org.example.interpreter.ConstantFolder;
+import org.example.interpreter.Initializer;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.Resolver;
+import org.example.interpreter.accessible.ObjectInstance;
+import org.example.interpreter.accessible.ValueReference;
+import org.example.interpreter.builtins.IntRange;
+import org.example.interpreter.builtins.ListInstance;
+import org.example.interpreter.computers.MathematicalComputer;
+import org.example.interpreter.computers.NegationComputer;
+import org.example.interpreter.computers.RelationalComputer;
+import org.example.interpreter.computers.enums.MathematicalOperation;
+import org.example.interpreter.computers.enums.RelationalOperation;
+import org.example.programstructure.arena.AstArena;
+import org.example.programstructure.containers.*;
+import org.example.programstructure.expression.Expression;
+import org.example.programstructure.expression.FunctionCallExpression;
+import org.example.programstructure.expression.IdentifierExpression;
+import org.example.programstructure.statement.ForStatement;
+import org.example.programstructure.statement.IfStatement;
+import org.example.programstructure.statement.ObjectAccess;
+import org.example.programstructure.statement.Statement;
+import org.example.properties.LanguageProperties;
+import org.example.visitor.ErrorContextBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a program compiled into the code of {@link Opcode}, giving the same output and errors as the Interpreter.
+ * Functions are compiled when they are first called. Frames of calls are kept in one array: the arguments evaluated
+ * by the caller become the first local variables of the callee, values of literals and temporary values follow them.
+ * Integers are kept unboxed in a parallel array, so arithmetic on them and counted loops allocate nothing.
+ * <p>
+ * Arguments are given as the interpreter gives them: a variable, an attribute or an element of a list holding an object
+ * is passed as its ValueReference, which the callee may assign, and a list keeps the ValueReferences of its elements.
+ * Variables which could be given away so are kept in cells, see Opcode and Compiler.
+ */
+@RequiredArgsConstructor
+public class VirtualMachine {
+
+    private static final String MAIN = LanguageProperties.get("MAIN");
+    private static final String THIS = LanguageProperties.get("THIS");
+    private static final MathematicalOperation[] MATHEMATICAL_OPERATIONS = MathematicalOperation.values();
+    private static final RelationalOperation[] RELATIONAL_OPERATIONS = RelationalOperation.values();
+    private static final int INITIAL_STACK_SIZE = 1024;
+    // stored by LOOKUP_METHOD when a method of a list is called
+    private static final Object LIST_METHOD = new Object();
+    // marks an integer kept unboxed in the integers at the same index
+    static final Object INTEGER = new Object();
+
+    private final ErrorHandler errorHandler;
+    private final Map<String, CompiledFunction> functions = new HashMap<>();
+    private final Map<String, CompiledClass> classes = new HashMap<>();
+    private Map<String, FunctionDefinition> definitions;
+    private Object[] stack = new Object[INITIAL_STACK_SIZE];
+    private int[] integers = new int[INITIAL_STACK_SIZE];
+    private boolean testingMode = false;
+    private StringBuilder outputBuffer = null;
+
+    public VirtualMachine(ErrorHandler errorHandler, boolean testingMode) {
+        this.errorHandler = errorHandler;
+        this.testingMode = testingMode;
+        if (testingMode) {
+            outputBuffer = new StringBuilder();
+        }
+    }
+
+    public String getOutput() {
+        return outputBuffer.toString();
+    }
+
+    /**
+     * Runs a program kept in an arena, records of a function are built when it is first compiled
+     */
+    public void execute(AstArena arena) {
+        execute(arena.toProgram());
+    }
+
+    @SneakyThrows
+    public void execute(Program program) {
+        Initializer.addBuiltIns(program);
+        Program resolved = Resolver.resolve(ConstantFolder.fold(program));
+        definitions = resolved.functionDefinitions();
+        definitions.forEach((name, definition) -> {
+            if (definition instanceof UserFunctionDefinition || definition instanceof LazyFunctionDefinition) {
+                functions.put(name, new CompiledFunction(definition));
+            }
+        });
+        // checking constructors in the order of the interpreter
+        for (ClassDefinition classDefinition : resolved.classDefinitions().values()) {
+            if (classDefinition instanceof UserClassDefinition userClassDefinition) {
+                Interpreter.checkConstructor(userClassDefinition, errorHandler);
+                classes.put(classDefinition.name(), new CompiledClass(classDefinition));
+            }
+        }
+        CompiledFunction main = functions.get(MAIN);
+        if (main == null) {
+            handleError(ErrorType.MAIN_FUNCTION_MISSING, new Position(1, 1), StringUtils.EMPTY);
+        } else if (main.parameterCount != 0) {
+            handleError(ErrorType.MAIN_FUNCTION_WITH_PARAMETERS, new Position(1, 1), StringUtils.EMPTY);
+        } else {
+            run(main, 0, null, false);
+        }
+    }
+
+    /**
+     * Runs a call whose arguments are in the slots from the base, the result is left at the base
+     *
+     * @param self         cell of the object of a method or a constructor, null in a function
+     * @param constructing true in a constructor, where assigned attributes are created
+     */
+    private void run(CompiledFunction function, int base, ValueReference self, boolean constructing) throws Exception {
+        compile(function);
+        final int[] code = function.code;
+        final Object[] constants = function.constants;
+        ensureStack(base + function.frameSize);
+        Object[] stack = this.stack;
+        int[] integers = this.integers;
+        Arrays.fill(stack, base + function.parameterCount, base + function.localCount, null);
+        System.arraycopy(function.values, 0, stack, base + function.localCount, function.values.length);
+        System.arraycopy(function.integerValues, 0, integers, base + function.localCount, function.values.length);
+        int pc = 0;
+        while (true) {
+            switch (code[pc++]) {
+                case Opcode.MOVE -> {
+                    int slot = base + code[pc];
+                    int source = base + code[pc + 1];
+                    stack[slot] = stack[source];
+                    integers[slot] = integers[source];
+                    pc += 2;
+                }
+                case Opcode.NULL -> stack[base + code[pc++]] = null;
+                case Opcode.LOAD_CELL -> {
+                    store(stack, integers, base + code[pc], ((ValueReference) stack[base + code[pc + 1]]).getValue());
+                    pc += 2;
+                }
+                case Opcode.STORE_CELL -> {
+                    ((ValueReference) stack[base + code[pc]]).setValue(value(stack, integers, base + code[pc + 1]));
+                    pc += 2;
+                }
+                case Opcode.NEW_CELL -> stack[base + code[pc++]] = new ValueReference();
+                case Opcode.DEREFERENCE -> {
+                    int slot = base + code[pc];
+                    int source = base + code[pc + 1];
+                    if (stack[source] instanceof ValueReference reference) {
+                        store(stack, integers, slot, reference.getValue());
+                    } else {
+                        stack[slot] = stack[source];
+                        integers[slot] = integers[source];
+                    }
+                    pc += 2;
+                }
+                case Opcode.WRAP -> {
+                    int slot = base + code[pc++];
+                    if (stack[slot] instanceof ValueReference reference) {
+                        stack[slot] = new ValueReference(reference);
+                    }
+                }
+                case Opcode.ADD -> {
+                    int left = base + code[pc + 1];
+                    int right = base + code[pc + 2];
+                    if (stack[left] == INTEGER && stack[right] == INTEGER) {
+                        int slot = base + code[pc];
+                        stack[slot] = INTEGER;
+                        integers[slot] = integers[left] + integers[right];
+                    } else {
+                        store(stack, integers, base + code[pc], compute(value(stack, integers, left),
+                                value(stack, integers, right), MathematicalOperation.ADD, constants[code[pc + 3]]));
+                    }
+                    pc += 4;
+                }
+                case Opcode.SUBTRACT -> {
+                    int left = base + code[pc + 1];
+                    int right = base + code[pc + 2];
+                    if (stack[left] == INTEGER && stack[right] == INTEGER) {
+                        int slot = base + code[pc];
+                        stack[slot] = INTEGER;
+                        integers[slot] = integers[left] - integers[right];
+                    } else {
+                        store(stack, integers, base + code[pc], compute(value(stack, integers, left),
+                                value(stack, integers, right), MathematicalOperation.SUBTRACT,
+                                constants[code[pc + 3]]));
+                    }
+                    pc += 4;
+                }
+                case Opcode.MULTIPLY -> {
+                    int left = base + code[pc + 1];
+                    int right = base + code[pc + 2];
+                    if (stack[left] == INTEGER && stack[right] == INTEGER) {
+                        int slot = base + code[pc];
+                        stack[slot] = INTEGER;
+                        integers[slot] = integers[left] * integers[right];
+                    } else {
+                        store(stack, integers, base + code[pc], compute(value(stack, integers, left),
+                                value(stack, integers, right), MathematicalOperation.MULTIPLY,
+                                constants[code[pc + 3]]));
+                    }
+                    pc += 4;
+                }
+                case Opcode.DIVIDE -> {
+                    int left = base + code[pc + 1];
+                    int right = base + code[pc + 2];
+                    if (stack[left] == INTEGER && stack[right] == INTEGER && integers[right] != 0) {
+                        int slot = base + code[pc];
+                        stack[slot] = INTEGER;
+                        integers[slot] = integers[left] / integers[right];
+                    } else {
+                        Object divisor = value(stack, integers, right);
+                        if (Integer.valueOf(0).equals(divisor) || Long.valueOf(0).equals(divisor)) {
+                            fail(ErrorType.ZERO_DIVISION, (Expression) constants[code[pc + 3]]);
+                        }
+                        store(stack, integers, base + code[pc], compute(value(stack, integers, left), divisor,
+                                MathematicalOperation.DIVIDE, constants[code[pc + 3]]));
+                    }
+                    pc += 4;
+                }
+                case Opcode.COMPARE -> {
+                    stack[base + code[pc]] = compare(stack, integers, base + code[pc + 1], base + code[pc + 2],
+                            RELATIONAL_OPERATIONS[code[pc + 3]], constants[code[pc + 4]]);
+                    pc += 5;
+                }
+                case Opcode.NEGATE -> {
+                    Object operand = value(stack, integers, base + code[pc + 1]);
+                    Object result = operand == null ? null : NegationComputer.compute(operand);
+                    if (result == null) {
+                        fail(ErrorType.OPERATION_NOT_SUPPORTED, (Expression) constants[code[pc + 2]]);
+                    }
+                    store(stack, integers, base + code[pc], result);
+                    pc += 3;
+                }
+                case Opcode.MODIFY -> {
+                    int slot = base + code[pc];
+                    int right = base + code[pc + 1];
+                    MathematicalOperation operation = MATHEMATICAL_OPERATIONS[code[pc + 2]];
+                    if (stack[slot] == INTEGER && stack[right] == INTEGER) {
+                        integers[slot] = operation == MathematicalOperation.ADD
+                                ? integers[slot] + integers[right] : integers[slot] - integers[right];
+                    } else {
+                        store(stack, integers, slot, MathematicalComputer.compute(value(stack, integers, slot),
+                                value(stack, integers, right), operation));
+                    }
+                    pc += 3;
+                }
+                case Opcode.CHECK_BOOLEAN -> {
+                    if (!(stack[base + code[pc]] instanceof Boolean)) {
+                        fail(ErrorType.OPERATION_NOT_SUPPORTED, (Expression) constants[code[pc + 1]]);
+                    }
+                    pc += 2;
+                }
+                case Opcode.JUMP -> pc += code[pc] + 1;
+                case Opcode.JUMP_IF_FALSE -> pc += (Boolean) stack[base + code[pc]] ? 2 : code[pc + 1] + 2;
+                case Opcode.JUMP_IF_TRUE -> pc += (Boolean) stack[base + code[pc]] ? code[pc + 1] + 2 : 2;
+                case Opcode.BRANCH_IF_FALSE -> {
+                    if (!(stack[base + code[pc]] instanceof Boolean condition)) {
+                        IfStatement statement = (IfStatement) constants[code[pc + 1]];
+                        handleError(ErrorType.CONDITION_NOT_BOOLEAN, statement.position(),
+                                ErrorContextBuilder.buildContext(statement));
+                        return;
+                    }
+                    pc += condition ? 3 : code[pc + 2] + 3;
+                }
+                case Opcode.BRANCH_IF_NOT_COMPARE -> {
+                    int left = base + code[pc];
+                    int right = base + code[pc + 1];
+                    boolean condition = stack[left] == INTEGER && stack[right] == INTEGER
+                            ? compareIntegers(integers[left], integers[right], RELATIONAL_OPERATIONS[code[pc + 2]])
+                            : compare(stack, integers, left, right, RELATIONAL_OPERATIONS[code[pc + 2]],
+                            constants[code[pc + 3]]);
+                    pc += condition ? 5 : code[pc + 4] + 5;
+                }
+                case Opcode.LOAD_SELF -> {
+                    if (self == null) {
+                        handleError(ErrorType.SELF_ACCESS_OUTSIDE_OF_CLASS,
+                                ((Expression) constants[code[pc + 1]]).position(), THIS);
+                    }
+                    store(stack, integers, base + code[pc], self.getValue());
+                    pc += 2;
+                }
+                case Opcode.LOAD_SELF_CELL -> {
+                    if (self == null) {
+                        handleError(ErrorType.SELF_ACCESS_OUTSIDE_OF_CLASS,
+                                ((Expression) constants[code[pc + 1]]).position(), THIS);
+                    }
+                    stack[base + code[pc]] = self;
+                    pc += 2;
+                }
+                case Opcode.CHECK_OBJECT -> {
+                    if (!(stack[base + code[pc]] instanceof ObjectInstance)) {
+                        ObjectAccess objectAccess = (ObjectAccess) constants[code[pc + 1]];
+                        handleError(ErrorType.ACCESS_NOT_ALLOWED, objectAccess.position(),
+                                ErrorContextBuilder.buildContext((Statement) objectAccess));
+                    }
+                    pc += 2;
+                }
+                case Opcode.GET_ATTRIBUTE -> {
+                    ObjectInstance object = (ObjectInstance) stack[base + code[pc + 1]];
+                    ValueReference attribute = object.findAttribute((String) constants[code[pc + 2]]);
+                    if (attribute == null) {
+                        attributeNotDefined(object, (IdentifierExpression) constants[code[pc + 3]]);
+                    }
+                    store(stack, integers, base + code[pc], attribute.getValue());
+                    pc += 4;
+                }
+                case Opcode.GET_ATTRIBUTE_CELL -> {
+                    ObjectInstance object = (ObjectInstance) stack[base + code[pc + 1]];
+                    ValueReference attribute = object.findAttribute((String) constants[code[pc + 2]]);
+                    if (attribute == null) {
+                        attributeNotDefined(object, (IdentifierExpression) constants[code[pc + 3]]);
+                    }
+                    stack[base + code[pc]] = attribute;
+                    pc += 4;
+                }
+                case Opcode.GET_ATTRIBUTE_OR_NULL -> {
+                    ValueReference attribute = ((ObjectInstance) stack[base + code[pc + 1]])
+                            .findAttribute((String) constants[code[pc + 2]]);
+                    store(stack, integers, base + code[pc], attribute == null ? null : attribute.getValue());
+                    pc += 3;
+                }
+                case Opcode.CHECK_ATTRIBUTE -> {
+                    ObjectInstance object = (ObjectInstance) stack[base + code[pc]];
+                    String name = (String) constants[code[pc + 1]];
+                    if (object.findAttribute(name) == null) {
+                        if (!constructing) {
+                            attributeNotDefined(object, (IdentifierExpression) constants[code[pc + 2]]);
+                        }
+                        object.storeAttribute(name, new ValueReference());
+                    }
+                    pc += 3;
+                }
+                case Opcode.SET_ATTRIBUTE -> {
+                    ObjectInstance object = (ObjectInstance) stack[base + code[pc]];
+                    object.findAttribute((String) constants[code[pc + 1]])
+                            .setValue(value(stack, integers, base + code[pc + 2]));
+                    pc += 3;
+                }
+                case Opcode.CALL -> {
+                    int slot = base + code[pc];
+                    CompiledFunction callee = (CompiledFunction) constants[code[pc + 1]];
+                    int calleeBase = base + code[pc + 2];
+                    int flags = code[pc + 3];
+                    pc += 4;
+                    passArguments(callee, calleeBase, flags);
+                    run(callee, calleeBase, null, false);
+                    stack = this.stack;
+                    integers = this.integers;
+                    result(stack, integers, slot, calleeBase, flags);
+                }
+                case Opcode.NEW -> {
+                    int slot = base + code[pc];
+                    CompiledClass compiledClass = (CompiledClass) constants[code[pc + 1]];
+                    int calleeBase = base + code[pc + 2];
+                    int flags = code[pc + 3];
+                    pc += 4;
+                    // the constructor may replace the object through its cell, as in the interpreter
+                    ValueReference object = new ValueReference(new VmObject(compiledClass));
+                    passArguments(compiledClass.getConstructor(), calleeBase, flags);
+                    run(compiledClass.getConstructor(), calleeBase, object, true);
+                    stack = this.stack;
+                    integers = this.integers;
+                    if ((flags & Opcode.CELL_RESULT) != 0) {
+                        stack[slot] = object;
+                    } else {
+                        store(stack, integers, slot, object.getValue());
+                    }
+                }
+                case Opcode.LOOKUP_METHOD -> {
+                    stack[base + code[pc]] = lookupMethod(stack[base + code[pc + 1]],
+                            (MethodCallSite) constants[code[pc + 2]]);
+                    pc += 3;
+                }
+                case Opcode.INVOKE_METHOD -> {
+                    int slot = base + code[pc];
+                    Object method = stack[base + code[pc + 1]];
+                    int receiver = base + code[pc + 2];
+                    MethodCallSite site = (MethodCallSite) constants[code[pc + 3]];
+                    int argumentBase = base + code[pc + 4];
+                    int flags = code[pc + 5];
+                    pc += 6;
+                    // the method gets the cell of the object, the object given by a call is put into a new one
+                    ValueReference receiverCell = stack[receiver] instanceof ValueReference reference
+                            ? reference : new ValueReference(value(stack, integers, receiver));
+                    if (method instanceof CompiledFunction compiledMethod) {
+                        if (compiledMethod.parameterCount != site.argumentCount) {
+                            fail(ErrorType.INCORRECT_NUMBER_OF_ARGUMENTS, site.call);
+                        }
+                        passArguments(compiledMethod, argumentBase, flags);
+                        run(compiledMethod, argumentBase, receiverCell, false);
+                        stack = this.stack;
+                        integers = this.integers;
+                        result(stack, integers, slot, argumentBase, flags);
+                    } else {
+                        stack[slot] = invokeListMethod(site, (ListInstance) receiverCell.getValue(), argumentBase);
+                        result(stack, integers, slot, slot, flags);
+                    }
+                }
+                case Opcode.RETURN -> {
+                    int source = base + code[pc];
+                    stack[base] = stack[source];
+                    integers[base] = integers[source];
+                    return;
+                }
+                case Opcode.RETURN_NULL -> {
+                    stack[base] = null;
+                    return;
+                }
+                case Opcode.PRINT -> {
+                    int first = base + code[pc + 1];
+                    StringBuilder text = new StringBuilder();
+                    for (int i = first; i < first + code[pc + 2]; ++i) {
+                        text.append(value(stack, integers, i));
+                    }
+                    print(text.toString());
+                    stack[base + code[pc]] = null;
+                    pc += 3;
+                }
+                case Opcode.ABORT -> handleError(ErrorType.ABORTED, ((Expression) constants[code[pc]]).position(),
+                        StringUtils.EMPTY);
+                case Opcode.RANGE -> {
+                    Expression call = (Expression) constants[code[pc + 3]];
+                    int start = integerArgument(stack, integers, base + code[pc + 1], call);
+                    int stop = integerArgument(stack, integers, base + code[pc + 2], call);
+                    if (IntRange.isTooLong(start, stop)) {
+                        fail(ErrorType.RANGE_TOO_LONG, call);
+                    }
+                    stack[base + code[pc]] = new ListInstance(new IntRange(start, stop));
+                    pc += 4;
+                }
+                case Opcode.NEW_LIST -> stack[base + code[pc++]] = new ListInstance();
+                case Opcode.RANGE_LOOP -> {
+                    int slot = base + code[pc];
+                    Expression call = (Expression) constants[code[pc + 3]];
+                    integers[slot] = integerArgument(stack, integers, base + code[pc + 1], call);
+                    integers[slot + 1] = integerArgument(stack, integers, base + code[pc + 2], call);
+                    pc += 4;
+                }
+                case Opcode.NEXT_NUMBER -> {
+                    int slot = base + code[pc];
+                    int next = integers[slot];
+                    if (next < integers[slot + 1]) {
+                        int iterator = base + code[pc + 1];
+                        stack[iterator] = INTEGER;
+                        integers[iterator] = next;
+                        integers[slot] = next + 1;
+                        pc += code[pc + 2] + 3;
+                    } else {
+                        pc += 3;
+                    }
+                }
+                case Opcode.LIST_LOOP -> {
+                    int slot = base + code[pc];
+                    if (!(stack[base + code[pc + 1]] instanceof ListInstance listInstance)) {
+                        ForStatement statement = (ForStatement) constants[code[pc + 2]];
+                        handleError(ErrorType.RANGE_NOT_ITERABLE, statement.range().position(),
+                                ErrorContextBuilder.buildContext(statement));
+                        return;
+                    }
+                    // the list being iterated, as the interpreter keeps its iterator after a range is copied
+                    stack[slot] = listInstance.getList();
+                    integers[slot + 1] = 0;
+                    pc += 3;
+                }
+                case Opcode.NEXT_ELEMENT -> {
+                    int slot = base + code[pc];
+                    List<?> list = (List<?>) stack[slot];
+                    int index = integers[slot + 1];
+                    if (index < list.size()) {
+                        store(stack, integers, base + code[pc + 1], list.get(index));
+                        integers[slot + 1] = index + 1;
+                        pc += code[pc + 2] + 3;
+                    } else {
+                        pc += 3;
+                    }
+                }
+                case Opcode.ERROR -> {
+                    ErrorSite site = (ErrorSite) constants[code[pc]];
+                    handleError(site.type(), site.position(), site.expression());
+                }
+                default -> throw new IllegalStateException("Unknown opcode " + code[pc - 1]);
+            }
+        }
+    }
+
+    private void compile(CompiledFunction function) {
+        if (!function.isCompiled()) {
+            new Compiler(definitions, functions, classes).compile(function);
+        }
+    }
+
+    /**
+     * Gives the arguments in the slots from the first one to the callee, as Interpreter.resolveArguments() does:
+     * a parameter which is a cell gets the cell of an argument holding an object, or a new one
+     */
+    private void passArguments(CompiledFunction callee, int first, int flags) {
+        compile(callee);
+        if (callee.cellParameters) {
+            for (int i = first; i < first + callee.parameterCount; ++i) {
+                stack[i] = argumentCell(stack, integers, i);
+            }
+        } else if ((flags & Opcode.CELL_ARGUMENTS) != 0) {
+            for (int i = first; i < first + callee.parameterCount; ++i) {
+                if (stack[i] instanceof ValueReference reference) {
+                    store(stack, integers, i, reference.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the cell of an argument holding an object, or a new cell with the value of the argument
+     */
+    private static ValueReference argumentCell(Object[] stack, int[] integers, int index) {
+        if (stack[index] instanceof ValueReference reference) {
+            return isPrimitive(reference.getValue()) ? reference.clone() : reference;
+        }
+        return new ValueReference(value(stack, integers, index));
+    }
+
+    /**
+     * @return value of an argument, which may be a cell
+     */
+    private static Object argumentValue(Object[] stack, int[] integers, int index) {
+        return stack[index] instanceof ValueReference reference ? reference.getValue() : value(stack, integers, index);
+    }
+
+    /**
+     * @return true for a value which the interpreter copies when it is passed, as Interpreter.isPrimitiveType()
+     */
+    private static boolean isPrimitive(Object value) {
+        return value instanceof Number || value instanceof Boolean || value instanceof String;
+    }
+
+    /**
+     * Stores the result of a call left in the source slot, its value unless the cell was asked for
+     */
+    private static void result(Object[] stack, int[] integers, int slot, int source, int flags) {
+        if ((flags & Opcode.CELL_RESULT) == 0 && stack[source] instanceof ValueReference reference) {
+            store(stack, integers, slot, reference.getValue());
+        } else if (stack[source] instanceof Integer integer) {
+            stack[slot] = INTEGER;
+            integers[slot] = integer;
+        } else {
+            stack[slot] = stack[source];
+            integers[slot] = integers[source];
+        }
+    }
+
+    /**
+     * Stores a value at the index of the stack, integers are kept unboxed
+     */
+    private static void store(Object[] stack, int[] integers, int index, Object value) {
+        if (value instanceof Integer integer) {
+            stack[index] = INTEGER;
+            integers[index] = integer;
+        } else {
+            stack[index] = value;
+        }
+    }
+
+    /**
+     * @return value at the index of the stack, an integer is boxed
+     */
+    private static Object value(Object[] stack, int[] integers, int index) {
+        Object value = stack[index];
+        return value == INTEGER ? (Object) integers[index] : value;
+    }
+
+    private void ensureStack(int size) {
+        if (size > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(size, stack.length * 2));
+            integers = Arrays.copyOf(integers, stack.length);
+        }
+    }
+
+    private Object compute(Object left, Object right, MathematicalOperation operation, Object node) throws Exception {
+        Object result = MathematicalComputer.compute(left, right, operation);
+        if (result == null) {
+            fail(ErrorType.OPERATION_NOT_SUPPORTED, (Expression) node);
+        }
+        return result;
+    }
+
+    private Boolean compare(Object[] stack, int[] integers, int left, int right, RelationalOperation operation,
+                            Object node) throws Exception {
+        if (stack[left] == INTEGER && stack[right] == INTEGER) {
+            return compareIntegers(integers[left], integers[right], operation);
+        }
+        Object result = RelationalComputer.compute(value(stack, integers, left), value(stack, integers, right),
+                operation);
+        if (result == null) {
+            fail(ErrorType.OPERATION_NOT_SUPPORTED, (Expression) node);
+        }
+        return (Boolean) result;
+    }
+
+    private static boolean compareIntegers(int left, int right, RelationalOperation operation) {
+        return switch (operation) {
+            case EQUAL -> left == right;
+            case NOT_EQUAL -> left != right;
+            case GREATER -> left > right;
+            case LESS -> left < right;
+            case GREATER_OR_EQUAL -> left >= right;
+            case LESS_OR_EQUAL -> left <= right;
+        };
+    }
+
+    /**
+     * @return method of the class of the object, or LIST_METHOD for a list
+     */
+    private Object lookupMethod(Object object, MethodCallSite site) throws Exception {
+        if (object instanceof VmObject vmObject) {
+            CompiledClass compiledClass = vmObject.getCompiledClass();
+            if (site.cachedClass != compiledClass) {
+                CompiledFunction method = compiledClass.getMethods().get(site.name);
+                if (method == null) {
+                    methodNotDefined(vmObject, site);
+                }
+                site.cachedClass = compiledClass;
+                site.cachedMethod = method;
+            }
+            return site.cachedMethod;
+        }
+        if (site.listMethod == MethodCallSite.NOT_LIST_METHOD) {
+            methodNotDefined((ObjectInstance) object, site);
+        }
+        return LIST_METHOD;
+    }
+
+    private Object invokeListMethod(MethodCallSite site, ListInstance listInstance, int from) throws Exception {
+        if (listInstance.getMethodDefinition(site.name).parameters().size() != site.argumentCount) {
+            fail(ErrorType.INCORRECT_NUMBER_OF_ARGUMENTS, site.call);
+        }
+        switch (site.listMethod) {
+            case MethodCallSite.APPEND -> {
+                // the list keeps the cell, as the interpreter keeps the ValueReference of the argument
+                listInstance.getMutableList().add(argumentCell(stack, integers, from));
+                return null;
+            }
+            case MethodCallSite.GET -> {
+                List<Object> list = listInstance.getList();
+                return list.get(checkIndex(argumentValue(stack, integers, from), list, site.call));
+            }
+            case MethodCallSite.REMOVE -> {
+                // the bounds are checked before a range is copied into a list it can be removed from
+                int index = checkIndex(argumentValue(stack, integers, from), listInstance.getList(), site.call);
+                return listInstance.getMutableList().remove(index);
+            }
+            default -> {
+                return listInstance.getList().size();
+            }
+        }
+    }
+
+    /**
+     * @return value of an argument of a built-in which must be an int, as NumericLiterals.toInteger() gives it
+     */
+    private int integerArgument(Object[] stack, int[] integers, int index, Expression call) throws Exception {
+        if (stack[index] == INTEGER) {
+            return integers[index];
+        }
+        Integer value = NumericLiterals.toInteger(stack[index]);
+        if (value == null) {
+            fail(ErrorType.OPERATION_NOT_SUPPORTED, call);
+        }
+        return value;
+    }
+
+    private int checkIndex(Object argument, List<Object> list, FunctionCallExpression call) throws Exception {
+        Integer index = NumericLiterals.toInteger(argument);
+        if (index == null) {
+            fail(ErrorType.OPERATION_NOT_SUPPORTED, call);
+            return -1;
+        }
+        if (index > list.size() - 1 || index < 0) {
+            fail(ErrorType.INDEX_OUT_OF_BOUND, call);
+        }
+        return index;
+    }
+
+    private void print(String text) {
+        if (testingMode) {
+            outputBuffer.append(text).append("\n");
+        } else {
+            System.out.println(text);
+        }
+    }
+
+    private void attributeNotDefined(ObjectInstance object, IdentifierExpression attribute) throws Exception {
+        handleError(ErrorType.ATTRIBUTE_NOT_DEFINED, attribute.position(),
+                StringUtils.join(object.getClassName(), '.', attribute.name()));
+    }
+
+    private void methodNotDefined(ObjectInstance object, MethodCallSite site) throws Exception {
+        handleError(ErrorType.METHOD_NOT_DEFINED, site.call.position(),
+                StringUtils.join(object.getClassName(), ".", site.name, "()"));
+    }
+
+    private void fail(ErrorType type, Expression expression) throws Exception {
+        handleError(type, expression.position(), ErrorContextBuilder.buildContext(expression));
+    }
+
+    private void handleError(ErrorType type, Position position, String errorMessage) throws Exception {
+        ErrorDetails errorDetails = new ErrorInterpreterDetails(type, position, errorMessage);
+        errorHandler.handleError(errorDetails);
+        throw new SemanticException(type.toString());
+    }
+
+}
@@ -0,0 +1,19 @@
+package org.example.vm;
+
+import lombok.Getter;
+import org.example.interpreter.accessible.ObjectInstance;
+
+/**
+ * Object of a class of the program, which knows the compiled methods of its class
+ */
+@Getter
+public class VmObject extends ObjectInstance {
+
+    private final CompiledClass compiledClass;
+
+    VmObject(CompiledClass compiledClass) {
+        super(compiledClass.getName(), compiledClass.getDefinition().methods());
+        this.compiledClass = compiledClass;
+    }
+
+}
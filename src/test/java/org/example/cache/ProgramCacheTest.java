@@ -0,0 +1,122 @@
+package org.example.cache;
+
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.programstructure.arena.ArenaFormat;
+import org.example.programstructure.arena.AstArena;
+import org.example.programstructure.containers.LazyFunctionDefinition;
+import org.example.programstructure.containers.Program;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgramCacheTest {
+
+	private static final String SOURCE = """
+			klasa Licznik {
+			  Licznik() {
+			    tenże.wartość = 0;
+			  }
+			  zwiększ(o) {
+			    tenże.wartość += o;
+			  }
+			}
+			główna() {
+			  l = Licznik();
+			  dla i w zakres(0, 5) {
+			    jeżeli (i > 2) {
+			      l.zwiększ(i * 2);
+			    }
+			  }
+			  napisz(l.wartość, " ", 9223372036854775807, " ", 0.125, "\\n");
+			}
+			""";
+
+	@Test
+	void testFormatRoundTrip() throws IOException {
+		Program parsed = parse(SOURCE);
+		AstArena read = ArenaFormat.read(new ByteArrayInputStream(write(AstArena.encode(parsed))));
+
+		Program decoded = read.toProgram();
+		assertEquals(parsed.functionDefinitions().get("główna").toString(),
+				((LazyFunctionDefinition) decoded.functionDefinitions().get("główna")).resolve().toString());
+		assertEquals(run(parsed), run(read));
+	}
+
+	@Test
+	void testCorruptionDetected() throws IOException {
+		byte[] bytes = write(AstArena.encode(parse(SOURCE)));
+		for (int i : new int[]{0, 5, 20, bytes.length / 2, bytes.length - 1}) {
+			byte[] corrupt = bytes.clone();
+			corrupt[i] ^= 0x10;
+			assertThrows(ArenaFormat.CorruptArenaException.class, () -> ArenaFormat.read(new ByteArrayInputStream(corrupt)));
+		}
+		byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+		assertThrows(IOException.class, () -> ArenaFormat.read(new ByteArrayInputStream(truncated)));
+	}
+
+	@Test
+	void testStoreAndLoad() throws IOException {
+		Path directory = Files.createTempDirectory("cache");
+		Path config = Files.writeString(directory.resolve("language.config"), "RETURN=zwróć");
+		var cache = new ProgramCache(directory.resolve("entries"), List.of(config));
+		byte[] source = SOURCE.getBytes(StandardCharsets.UTF_8);
+
+		assertNull(cache.load(source));
+		cache.store(source, AstArena.encode(parse(SOURCE)));
+		AstArena loaded = cache.load(source);
+		assertNotNull(loaded);
+		assertEquals(run(parse(SOURCE)), run(loaded));
+
+		assertNull(cache.load((SOURCE + " ").getBytes(StandardCharsets.UTF_8)));
+		Files.writeString(config, "RETURN=oddaj");
+		assertNull(new ProgramCache(directory.resolve("entries"), List.of(config)).load(source));
+	}
+
+	@Test
+	void testCorruptEntryRebuilt() throws IOException {
+		Path directory = Files.createTempDirectory("cache");
+		var cache = new ProgramCache(directory, List.of());
+		byte[] source = SOURCE.getBytes(StandardCharsets.UTF_8);
+		cache.store(source, AstArena.encode(parse(SOURCE)));
+
+		Path entry = cache.entry(source);
+		byte[] bytes = Files.readAllBytes(entry);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(entry, bytes);
+
+		assertNull(cache.load(source));
+		assertFalse(Files.exists(entry));
+		cache.store(source, AstArena.encode(parse(SOURCE)));
+		assertNotNull(cache.load(source));
+	}
+
+	private static byte[] write(AstArena arena) throws IOException {
+		var stream = new ByteArrayOutputStream();
+		ArenaFormat.write(arena, stream);
+		return stream.toByteArray();
+	}
+
+	private static String run(Program program) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(program);
+		return interpreter.getOutput();
+	}
+
+	private static String run(AstArena arena) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(arena);
+		return interpreter.getOutput();
+	}
+
+}
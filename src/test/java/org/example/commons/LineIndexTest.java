@@ -0,0 +1,65 @@
+package org.example.commons;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LineIndexTest {
+
+	@Test
+	void testPositions() {
+		// "ab\ncd\n\ne"
+		var lineIndex = new LineIndex();
+		lineIndex.addLine(3);
+		lineIndex.addLine(6);
+		lineIndex.addLine(7);
+
+		assertPosition(1, 1, new Position(lineIndex, 0));
+		assertPosition(1, 3, new Position(lineIndex, 2));
+		assertPosition(2, 1, new Position(lineIndex, 3));
+		assertPosition(2, 2, new Position(lineIndex, 4));
+		assertPosition(3, 1, new Position(lineIndex, 6));
+		assertPosition(4, 1, new Position(lineIndex, 7));
+		assertPosition(4, 5, new Position(lineIndex, 11));
+	}
+
+	@Test
+	void testPositionResolvedWhenAsked() {
+		var lineIndex = new LineIndex();
+		var position = new Position(lineIndex, 10);
+		lineIndex.addLine(5);
+		lineIndex.addLine(20);
+
+		assertPosition(2, 6, position);
+	}
+
+	@Test
+	void testIndexStartingInTheMiddle() {
+		var lineIndex = new LineIndex(7, 100);
+		lineIndex.addLine(110);
+
+		assertPosition(7, 1, new Position(lineIndex, 100));
+		assertPosition(8, 3, new Position(lineIndex, 112));
+	}
+
+	@Test
+	void testAddLines() {
+		var lineIndex = new LineIndex();
+		for (int i = 1; i < 100; i++) {
+			lineIndex.addLine(i * 10);
+		}
+		var next = new LineIndex(100, 990);
+		next.addLine(1000);
+		lineIndex.addLines(next);
+
+		assertEquals(101, lineIndex.getLineCount());
+		assertPosition(100, 6, new Position(lineIndex, 995));
+		assertPosition(101, 1, new Position(lineIndex, 1000));
+	}
+
+	private static void assertPosition(int lineNumber, int characterNumber, Position position) {
+		assertEquals(lineNumber, position.getLineNumber());
+		assertEquals(characterNumber, position.getCharacterNumber());
+	}
+
+}
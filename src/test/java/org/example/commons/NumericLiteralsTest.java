@@ -0,0 +1,70 @@
+package org.example.commons;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NumericLiteralsTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"0", "0.", "0.0", "12.", "1.5", "0.1", "0.3", "3.14159", "9999.12342423", "0.2147483648",
+			"9007199254740993.", "123456789012345678.9", "9223372036854775807.5",
+			"0.1234567890123456789012345", "2.2250738585072011", "2.2250738585072014",
+			"0.000000000000000000000000000000000000000000000000000000000000000000000000000001",
+			"179769313486231570000000000000000000000000000000000000000000000000000000000000000000000000000000000"
+					+ "000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000"
+					+ "000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000"
+					+ "00000000000000000000000000000000000000000000000000000000000000000000000000000.0",
+			"9007199254740992.5", "9007199254740993.0000000000000000000001"
+	})
+	void testSameAsParseDouble(String literal) {
+		assertEquals(Double.parseDouble(literal), NumericLiterals.parseDouble(literal.toCharArray(), 0, literal.length()));
+	}
+
+	@Test
+	void testRandomLiterals() {
+		var random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			String literal = random.nextInt(1 << random.nextInt(31)) + "." + randomDigits(random, random.nextInt(25));
+			assertEquals(Double.parseDouble(literal), NumericLiterals.parseDouble(literal.toCharArray(), 0, literal.length()),
+					literal);
+		}
+	}
+
+	@Test
+	void testToDouble() {
+		var random = new Random(7);
+		for (int i = 0; i < 100_000; i++) {
+			long mantissa = random.nextLong() >>> 1 + random.nextInt(63);
+			int exponent = random.nextInt(700) - 350;
+			assertEquals(Double.parseDouble(mantissa + "E" + exponent), NumericLiterals.toDouble(mantissa, exponent),
+					mantissa + "E" + exponent);
+		}
+	}
+
+	@Test
+	void testNonAsciiDigits() {
+		String literal = "١٢.٥";	// Arabic-Indic 12.5
+		assertEquals(12.5, NumericLiterals.parseDouble(literal.toCharArray(), 0, literal.length()));
+	}
+
+	@Test
+	void testNarrow() {
+		assertEquals(Integer.valueOf(Integer.MAX_VALUE), NumericLiterals.narrow(Integer.MAX_VALUE));
+		assertEquals(Long.valueOf(Integer.MAX_VALUE + 1L), NumericLiterals.narrow(Integer.MAX_VALUE + 1L));
+	}
+
+	private static String randomDigits(Random random, int count) {
+		final var builder = new StringBuilder(count);
+		for (int i = 0; i < count; i++) {
+			builder.append((char) ('0' + random.nextInt(10)));
+		}
+		return builder.toString();
+	}
+
+}
@@ -24,6 +24,9 @@ public class ComputersTest {
 				Arguments.of(1., 3., 2, MathematicalOperation.SUBTRACT),
 				Arguments.of(6., 3., 2, MathematicalOperation.MULTIPLY),
 				Arguments.of(1.5, 3., 2., MathematicalOperation.DIVIDE),
+				Arguments.of(4294967296L, 2147483648L, 2147483648L, MathematicalOperation.ADD),
+				Arguments.of(6L, 3L, 2, MathematicalOperation.MULTIPLY),
+				Arguments.of(1.5, 3L, 2., MathematicalOperation.DIVIDE),
 				Arguments.of(null, "", 2, MathematicalOperation.DIVIDE),
 				Arguments.of(null, 2, "", MathematicalOperation.DIVIDE)
 		);
@@ -44,6 +47,8 @@ public class ComputersTest {
 				Arguments.of(false, 3., 2., RelationalOperation.LESS),
 				Arguments.of(true, 3., 2., RelationalOperation.GREATER_OR_EQUAL),
 				Arguments.of(true, 3, 3., RelationalOperation.LESS_OR_EQUAL),
+				Arguments.of(true, 4L, 4, RelationalOperation.EQUAL),
+				Arguments.of(false, 9007199254740993L, 9007199254740992L, RelationalOperation.EQUAL),
 				Arguments.of(null, "", 2, RelationalOperation.EQUAL),
 				Arguments.of(null, 2, "", RelationalOperation.NOT_EQUAL)
 		);
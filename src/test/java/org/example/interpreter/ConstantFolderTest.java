@@ -0,0 +1,151 @@
+package org.example.interpreter;
+
+import org.example.error.exception.SemanticException;
+import org.example.error.manager.ErrorManager;
+import org.example.programstructure.containers.UserFunctionDefinition;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.AssignmentStatement;
+import org.example.programstructure.statement.IfStatement;
+import org.example.programstructure.statement.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConstantFolderTest {
+
+	static Stream<Arguments> foldedExpressions() {
+		return Stream.of(
+				Arguments.of("2 + 3 * 4", new LiteralInteger(14, null)),
+				Arguments.of("2147483647 + 1", new LiteralInteger(Integer.MIN_VALUE, null)),
+				Arguments.of("7 / 2", new LiteralInteger(3, null)),
+				Arguments.of("1 / 2.0", new LiteralFloat(0.5, null)),
+				Arguments.of("1.0 / 0.0", new LiteralFloat(Double.POSITIVE_INFINITY, null)),
+				Arguments.of("-(2 - 5)", new LiteralInteger(3, null)),
+				Arguments.of("2 * 3 >= 6", new LiteralBool(true, null)),
+				Arguments.of("nie (1 == 2)", new LiteralBool(true, null)),
+				Arguments.of("fałsz oraz x", new LiteralBool(false, null)),
+				Arguments.of("prawda lub x", new LiteralBool(true, null)),
+				Arguments.of("prawda oraz 1 < 2", new LiteralBool(true, null))
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource("foldedExpressions")
+	void testFoldedExpressions(String expression, Expression expected) {
+		Expression folded = foldAssigned(expression);
+		assertEquals(expected.getClass(), folded.getClass());
+		assertEquals(value(expected), value(folded));
+	}
+
+	@Test
+	void testErrorsAndVariablesNotFolded() {
+		assertInstanceOf(MultiplicativeExpression.class, foldAssigned("1 / 0"));
+		// an error shows the expression as it was written
+		var zeroDivision = assertInstanceOf(MultiplicativeExpression.class, foldAssigned("1 / (2 - 2)"));
+		assertInstanceOf(ArithmeticExpression.class, zeroDivision.right());
+		assertInstanceOf(ArithmeticExpression.class, foldAssigned("\"a\" + \"b\""));
+		assertInstanceOf(ArithmeticExpression.class, foldAssigned("prawda + 1"));
+		assertInstanceOf(AndExpression.class, foldAssigned("prawda oraz x"));
+		assertInstanceOf(OrExpression.class, foldAssigned("1 lub prawda"));
+
+		var partly = assertInstanceOf(ArithmeticExpression.class, foldAssigned("x + 2 * 3"));
+		assertEquals(6, value(partly.right()));
+	}
+
+	@Test
+	void testConstantBranches() {
+		String text = """
+				główna() {
+				  jeżeli (1 > 2) {
+				    a = 1;
+				  }
+				  jeżeli (1 > 2) {
+				    b = 1;
+				  } inaczej {
+				    b = 2;
+				  }
+				  jeżeli (1 < 2) {
+				    c = 1;
+				  } inaczej {
+				    c = 2;
+				  }
+				  jeżeli (x) {
+				    d = 1;
+				  }
+				}
+				""";
+		List<Statement> statements = foldMain(text);
+		assertEquals(3, statements.size());
+
+		var elseTaken = (IfStatement) statements.get(0);
+		assertEquals(Boolean.TRUE, value(elseTaken.condition()));
+		assertNull(elseTaken.elseBlock());
+		assertEquals(2, value(((AssignmentStatement) elseTaken.blockIfTrue().statements().get(0)).right()));
+
+		var ifTaken = (IfStatement) statements.get(1);
+		assertEquals(Boolean.TRUE, value(ifTaken.condition()));
+		assertNull(ifTaken.elseBlock());
+		assertEquals(1, value(((AssignmentStatement) ifTaken.blockIfTrue().statements().get(0)).right()));
+
+		assertInstanceOf(IdentifierExpression.class, ((IfStatement) statements.get(2)).condition());
+	}
+
+	@Test
+	void testSameOutputAndErrors() {
+		String text = """
+				główna() {
+				  suma = 0;
+				  dla i w zakres(0, 10) {
+				    suma += i * (2 + 3) - 10 / 4;
+				    jeżeli (nie (i < 5) oraz 2.5 * 2 == 5) {
+				      suma += 1;
+				    }
+				  }
+				  p = prawda;
+				  napisz(suma);
+				  napisz(nie p);
+				  napisz(-suma);
+				}
+				""";
+		assertEquals("210\nfalse\n-210\n", run(text));
+
+		String zeroDivision = "główna() {\n  jeżeli (prawda) {\n    x = 1 / (2 - 2);\n  }\n}\n";
+		assertThrows(SemanticException.class, () -> run(zeroDivision));
+		String notBoolean = "główna() {\n  jeżeli (1 + 1) {\n    x = 1;\n  }\n}\n";
+		assertThrows(SemanticException.class, () -> run(notBoolean));
+	}
+
+	private static Expression foldAssigned(String expression) {
+		var statements = foldMain("główna() {\n  wynik = " + expression + ";\n}\n");
+		return ((AssignmentStatement) statements.get(0)).right();
+	}
+
+	private static List<Statement> foldMain(String text) {
+		var main = (UserFunctionDefinition) ConstantFolder.fold(parse(text).functionDefinitions().get("główna"));
+		return main.block().statements();
+	}
+
+	private static Object value(Expression expression) {
+		if (expression instanceof LiteralInteger literal) {
+			return literal.value();
+		}
+		if (expression instanceof LiteralFloat literal) {
+			return literal.value();
+		}
+		return ((LiteralBool) expression).value();
+	}
+
+	private static String run(String text) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(parse(text));
+		return interpreter.getOutput();
+	}
+
+}
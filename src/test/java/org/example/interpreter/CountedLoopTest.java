@@ -0,0 +1,74 @@
+package org.example.interpreter;
+
+import org.example.error.exception.SemanticException;
+import org.example.error.manager.ErrorManager;
+import org.junit.jupiter.api.Test;
+
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CountedLoopTest {
+
+	@Test
+	void testSameOutputAsList() {
+		String text = """
+				pierwszy_większy(od, do, próg) {
+				  dla i w zakres(od, do) {
+				    jeżeli (i > próg) {
+				      zwróć i;
+				    }
+				  }
+				  zwróć -1;
+				}
+				główna() {
+				  suma = 0;
+				  dla i w zakres(0, 4) {
+				    dla j w zakres(i, 4) {
+				      suma += j;
+				    }
+				    i = 100;
+				  }
+				  napisz(suma);
+				  dla i w zakres(3, 1) {
+				    napisz(i);
+				  }
+				  napisz(pierwszy_większy(0, 10, 6));
+				  napisz(pierwszy_większy(0, 5, 6));
+				}
+				""";
+		String expected = "20\n7\n-1\n";
+		assertEquals(expected, run(text));
+		// a range kept in a variable is still a list
+		String viaList = text.replace("dla j w zakres(i, 4)", "r = zakres(i, 4);\n    dla j w r");
+		assertEquals(expected, run(viaList));
+	}
+
+	@Test
+	void testLargeRangeWithoutList() {
+		String text = """
+				główna() {
+				  ostatni = -1;
+				  dla i w zakres(0, 10000000) {
+				    ostatni = i;
+				  }
+				  napisz(ostatni);
+				}
+				""";
+		assertEquals("9999999\n", run(text));
+	}
+
+	@Test
+	void testIncorrectRange() {
+		assertThrows(SemanticException.class, () -> run("główna() {\n  dla i w zakres(0, \"a\") {\n  }\n}\n"));
+		assertThrows(SemanticException.class, () -> run("główna() {\n  dla i w zakres(0, 1.5) {\n  }\n}\n"));
+		assertThrows(SemanticException.class, () -> run("główna() {\n  dla i w zakres(3) {\n  }\n}\n"));
+	}
+
+	private static String run(String text) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(parse(text));
+		return interpreter.getOutput();
+	}
+
+}
@@ -1,10 +1,12 @@
 package org.example.interpreter;
 
 import org.example.interpreter.accessible.ValueReference;
+import org.example.interpreter.environment.ContextType;
 import org.example.interpreter.environment.Environment;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class EnvironmentTest {
@@ -27,4 +29,29 @@ public class EnvironmentTest {
         assertNull(environment.find("var2"));
 	}
 
+	@Test
+	void testFramesReused() {
+		Environment environment = new Environment();
+		environment.enterFunctionCall();
+		for (int i = 0; i < 200; i++) {
+			environment.enterMethodCall();
+			assertEquals(ContextType.METHOD, environment.getContextType());
+			assertNull(environment.find("this"));
+			environment.store("this", new ValueReference(i));
+			environment.store(i % 3, new ValueReference(i));
+			environment.setIsAssignment(true);
+			environment.enterConstructorCall();
+			assertEquals(ContextType.CONSTRUCTOR, environment.getContextType());
+			assertFalse(environment.isAssignment());
+			environment.reserveSlots(3);
+			assertNull(environment.find(i % 3));
+			environment.exitCurrentCall();
+			assertEquals(i, environment.find(i % 3).getValue());
+			assertEquals(i, environment.find("this").getValue());
+			environment.exitCurrentCall();
+		}
+		assertEquals(ContextType.FUNCTION, environment.getContextType());
+		assertNull(environment.find("this"));
+	}
+
 }
@@ -4,6 +4,7 @@ import org.example.error.exception.SemanticException;
 import org.example.error.manager.ErrorManager;
 import org.example.lexer.LexerImpl;
 import org.example.parser.ParserImpl;
+import org.example.programstructure.containers.Program;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -175,7 +176,10 @@ public class InterpreterErrorManagingTest {
                 Arguments.of("2 + prawda", "Semantic error of type: OPERATION_NOT_SUPPORTED: << 2 + prawda >> at line 1"),
                 Arguments.of("prawda >= fałsz", "Semantic error of type: OPERATION_NOT_SUPPORTED: << prawda >= fałsz >> at line 1"),
                 Arguments.of("2 * 4 / 0", "Semantic error of type: ZERO_DIVISION: << 2 * 4 / 0 >> at line 1"),
-                Arguments.of("1 * 2 oraz 3", "Semantic error of type: OPERATION_NOT_SUPPORTED: << 1 * 2 oraz 3 >> at line 1")
+                Arguments.of("1 * 2 oraz 3", "Semantic error of type: OPERATION_NOT_SUPPORTED: << 1 * 2 oraz 3 >> at line 1"),
+                Arguments.of("2 * 3 + \"a\"", "Semantic error of type: OPERATION_NOT_SUPPORTED: << 2 * 3 + a >> at line 1"),
+                Arguments.of("-(1 + 2) * \"a\"", "Semantic error of type: OPERATION_NOT_SUPPORTED: << - 1 + 2 * a >> at line 1"),
+                Arguments.of("zakres(-2000000000, 2000000000)", "Semantic error of type: RANGE_TOO_LONG: << zakres(- 2000000000,2000... >> at line 1")
                 );
     }
 
@@ -192,15 +196,22 @@ public class InterpreterErrorManagingTest {
         return "główna() { var = %s; } ".formatted(expression);
     }
 
-    private static void readFromString(String input) {
+    private void readFromString(String input) {
         try (BufferedReader reader = new BufferedReader(new StringReader(input))) {
             var lexer = new LexerImpl(reader, ErrorManager::handleError);
             var parser = new ParserImpl(lexer, ErrorManager::handleError);
             var program = parser.parse();
-            Interpreter interpreter = new Interpreter(ErrorManager::handleError);
-            interpreter.execute(program);
+            execute(program);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Overridden to check the same errors on another backend
+     */
+    protected void execute(Program program) {
+        Interpreter interpreter = new Interpreter(ErrorManager::handleError);
+        interpreter.execute(program);
+    }
 }
@@ -3,6 +3,7 @@ package org.example.interpreter;
 import org.example.error.manager.ErrorManager;
 import org.example.lexer.LexerImpl;
 import org.example.parser.ParserImpl;
+import org.example.programstructure.containers.Program;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedReader;
@@ -89,18 +90,38 @@ public class InterpreterTest {
         assertEquals(expectedOutput, actualOutput);
     }
 
-	private static String readFromFile(String path) {
+    @Test
+    void testInterpretLongArguments() {
+        // integral values computed as longs, which fit in an int, are accepted as indices and bounds
+        String path = "src/test/resources/interpreter/longArguments.txt";
+        String expectedOutput = """
+                2 2
+                0
+                1
+                """;
+        String actualOutput = readFromFile(path);
+        assertEquals(expectedOutput, actualOutput);
+    }
+
+	private String readFromFile(String path) {
 		try (FileReader fileReader = new FileReader(path)) {
 			var file = new BufferedReader(fileReader);
 			var lexer = new LexerImpl(file, ErrorManager::handleError);
 			var parser = new ParserImpl(lexer, ErrorManager::handleError);
 			var program = parser.parse();
-			boolean testingMode = true;
-			Interpreter interpreter = new Interpreter(ErrorManager::handleError, testingMode);
-			interpreter.execute(program);
-			return interpreter.getOutput();
+			return execute(program);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
 	}
+
+	/**
+	 * @return output of the program, overridden to run the same programs on another backend
+	 */
+	protected String execute(Program program) {
+		boolean testingMode = true;
+		Interpreter interpreter = new Interpreter(ErrorManager::handleError, testingMode);
+		interpreter.execute(program);
+		return interpreter.getOutput();
+	}
 }
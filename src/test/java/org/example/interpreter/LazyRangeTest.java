@@ -0,0 +1,83 @@
+package org.example.interpreter;
+
+import org.example.error.exception.SemanticException;
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.builtins.IntRange;
+import org.example.interpreter.builtins.ListInstance;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyRangeTest {
+
+	@Test
+	void testRange() {
+		var range = new IntRange(-2, 3);
+		assertEquals(5, range.size());
+		assertEquals(List.of(-2, -1, 0, 1, 2), range);
+		assertEquals(0, range.get(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> range.get(5));
+		assertThrows(UnsupportedOperationException.class, () -> range.add(3));
+		assertTrue(new IntRange(3, 1).isEmpty());
+		assertEquals(Integer.MAX_VALUE, new IntRange(0, Integer.MAX_VALUE).size());
+	}
+
+	@Test
+	void testCopiedOnFirstChange() {
+		var listInstance = new ListInstance(new IntRange(0, 3));
+		assertInstanceOf(IntRange.class, listInstance.getList());
+		List<Object> list = listInstance.getMutableList();
+		assertInstanceOf(ArrayList.class, list);
+		assertSame(list, listInstance.getList());
+		assertSame(list, listInstance.getMutableList());
+		assertEquals(List.of(0, 1, 2), list);
+	}
+
+	@Test
+	void testRangeInVariables() {
+		String text = """
+				suma(lista) {
+				  wynik = 0;
+				  dla x w lista {
+				    wynik += x;
+				  }
+				  zwróć wynik;
+				}
+				główna() {
+				  duży = zakres(0, 2000000000);
+				  napisz(duży.długość());
+				  napisz(duży.pobierz(1999999999));
+				  r = zakres(5, 10);
+				  kopia = r;
+				  napisz(suma(r));
+				  r.dodaj(100);
+				  napisz(r.usuń(0));
+				  napisz(kopia.długość());
+				  napisz(kopia.pobierz(0));
+				  napisz(kopia.pobierz(4));
+				}
+				""";
+		assertEquals("2000000000\n1999999999\n35\n5\n5\n6\n100\n", run(text));
+		assertThrows(SemanticException.class,
+				() -> run("główna() {\n  r = zakres(0, 3);\n  napisz(r.pobierz(3));\n}\n"));
+	}
+
+	@Test
+	void testRemoveOutOfBoundsNotCopied() {
+		var exception = assertThrows(SemanticException.class,
+				() -> run("główna() {\n  r = zakres(0, 2000000000);\n  r.usuń(2000000000);\n}\n"));
+		assertEquals("Semantic error of type: INDEX_OUT_OF_BOUND: << usuń(2000000000) >> at line 3",
+				exception.getMessage());
+	}
+
+	private static String run(String text) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(parse(text));
+		return interpreter.getOutput();
+	}
+
+}
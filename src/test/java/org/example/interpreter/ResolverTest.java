@@ -0,0 +1,147 @@
+package org.example.interpreter;
+
+import org.example.error.exception.SemanticException;
+import org.example.error.manager.ErrorManager;
+import org.example.programstructure.containers.Block;
+import org.example.programstructure.containers.LazyFunctionDefinition;
+import org.example.programstructure.containers.Parameter;
+import org.example.programstructure.containers.Program;
+import org.example.programstructure.containers.UserClassDefinition;
+import org.example.programstructure.containers.UserFunctionDefinition;
+import org.example.programstructure.expression.IdentifierExpression;
+import org.example.programstructure.statement.AssignmentStatement;
+import org.example.programstructure.statement.ForStatement;
+import org.example.programstructure.statement.IfStatement;
+import org.example.programstructure.statement.ObjectAccess;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResolverTest {
+
+	@Test
+	void testSlots() {
+		String text = """
+				funkcja(a, b) {
+				  c = a;
+				  jeżeli (c > b) {
+				    d = c;
+				    c = d;
+				  }
+				  e = b;
+				  dla i w zakres(0, e) {
+				    a = i;
+				  }
+				}
+				""";
+		var function = (UserFunctionDefinition) Resolver.resolve(parse(text).functionDefinitions().get("funkcja"));
+		List<Parameter> parameters = function.parameters();
+		assertEquals(List.of(new Parameter("a", 0), new Parameter("b", 1)), parameters);
+		var statements = function.block().statements();
+
+		var assignment = (AssignmentStatement) statements.get(0);
+		assertIdentifier(assignment.left(), 2, true);
+		assertIdentifier(assignment.right(), 0, false);
+
+		List<?> inner = ((IfStatement) statements.get(1)).blockIfTrue().statements();
+		assertIdentifier(((AssignmentStatement) inner.get(0)).left(), 3, true);
+		assertIdentifier(((AssignmentStatement) inner.get(1)).left(), 2, false);
+
+		// the slot of d is free again after its block
+		assertIdentifier(((AssignmentStatement) statements.get(2)).left(), 3, true);
+
+		var loop = (ForStatement) statements.get(3);
+		assertEquals(4, loop.iteratorSlot());
+		var loopAssignment = (AssignmentStatement) loop.block().statements().get(0);
+		assertIdentifier(loopAssignment.left(), 0, false);
+		assertIdentifier(loopAssignment.right(), 4, false);
+		assertEquals(5, function.slotCount());
+	}
+
+	@Test
+	void testAttributesAndUndefinedNames() {
+		String text = """
+				klasa A {
+				  A(x) {
+				    tenże.x = x;
+				  }
+				  metoda(y) {
+				    z = tenże.x;
+				    a = A(y);
+				    a.x = nieznana;
+				    zwróć a.metoda(y);
+				  }
+				}
+				""";
+		var classDefinition = (UserClassDefinition) Resolver.resolve(parse(text).classDefinitions().get("A"));
+		var method = (UserFunctionDefinition) classDefinition.methods().get("metoda");
+		var statements = method.block().statements();
+		var attributeAssignment = (AssignmentStatement) statements.get(2);
+		var access = (ObjectAccess) attributeAssignment.left();
+		assertIdentifier(access.left(), 2, false);
+		assertIdentifier(access.right(), IdentifierExpression.NO_SLOT, false);
+		assertIdentifier(attributeAssignment.right(), IdentifierExpression.NO_SLOT, false);
+	}
+
+	@Test
+	void testLazyFunctionResolvedWhenVisited() {
+		String text = "funkcja(a) {\n  b = a;\n}\n";
+		Program program = parse(text, true);
+		var lazy = (LazyFunctionDefinition) Resolver.resolve(program.functionDefinitions().get("funkcja"));
+		assertFalse(lazy.isResolved());
+		assertEquals(List.of(new Parameter("a", 0)), lazy.parameters());
+		Block block = lazy.resolve().block();
+		assertIdentifier(((AssignmentStatement) block.statements().get(0)).left(), 1, true);
+		assertEquals(2, lazy.resolve().slotCount());
+	}
+
+	@Test
+	void testScopesAsBefore() {
+		String text = """
+				klasa Licznik {
+				  Licznik(wartość) {
+				    tenże.wartość = wartość;
+				  }
+				}
+				główna() {
+				  i = 10;
+				  l = Lista();
+				  dla i w zakres(0, 3) {
+				    licznik = Licznik(i);
+				    l.dodaj(licznik);
+				  }
+				  dla j w zakres(0, l.długość()) {
+				    napisz(l.pobierz(j).wartość);
+				  }
+				  napisz(i);
+				}
+				""";
+		assertEquals("0\n1\n2\n10\n", run(text));
+
+		String outOfScope = """
+				główna() {
+				  jeżeli (prawda) {
+				    x = 1;
+				  }
+				  napisz(x);
+				}
+				""";
+		assertThrows(SemanticException.class, () -> run(outOfScope));
+	}
+
+	private static void assertIdentifier(Object expression, int slot, boolean declaration) {
+		var identifier = assertInstanceOf(IdentifierExpression.class, expression);
+		assertEquals(slot, identifier.slot());
+		assertEquals(declaration, identifier.declaration());
+	}
+
+	private static String run(String text) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(parse(text));
+		return interpreter.getOutput();
+	}
+
+}
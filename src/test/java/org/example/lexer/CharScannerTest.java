@@ -0,0 +1,57 @@
+package org.example.lexer;
+
+import org.example.lexer.source.CharScanner;
+import org.example.lexer.source.CharacterSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CharScannerTest {
+
+	private static final char[] ALPHABET = {' ', ' ', ' ', '\t', 'a', '\n', '\r', CharacterSource.ETX, 'ż', '/'};
+
+	@Test
+	void testSkipBlanks() {
+		assertEquals(4, CharScanner.skipBlanks("    x".toCharArray(), 0, 5));
+		assertEquals(0, CharScanner.skipBlanks("x    ".toCharArray(), 0, 5));
+		assertEquals(100, CharScanner.skipBlanks(" \t".repeat(50).toCharArray(), 0, 100));
+		assertEquals(70, CharScanner.skipBlanks((" ".repeat(70) + "\n").toCharArray(), 3, 71));
+		assertEquals(40, CharScanner.skipBlanks((" ".repeat(70) + "\n").toCharArray(), 3, 40));
+	}
+
+	@Test
+	void testFindLineEnd() {
+		assertEquals(5, CharScanner.findLineEnd("// ab\ncd".toCharArray(), 2, 8));
+		assertEquals(8, CharScanner.findLineEnd("// abcde".toCharArray(), 2, 8));
+		assertEquals(67, CharScanner.findLineEnd(("x".repeat(67) + "\r\n").toCharArray(), 0, 69));
+		assertEquals(33, CharScanner.findLineEnd(("x".repeat(33) + CharacterSource.ETX).toCharArray(), 0, 34));
+	}
+
+	@Test
+	void testSameAsCharacterByCharacter() {
+		var random = new Random(7);
+		for (int test = 0; test < 1000; test++) {
+			char[] text = new char[random.nextInt(200)];
+			int blankRun = random.nextInt(text.length + 1);
+			for (int i = 0; i < text.length; i++) {
+				text[i] = i < blankRun && random.nextInt(20) > 0 ? ' ' : ALPHABET[random.nextInt(ALPHABET.length)];
+			}
+			int from = random.nextInt(text.length + 1);
+			int to = from + random.nextInt(text.length - from + 1);
+
+			int blanksEnd = from;
+			while (blanksEnd < to && (text[blanksEnd] == ' ' || text[blanksEnd] == '\t')) {
+				blanksEnd++;
+			}
+			int lineEnd = from;
+			while (lineEnd < to && text[lineEnd] != '\n' && text[lineEnd] != '\r' && text[lineEnd] != CharacterSource.ETX) {
+				lineEnd++;
+			}
+			assertEquals(blanksEnd, CharScanner.skipBlanks(text, from, to));
+			assertEquals(lineEnd, CharScanner.findLineEnd(text, from, to));
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+package org.example.lexer;
+
+import org.example.commons.Position;
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.lexer.source.ChannelCharacterSource;
+import org.example.lexer.source.CharacterSource;
+import org.example.lexer.source.MappedCharacterSource;
+import org.example.lexer.source.ReaderCharacterSource;
+import org.example.token.Token;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.lexer.LexerTestUtils.assertSameTokens;
+import static org.example.lexer.LexerTestUtils.readTokens;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CharacterSourceTest {
+
+	private static Stream<Arguments> testLineSeparators() {
+		return Stream.of(
+				Arguments.of("a\nb"),
+				Arguments.of("a\r\nb\r\n"),
+				Arguments.of("a\rb\r"),
+				Arguments.of("a\n\rb"),
+				Arguments.of("a\n\nb\r\r\nc"),
+				Arguments.of("\r\n\r\n\n")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testLineSeparators(String input) {
+		// window of size 1 forces every line separator pair to be split between two fills
+		for (int windowSize : new int[]{1, 2, 3, BufferedCharacterSource.DEFAULT_WINDOW_SIZE}) {
+			var expected = new ReaderCharacterSource(new BufferedReader(new StringReader(input)));
+			var actual = new BufferedCharacterSource(new StringReader(input), windowSize);
+			assertSameCharacters(expected, actual);
+		}
+		var fromArray = new BufferedCharacterSource(input.toCharArray(), 0, input.length());
+		assertSameCharacters(new ReaderCharacterSource(new BufferedReader(new StringReader(input))), fromArray);
+	}
+
+	private static Stream<Arguments> testSameTokens() {
+		return Stream.of(
+				Arguments.of("src/test/resources/lexer/escapeCharacter.txt"),
+				Arguments.of("src/test/resources/lexer/input.txt"),
+				Arguments.of("src/test/resources/lexer/loopAndIf.txt"),
+				Arguments.of("src/test/resources/lexer/methodCalls.txt"),
+				Arguments.of("src/test/resources/lexer/operations.txt"),
+				Arguments.of("src/test/resources/lexer/positions.txt")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameTokens(String path) throws IOException {
+		List<Token> expectedTokens;
+		List<Token> actualTokens;
+		try (var reader = new BufferedReader(new FileReader(path))) {
+			expectedTokens = readTokens(new LexerImpl(reader, ErrorManager::handleError));
+		}
+		try (var reader = new FileReader(path)) {
+			actualTokens = readTokens(new LexerImpl(new BufferedCharacterSource(reader, 7), ErrorManager::handleError));
+		}
+		assertSameTokens(expectedTokens, actualTokens);
+	}
+
+	private static Stream<Arguments> testMappedFile() {
+		return Stream.of(
+				Arguments.of("główna() {\r\n    napisz(\"zażółć gęślą jaźń\");\r\n}"),
+				Arguments.of("ĄĆĘŁŃÓŚŹŻ\nąćęłńóśźż"),
+				Arguments.of("three bytes: € ✓, four bytes: \uD83D\uDC0D"),
+				Arguments.of("")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testMappedFile(String input) throws IOException {
+		Path file = Files.createTempFile("mapped", ".txt");
+		try {
+			Files.writeString(file, input, StandardCharsets.UTF_8);
+			for (int windowSize : new int[]{2, 3, 5, BufferedCharacterSource.DEFAULT_WINDOW_SIZE}) {
+				try (var actual = MappedCharacterSource.open(file, windowSize)) {
+					var expected = new ReaderCharacterSource(new BufferedReader(new StringReader(input)));
+					assertSameCharacters(expected, actual);
+				}
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("testSameTokens")
+	void testMappedFileTokens(String path) throws IOException {
+		List<Token> expectedTokens;
+		List<Token> actualTokens;
+		try (var reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+			expectedTokens = readTokens(new LexerImpl(reader, ErrorManager::handleError));
+		}
+		try (var source = MappedCharacterSource.open(Path.of(path))) {
+			actualTokens = readTokens(new LexerImpl(source, ErrorManager::handleError));
+		}
+		assertSameTokens(expectedTokens, actualTokens);
+	}
+
+	@ParameterizedTest
+	@MethodSource("testMappedFile")
+	void testChannel(String input) throws IOException {
+		byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+		// small buffers split multi-byte sequences and surrogate pairs between reads
+		for (int bufferSize : new int[]{4, 5, 7, ChannelCharacterSource.DEFAULT_BUFFER_SIZE}) {
+			for (int windowSize : new int[]{2, 3, BufferedCharacterSource.DEFAULT_WINDOW_SIZE}) {
+				try (var actual = new ChannelCharacterSource(Channels.newChannel(new ByteArrayInputStream(bytes)),
+						bufferSize, windowSize)) {
+					var expected = new ReaderCharacterSource(new BufferedReader(new StringReader(input)));
+					assertSameCharacters(expected, actual);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testChannelMalformedInput() throws IOException {
+		byte[] bytes = {'a', (byte) 0xC5, 'b', (byte) 0xE2, (byte) 0x82};
+		try (var source = new ChannelCharacterSource(Channels.newChannel(new ByteArrayInputStream(bytes)), 4, 2)) {
+			assertEquals('a', source.next());
+			assertEquals('\uFFFD', source.next());
+			assertEquals('b', source.next());
+			assertEquals('\uFFFD', source.next());
+			assertEquals(CharacterSource.ETX, source.next());
+		}
+	}
+
+	@ParameterizedTest
+	@MethodSource("testSameTokens")
+	void testChannelTokens(String path) throws IOException {
+		List<Token> expectedTokens;
+		List<Token> actualTokens;
+		try (var reader = Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8)) {
+			expectedTokens = readTokens(new LexerImpl(reader, ErrorManager::handleError));
+		}
+		try (var source = new ChannelCharacterSource(FileChannel.open(Path.of(path)), 16, 16)) {
+			actualTokens = readTokens(new LexerImpl(source, ErrorManager::handleError));
+		}
+		assertSameTokens(expectedTokens, actualTokens);
+	}
+
+	private static void assertSameCharacters(CharacterSource expected, CharacterSource actual) {
+		char expectedChar;
+		do {
+			expectedChar = expected.next();
+			assertEquals(expectedChar, actual.next());
+			Position expectedPosition = expected.getPosition();
+			Position actualPosition = actual.getPosition();
+			assertEquals(expectedPosition.getLineNumber(), actualPosition.getLineNumber());
+			assertEquals(expectedPosition.getCharacterNumber(), actualPosition.getCharacterNumber());
+		} while (expectedChar != CharacterSource.ETX);
+	}
+
+}
@@ -44,10 +44,10 @@ public class LexerErrorManagingTest {
 	}
 
 	private static Stream<Arguments> testNumericLimitExceeded() {
-		// Maximal integer value == 2147483647
+		// Maximal integer value == 9223372036854775807
 		return Stream.of(
-				Arguments.of("2147483648", "Numeric expression: 214748364... at line 1 position 1 exceeds limit"),
-				Arguments.of("0.2147483648", "Numeric expression: 0.214748364... at line 1 position 1 exceeds limit")
+				Arguments.of("9223372036854775808", "Numeric expression: 922337203685477580... at line 1 position 1 exceeds limit"),
+				Arguments.of("100000000000000000000 + 1", "Numeric expression: 1000000000000000000... at line 1 position 1 exceeds limit")
 		);
 	}
 
@@ -25,7 +25,7 @@ public class LexerStringInputTest {
     * Method with annotation @ParameterizedTest reads the stream of pairs and performs assertion
     */
     private static Stream<Arguments> testReadingIntegers() throws IOException {
-        String input = "22 348 \t 9 9999  \n 102456 2147483647";
+        String input = "22 348 \t 9 9999  \n 102456 2147483647 2147483648 9223372036854775807";
         List<Token> expectedTokens = Arrays.asList(
             new TokenInteger(new Position(), 22),
             new TokenInteger(new Position(), 348),
@@ -33,6 +33,8 @@ public class LexerStringInputTest {
             new TokenInteger(new Position(), 9999),
             new TokenInteger(new Position(), 102456),
             new TokenInteger(new Position(), Integer.MAX_VALUE),
+            new TokenInteger(new Position(), 2147483648L),
+            new TokenInteger(new Position(), Long.MAX_VALUE),
             new TokenEOF(new Position(0, 22))
         );
         List<Token> actualTokens = readFromString(input);
@@ -43,7 +45,7 @@ public class LexerStringInputTest {
     @ParameterizedTest
     @MethodSource
     void testReadingIntegers(Token expectedToken, Token actualToken) {
-        assertEquals((Integer) expectedToken.getValue(), actualToken.getValue());
+        assertEquals((Number) expectedToken.getValue(), actualToken.getValue());
         assertEquals(expectedToken.getType(), actualToken.getType());
     }
 
@@ -79,13 +81,17 @@ public class LexerStringInputTest {
     }
 
     private static Stream<Arguments> testReadingFloats() throws IOException {
-        String input = "22.22 348.098473 \t 9. 9999.12342423  \n 0.102456";
+        String input = "22.22 348.098473 \t 9. 9999.12342423  \n 0.102456 0.1234567890123456789012345"
+                + " 9223372036854775808.5 100000000000000000000.0";
         List<Token> expectedTokens = Arrays.asList(
                 new TokenFloat(new Position(), 22.22),
                 new TokenFloat(new Position(), 348.098473),
                 new TokenFloat(new Position(), 9.0),
                 new TokenFloat(new Position(), 9999.12342423),
                 new TokenFloat(new Position(), 0.102456),
+                new TokenFloat(new Position(), 0.1234567890123456789012345),
+                new TokenFloat(new Position(), 9223372036854775808.5),
+                new TokenFloat(new Position(), 100000000000000000000.0),
                 new TokenEOF(new Position())
         );
         List<Token> actualTokens = readFromString(input);
@@ -0,0 +1,48 @@
+package org.example.lexer;
+
+import org.example.token.Token;
+import org.example.token.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads and compares tokens, for tests of lexers which must give the same tokens as LexerImpl
+ */
+public final class LexerTestUtils {
+
+	private LexerTestUtils() {
+	}
+
+	/**
+	 * @return all tokens of the lexer, the END_OF_FILE token included
+	 */
+	public static List<Token> readTokens(Lexer lexer) {
+		List<Token> tokens = new ArrayList<>();
+		Token token = lexer.next();
+		while (token.getType() != TokenType.END_OF_FILE) {
+			tokens.add(token);
+			token = lexer.next();
+		}
+		tokens.add(token);
+		return tokens;
+	}
+
+	/**
+	 * Compares types, values and positions, tokens of different lexers are of different classes
+	 */
+	public static void assertSameTokens(List<Token> expectedTokens, List<Token> actualTokens) {
+		assertEquals(expectedTokens.size(), actualTokens.size());
+		for (int i = 0; i < expectedTokens.size(); i++) {
+			Token expected = expectedTokens.get(i);
+			Token actual = actualTokens.get(i);
+			assertEquals(expected.getType(), actual.getType());
+			assertEquals((Object) expected.getValue(), actual.getValue());
+			assertEquals(expected.getPosition().getLineNumber(), actual.getPosition().getLineNumber());
+			assertEquals(expected.getPosition().getCharacterNumber(), actual.getPosition().getCharacterNumber());
+		}
+	}
+
+}
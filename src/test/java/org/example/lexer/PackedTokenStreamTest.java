@@ -0,0 +1,168 @@
+package org.example.lexer;
+
+import com.sun.management.ThreadMXBean;
+import org.example.error.exception.LexicalException;
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.token.Token;
+import org.example.token.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.lexer.LexerTestUtils.assertSameTokens;
+import static org.example.lexer.LexerTestUtils.readTokens;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedTokenStreamTest {
+
+	private static Stream<Arguments> testSameTokensAsLexer() {
+		return Stream.of(
+				Arguments.of("src/test/resources/lexer/escapeCharacter.txt"),
+				Arguments.of("src/test/resources/lexer/input.txt"),
+				Arguments.of("src/test/resources/lexer/loopAndIf.txt"),
+				Arguments.of("src/test/resources/lexer/methodCalls.txt"),
+				Arguments.of("src/test/resources/lexer/operations.txt"),
+				Arguments.of("src/test/resources/lexer/positions.txt"),
+				Arguments.of("src/test/resources/interpreter/fibonacci.txt"),
+				Arguments.of("src/test/resources/parser/definitions.txt")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameTokensAsLexer(String path) throws IOException {
+		List<Token> expectedTokens;
+		PackedTokenStream stream;
+		try (var reader = new BufferedReader(new FileReader(path))) {
+			expectedTokens = readTokens(new LexerImpl(reader, ErrorManager::handleError));
+		}
+		try (var reader = new FileReader(path)) {
+			stream = PackedTokenStream.read(reader, ErrorManager::handleError);
+		}
+		assertEquals(expectedTokens.size(), stream.size());
+		assertSameTokens(expectedTokens, readTokens(stream));
+	}
+
+	private static Stream<Arguments> testSameTokensFromString() {
+		return Stream.of(
+				Arguments.of("a\r\nb\n\rc\rd"),
+				Arguments.of("x = \"line\r\nbreak\\\r\nescaped \\\"\\t\\n\" + 1;"),
+				Arguments.of("12 12.0 12. 0.05 3.14159 2147483647 0.2147483647"),
+				Arguments.of("2147483648 9223372036854775807 0.1234567890123456789012345 123456789012345678.9"),
+				Arguments.of("92233720368547758070.5 100000000000000000000.0"),
+				Arguments.of("a+=1-=2==3!=4<=5>=6<7>8/9*0 // comment\r\nnext"),
+				Arguments.of("jeżeli (prawda oraz nie fałsz) { zwróć ąę_1; }"),
+				Arguments.of("// comment at the end"),
+				Arguments.of("")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameTokensFromString(String input) {
+		var expectedTokens = readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError));
+		var actualTokens = readTokens(new PackedTokenStream(input.toCharArray(), input.length(), ErrorManager::handleError));
+		assertSameTokens(expectedTokens, actualTokens);
+	}
+
+	private static Stream<Arguments> testSameErrors() {
+		return Stream.of(
+				Arguments.of("a = 1;\n  b = @#$;"),
+				Arguments.of("a = 1;\n  b = 9223372036854775808;"),
+				Arguments.of("a = 1;\n  b = 92233720368547758070 + 0.5;"),
+				Arguments.of("a = 1;\n  b = 12.3abc;"),
+				Arguments.of("a = 1;\n  b != c !+ d"),
+				Arguments.of("a = 1;\n  b = \"not closed"),
+				Arguments.of("a = 1;\n  b = \"" + "x".repeat(1025) + "\""),
+				Arguments.of("a = 1;\n  // " + "x".repeat(1025)),
+				Arguments.of("a = 1;\n  " + "a".repeat(257))
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameErrors(String input) {
+		var expected = assertThrows(LexicalException.class,
+				() -> readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError)));
+		var stream = new PackedTokenStream(input.toCharArray(), input.length(), ErrorManager::handleError);
+		assertNull(stream.getType(stream.size() - 1));
+		var actual = assertThrows(LexicalException.class, () -> readTokens(stream));
+		assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+	@Test
+	void testSkipComments() {
+		String input = "// first\n\t\tx = 1; // second\r\n    // third\n\n  y = \"// not a comment\"; //";
+		var expectedTokens = readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError))
+				.stream().filter(token -> token.getType() != TokenType.COMMENT).toList();
+		var lexerTokens = readTokens(new LexerImpl(new BufferedCharacterSource(new StringReader(input)),
+				ErrorManager::handleError, true));
+		var stream = new PackedTokenStream(input.toCharArray(), input.length(), ErrorManager::handleError, true);
+
+		assertEquals(expectedTokens.size(), stream.size());
+		assertSameTokens(expectedTokens, lexerTokens);
+		assertSameTokens(expectedTokens, readTokens(stream));
+	}
+
+	@Test
+	void testSkippedCommentTooLong() {
+		String input = "x = 1;\n  // " + "abc".repeat(400);
+		var expected = assertThrows(LexicalException.class,
+				() -> readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError)));
+		var fromLexer = assertThrows(LexicalException.class, () -> readTokens(new LexerImpl(
+				new BufferedCharacterSource(new StringReader(input)), ErrorManager::handleError, true)));
+		var fromStream = assertThrows(LexicalException.class, () -> readTokens(
+				new PackedTokenStream(input.toCharArray(), input.length(), ErrorManager::handleError, true)));
+
+		assertEquals(expected.getMessage(), fromLexer.getMessage());
+		assertEquals(expected.getMessage(), fromStream.getMessage());
+	}
+
+	@Test
+	void testRawAccess() {
+		String input = "x = 12;\n  napisz(x)";
+		var stream = new PackedTokenStream(input.toCharArray(), input.length(), ErrorManager::handleError);
+
+		assertEquals(9, stream.size());
+		assertEquals(TokenType.INTEGER, stream.getType(2));
+		assertEquals(4, stream.getOffset(2));
+		assertEquals(2, stream.getLength(2));
+		assertEquals(TokenType.IDENTIFIER, stream.getType(4));
+		assertEquals(2, stream.getLineNumber(4));
+		assertEquals(3, stream.getCharacterNumber(4));
+		assertEquals(TokenType.END_OF_FILE, stream.getType(8));
+	}
+
+	@Test
+	void testScanDoesNotAllocatePerToken() {
+		String input = "jeżeli (licznik >= 10) { licznik += 1; napisz(\"tekst\", 3.14); } // komentarz\n".repeat(2000);
+		char[] text = input.toCharArray();
+		var threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		// the smallest of many measurements, so that class loading and compilation of the scanner do not count
+		PackedTokenStream stream = null;
+		long allocated = Long.MAX_VALUE;
+		for (int i = 0; i < 100; i++) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			stream = new PackedTokenStream(text, text.length, ErrorManager::handleError);
+			allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadId) - before);
+		}
+
+		// int[] types, offsets and lengths, growing them at most doubles the footprint
+		long arrays = (long) stream.capacity() * 3 * Integer.BYTES;
+		assertTrue(stream.size() > 40_000);
+		assertTrue(allocated < 2 * arrays + 64 * 1024, "allocated " + allocated + " bytes, arrays take " + arrays);
+	}
+
+}
@@ -0,0 +1,113 @@
+package org.example.lexer;
+
+import org.example.error.exception.LexicalException;
+import org.example.error.manager.ErrorManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.example.lexer.LexerTestUtils.readTokens;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelLexerTest {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	private static Stream<Arguments> testSameTokens() {
+		return Stream.of(
+				Arguments.of("src/test/resources/lexer/escapeCharacter.txt"),
+				Arguments.of("src/test/resources/lexer/input.txt"),
+				Arguments.of("src/test/resources/lexer/loopAndIf.txt"),
+				Arguments.of("src/test/resources/lexer/methodCalls.txt"),
+				Arguments.of("src/test/resources/lexer/operations.txt"),
+				Arguments.of("src/test/resources/lexer/positions.txt"),
+				Arguments.of("src/test/resources/interpreter/fibonacci.txt"),
+				Arguments.of("src/test/resources/parser/definitions.txt")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameTokens(String path) throws IOException {
+		String input = Files.readString(Path.of(path)).repeat(50);
+		for (int chunkSize : new int[]{1, 16, 1000, ParallelLexer.DEFAULT_CHUNK_SIZE}) {
+			assertSameTokens(input, chunkSize);
+		}
+	}
+
+	private static Stream<Arguments> testChunkBoundaries() {
+		return Stream.of(
+				Arguments.of("a\r\nb\n\rc\rd\n\ne"),
+				Arguments.of("x = \"first\nsecond\r\nthird\";\ny = 1;"),
+				Arguments.of("x = \"escaped \\\nline \\\" // not a comment\n\";\ny"),
+				Arguments.of("// comment with \" quote\nx = \"text with // slashes\";\n// \"\ny"),
+				Arguments.of("x = 1;\n\n\n   \n"),
+				Arguments.of("\n\n\n")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testChunkBoundaries(String input) {
+		for (int chunkSize = 1; chunkSize < input.length(); chunkSize++) {
+			assertSameTokens(input, chunkSize);
+		}
+	}
+
+	@Test
+	void testChunksAtLineSeparators() {
+		String input = "a\r\nb\n\"c\nd\"\ne // f\"\ng";
+		var chunks = ParallelLexer.split(input.toCharArray(), input.length(), 1);
+		assertEquals(List.of(
+				new ParallelLexer.Chunk(0, 3, 1),
+				new ParallelLexer.Chunk(3, 5, 2),
+				new ParallelLexer.Chunk(5, 11, 3),
+				new ParallelLexer.Chunk(11, 19, 5),
+				new ParallelLexer.Chunk(19, 20, 6)
+		), chunks);
+	}
+
+	private static Stream<Arguments> testSameErrors() {
+		return Stream.of(
+				Arguments.of("a = 1;\nb = @#$;\nc = 2;\nd = @;"),
+				Arguments.of("a = 1;\nb = 9223372036854775808;\nc = 2;"),
+				Arguments.of("a = 1;\nb = \"not closed\nc = 2;\nd = 3;"),
+				Arguments.of("a = 1;\nb = 2;\n" + "a".repeat(257) + "\nc = 3;")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameErrors(String input) {
+		var expected = assertThrows(LexicalException.class,
+				() -> readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError)));
+		var actual = assertThrows(LexicalException.class,
+				() -> readTokens(new ParallelLexer(input.toCharArray(), input.length(), ErrorManager::handleError, false, POOL, 1)));
+		assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+	@Test
+	void testEndOfTextCharacterInChunk() {
+		String input = "a = 1;\nb = 2;\u0003\nc = 3;\nd = 4;";
+		assertSameTokens(input, 1);
+		assertEquals(9, new ParallelLexer(input.toCharArray(), input.length(), ErrorManager::handleError, false, POOL, 1)
+				.getTokens().size());
+	}
+
+	private static void assertSameTokens(String input, int chunkSize) {
+		var expectedTokens = readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError));
+		var actualTokens = readTokens(new ParallelLexer(input.toCharArray(), input.length(), ErrorManager::handleError, false, POOL, chunkSize));
+		LexerTestUtils.assertSameTokens(expectedTokens, actualTokens);
+	}
+
+}
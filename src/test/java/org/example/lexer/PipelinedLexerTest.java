@@ -0,0 +1,157 @@
+package org.example.lexer;
+
+import org.example.error.details.ErrorDetails;
+import org.example.error.enums.ErrorType;
+import org.example.error.exception.LexicalException;
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.source.BufferedCharacterSource;
+import org.example.token.Token;
+import org.example.token.TokenType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.lexer.LexerTestUtils.readTokens;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelinedLexerTest {
+
+	private static Stream<Arguments> testSameTokens() {
+		return Stream.of(
+				Arguments.of("src/test/resources/lexer/escapeCharacter.txt"),
+				Arguments.of("src/test/resources/lexer/input.txt"),
+				Arguments.of("src/test/resources/lexer/positions.txt"),
+				Arguments.of("src/test/resources/interpreter/fibonacci.txt")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameTokens(String path) throws IOException {
+		List<Token> expectedTokens;
+		try (var reader = new BufferedReader(new FileReader(path))) {
+			expectedTokens = readTokens(new LexerImpl(reader, ErrorManager::handleError));
+		}
+		// capacity smaller than the number of tokens, so the lexer has to wait for the consumer
+		String input = Files.readString(Path.of(path));
+		var lexer = new PipelinedLexer(errorHandler -> new LexerImpl(
+				new BufferedCharacterSource(new StringReader(input)), errorHandler), ErrorManager::handleError, 4);
+		var actualTokens = readTokens(lexer);
+
+		assertEquals(expectedTokens.size(), actualTokens.size());
+		for (int i = 0; i < expectedTokens.size(); i++) {
+			Token expected = expectedTokens.get(i);
+			Token actual = actualTokens.get(i);
+			assertEquals(expected.getType(), actual.getType());
+			assertEquals((Object) expected.getValue(), actual.getValue());
+			assertEquals(expected.getPosition().getLineNumber(), actual.getPosition().getLineNumber());
+			assertEquals(expected.getPosition().getCharacterNumber(), actual.getPosition().getCharacterNumber());
+		}
+		assertEquals(TokenType.END_OF_FILE, lexer.next().getType());
+	}
+
+	@Test
+	void testErrorHandledOnConsumerThread() {
+		String input = "a = 1;\nb = @#$;\nc = 2;";
+		var expected = assertThrows(LexicalException.class,
+				() -> readTokens(new LexerImpl(new BufferedReader(new StringReader(input)), ErrorManager::handleError)));
+
+		List<Thread> handlingThreads = new ArrayList<>();
+		var lexer = new PipelinedLexer(errorHandler -> new LexerImpl(
+				new BufferedReader(new StringReader(input)), errorHandler), errorDetails -> {
+			handlingThreads.add(Thread.currentThread());
+			ErrorManager.handleError(errorDetails);
+		}, 2);
+		for (int i = 0; i < 6; i++) {
+			lexer.next();	// a = 1 ; b = are lexed before the error
+		}
+		var actual = assertThrows(LexicalException.class, lexer::next);
+
+		assertEquals(expected.getMessage(), actual.getMessage());
+		assertEquals(List.of(Thread.currentThread()), handlingThreads);
+	}
+
+	@Test
+	void testErrorsInOrderWithNonThrowingHandler() {
+		String input = "x = @;\ny = 9223372036854775808;\nz";
+		List<ErrorType> expectedErrors = new ArrayList<>();
+		List<ErrorType> actualErrors = new ArrayList<>();
+		List<TokenType> expectedTypes = readTypes(new LexerImpl(new BufferedReader(new StringReader(input)),
+				errorDetails -> expectedErrors.add(errorDetails.type())));
+		List<TokenType> actualTypes = readTypes(new PipelinedLexer(errorHandler -> new LexerImpl(
+				new BufferedReader(new StringReader(input)), errorHandler), errorDetails -> actualErrors.add(errorDetails.type())));
+
+		assertEquals(expectedTypes, actualTypes);
+		assertEquals(expectedErrors, actualErrors);
+		assertEquals(2, actualErrors.size());
+	}
+
+	@Test
+	void testLexerFailurePropagated() {
+		var lexer = new PipelinedLexer(errorHandler -> {
+			throw new IllegalStateException("broken source");
+		}, ErrorDetails -> {});
+
+		var exception = assertThrows(IllegalStateException.class, lexer::next);
+		assertEquals("broken source", exception.getMessage());
+		assertThrows(IllegalStateException.class, lexer::next);
+	}
+
+	@Test
+	void testLexerErrorPropagated() {
+		var lexer = new PipelinedLexer(errorHandler -> () -> {
+			throw new StackOverflowError();
+		}, ErrorManager::handleError);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			assertThrows(StackOverflowError.class, lexer::next);
+			assertThrows(StackOverflowError.class, lexer::next);
+		});
+	}
+
+	@Test
+	void testTakeReturnsWhenProducerFinished() throws InterruptedException {
+		var buffer = new SpscRingBuffer<Object>(4);
+		var producer = new Thread(() -> {
+			buffer.put("x");
+			buffer.finish();
+		});
+		producer.start();
+		producer.join();
+
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			assertEquals("x", buffer.take());
+			assertNull(buffer.take());
+		});
+	}
+
+	@Test
+	void testCloseStopsWaitingLexer() throws InterruptedException {
+		String input = "x ".repeat(10_000);
+		var lexer = new PipelinedLexer(errorHandler -> new LexerImpl(
+				new BufferedReader(new StringReader(input)), errorHandler), ErrorManager::handleError, 2);
+		assertEquals(TokenType.IDENTIFIER, lexer.next().getType());
+		lexer.close();
+
+		Thread.sleep(50);
+		assertTrue(Thread.getAllStackTraces().keySet().stream()
+				.noneMatch(thread -> thread.getName().equals("lexer") && thread.isAlive()));
+	}
+
+	private static List<TokenType> readTypes(Lexer lexer) {
+		return readTokens(lexer).stream().map(Token::getType).toList();
+	}
+
+}
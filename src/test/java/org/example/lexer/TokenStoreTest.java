@@ -0,0 +1,90 @@
+package org.example.lexer;
+
+import com.sun.management.ThreadMXBean;
+import org.example.error.manager.ErrorManager;
+import org.example.token.Token;
+import org.example.token.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.example.lexer.LexerTestUtils.assertSameTokens;
+import static org.example.lexer.LexerTestUtils.readTokens;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenStoreTest {
+
+	@Test
+	void testSpansReplayed() throws IOException {
+		// long enough for the spans to cross chunks
+		String text = Files.readString(Path.of("src/test/resources/parser/definitions.txt")).repeat(20)
+				+ "x = prawda; y = \"tekst\"; z = 2.5; // komentarz\n";
+		List<Token> tokens = withoutEnd(readTokens(new LexerImpl(new BufferedReader(new StringReader(text)),
+				ErrorManager::handleError)));
+		int middle = tokens.size() / 2;
+
+		var store = new TokenStore();
+		tokens.subList(0, middle).forEach(store::add);
+		TokenStore.Span first = store.span(0);
+		tokens.subList(middle, tokens.size()).forEach(store::add);
+		TokenStore.Span second = store.span(middle);
+
+		assertEquals(tokens.size(), store.size());
+		assertSameTokens(tokens.subList(0, middle), withoutEnd(readTokens(first.lexer())));
+		assertSameTokens(tokens.subList(middle, tokens.size()), withoutEnd(readTokens(second.lexer())));
+		List<Token> replayed = readTokens(second.lexer());
+		assertSameTokens(tokens.subList(middle, tokens.size()), withoutEnd(replayed));
+
+		Token last = tokens.get(tokens.size() - 1);
+		Token end = replayed.get(replayed.size() - 1);
+		assertEquals(last.getPosition().getLineNumber(), end.getPosition().getLineNumber());
+		assertEquals(last.getPosition().getCharacterNumber(), end.getPosition().getCharacterNumber());
+	}
+
+	@Test
+	void testStoreSmallerThanTokens() {
+		String text = "jeżeli (licznik >= 10) { licznik += 1; napisz(\"tekst\", 3.14); }\n".repeat(4000);
+		List<Token> tokens = withoutEnd(readTokens(new LexerImpl(new BufferedReader(new StringReader(text)),
+				ErrorManager::handleError)));
+		var threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		// the smallest of many measurements, so that class loading and compilation do not count
+		long stored = Long.MAX_VALUE;
+		long replayed = Long.MAX_VALUE;
+		for (int i = 0; i < 20; i++) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			var store = new TokenStore();
+			tokens.forEach(store::add);
+			TokenStore.Span span = store.span(0);
+			stored = Math.min(stored, threadBean.getThreadAllocatedBytes(threadId) - before);
+
+			// the array of token and position objects which a body kept before it was stored
+			before = threadBean.getThreadAllocatedBytes(threadId);
+			Lexer lexer = span.lexer();
+			Token[] body = new Token[tokens.size()];
+			for (int j = 0; j < body.length; j++) {
+				body[j] = lexer.next();
+			}
+			replayed = Math.min(replayed, threadBean.getThreadAllocatedBytes(threadId) - before);
+		}
+
+		assertTrue(tokens.size() > 60_000);
+		assertTrue(3 * stored < replayed, "stored in " + stored + " bytes, token objects take " + replayed);
+	}
+
+	/**
+	 * @return tokens without the END_OF_FILE token, which a store does not keep
+	 */
+	private static List<Token> withoutEnd(List<Token> tokens) {
+		assertEquals(TokenType.END_OF_FILE, tokens.get(tokens.size() - 1).getType());
+		return tokens.subList(0, tokens.size() - 1);
+	}
+
+}
@@ -0,0 +1,140 @@
+package org.example.parser;
+
+import org.example.error.exception.SyntacticException;
+import org.example.error.manager.ErrorManager;
+import org.example.programstructure.containers.Program;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalFrontEndTest {
+
+	private static final String SOURCE = """
+			pierwsza(a) {
+			  zwróć a + 1;
+			}
+
+			// komentarz z nawiasem }
+			klasa Punkt {
+			  Punkt(x, y) {
+			    tenże.x = x;
+			    tenże.y = y;
+			  }
+			}
+			druga() {
+			  napisz("tekst z nawiasem }");
+			}  trzecia() { zwróć 3; }
+			główna() {
+			  p = Punkt(1, 2);
+			  dla i w zakres(3) {
+			    jeżeli (i > 1) {
+			      napisz(pierwsza(i));
+			    }
+			  }
+			}
+			""";
+
+	@Test
+	void testSameProgramAsParser() throws IOException {
+		String text = Files.readString(Path.of("src/test/resources/parser/definitions.txt"));
+		assertSameProgram(text, new IncrementalFrontEnd(text, ErrorManager::handleError).parse());
+		assertSameProgram(SOURCE, new IncrementalFrontEnd(SOURCE, ErrorManager::handleError).parse());
+	}
+
+	@Test
+	void testEditInsideFunction() {
+		var frontEnd = new IncrementalFrontEnd(SOURCE, ErrorManager::handleError);
+		Program before = frontEnd.parse();
+		assertEquals(5, frontEnd.getLastParsedCount());
+
+		int offset = SOURCE.indexOf("zwróć 3");
+		Program after = frontEnd.edit(offset, "zwróć 3".length(), "zwróć 3 * 3");
+
+		assertEquals(1, frontEnd.getLastParsedCount());
+		assertSameProgram(frontEnd.getText(), after);
+		assertNotSame(before.functionDefinitions().get("trzecia"), after.functionDefinitions().get("trzecia"));
+		assertSame(before.functionDefinitions().get("druga"), after.functionDefinitions().get("druga"));
+		assertSame(before.functionDefinitions().get("główna"), after.functionDefinitions().get("główna"));
+		assertSame(before.classDefinitions().get("Punkt"), after.classDefinitions().get("Punkt"));
+	}
+
+	@Test
+	void testInsertedLinesMovePositions() {
+		var frontEnd = new IncrementalFrontEnd(SOURCE, ErrorManager::handleError);
+		Program before = frontEnd.parse();
+
+		Program after = frontEnd.edit(SOURCE.indexOf("zwróć a"), 0, "b = 1;\n\n\n  ");
+
+		assertEquals(1, frontEnd.getLastParsedCount());
+		assertSame(before.classDefinitions().get("Punkt"), after.classDefinitions().get("Punkt"));
+		assertSameProgram(frontEnd.getText(), after);
+	}
+
+	@Test
+	void testEditJoiningDefinitions() {
+		var frontEnd = new IncrementalFrontEnd(SOURCE, ErrorManager::handleError);
+		frontEnd.parse();
+		assertEquals(5, frontEnd.getSegmentCount());
+
+		// the closing bracket of druga() is removed, so the following definitions end up inside of it
+		int offset = SOURCE.indexOf("}  trzecia");
+		assertThrows(SyntacticException.class, () -> frontEnd.edit(offset, 1, ""));
+		assertEquals(3, frontEnd.getSegmentCount());
+
+		Program fixed = frontEnd.edit(offset, 0, "}");
+		assertEquals(5, frontEnd.getSegmentCount());
+		assertEquals(SOURCE, frontEnd.getText());
+		assertSameProgram(SOURCE, fixed);
+	}
+
+	@Test
+	void testDuplicateNameFixedByLaterEdit() {
+		var frontEnd = new IncrementalFrontEnd(SOURCE, ErrorManager::handleError);
+		frontEnd.parse();
+
+		String duplicated = SOURCE.replace("trzecia()", "druga()");
+		var exception = assertThrows(SyntacticException.class, () -> frontEnd.update(duplicated));
+		var expected = assertThrows(SyntacticException.class, () -> parse(duplicated));
+		assertEquals(expected.getMessage(), exception.getMessage());
+
+		Program renamed = frontEnd.update(SOURCE.replace("trzecia()", "czwarta()"));
+		assertTrue(renamed.functionDefinitions().containsKey("czwarta"));
+		assertFalse(renamed.functionDefinitions().containsKey("trzecia"));
+		assertSameProgram(frontEnd.getText(), renamed);
+	}
+
+	@Test
+	void testRandomEdits() {
+		var random = new Random(3);
+		var frontEnd = new IncrementalFrontEnd(SOURCE, ErrorManager::handleError);
+		frontEnd.parse();
+		String[] insertions = {"\n", "\r\n", "  ", "\n\n// }\n", "x = 1; "};
+		for (int i = 0; i < 200; i++) {
+			String text = frontEnd.getText();
+			int offset = text.indexOf(";", random.nextInt(text.length()));
+			if (offset < 0 || text.lastIndexOf("//", offset) > text.lastIndexOf('\n', offset)) {
+				continue;		// no statement end after the offset, or it is in a comment
+			}
+			Program program = frontEnd.edit(offset + 1, 0, insertions[random.nextInt(insertions.length)]);
+			assertSameProgram(frontEnd.getText(), program);
+		}
+	}
+
+	private static void assertSameProgram(String text, Program actual) {
+		Program expected = parse(text);
+		assertEquals(expected.functionDefinitions().keySet(), actual.functionDefinitions().keySet());
+		assertEquals(expected.classDefinitions().keySet(), actual.classDefinitions().keySet());
+		// positions are printed with the definitions
+		expected.functionDefinitions().forEach((name, definition) ->
+				assertEquals(definition.toString(), actual.functionDefinitions().get(name).toString()));
+		expected.classDefinitions().forEach((name, definition) ->
+				assertEquals(definition.toString(), actual.classDefinitions().get(name).toString()));
+	}
+
+}
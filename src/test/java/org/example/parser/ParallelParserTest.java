@@ -0,0 +1,116 @@
+package org.example.parser;
+
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorDetails;
+import org.example.error.exception.SyntacticException;
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.LexerImpl;
+import org.example.programstructure.containers.Program;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelParserTest {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	@Test
+	void testSameProgramAsParser() throws IOException {
+		String text = Files.readString(Path.of("src/test/resources/parser/definitions.txt"));
+		assertSameProgram(text, parseParallel(text, ErrorManager::handleError));
+		String generated = generate(200);
+		assertSameProgram(generated, parseParallel(generated, ErrorManager::handleError));
+	}
+
+	@Test
+	void testDuplicateNamesDeterministic() {
+		String text = generate(100) + "funkcja_42() {\n  zwróć 1;\n}\n" + generate(10)
+				+ "klasa Klasa_0 {\n}\n";
+		var expected = assertThrows(SyntacticException.class, () -> parse(text, ErrorManager::handleError));
+		for (int i = 0; i < 20; i++) {
+			var actual = assertThrows(SyntacticException.class, () -> parseParallel(text, ErrorManager::handleError));
+			assertEquals(expected.getMessage(), actual.getMessage());
+		}
+	}
+
+	@Test
+	void testDuplicateClassName() {
+		String text = generate(20) + "klasa Klasa_10 {\n  metoda() {\n  }\n}\n";
+		var expected = assertThrows(SyntacticException.class, () -> parse(text, ErrorManager::handleError));
+		var actual = assertThrows(SyntacticException.class, () -> parseParallel(text, ErrorManager::handleError));
+		assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+	@Test
+	void testErrorsReportedInOrder() {
+		// missing semicolons are not critical, the missing parenthesis in the last function stops parsing
+		String text = generate(30).replace("zwróć a + 1;", "zwróć a + 1")
+				+ "ostatnia( {\n}\n" + generate(5).replace("funkcja_", "inna_");
+		List<String> expected = new ArrayList<>();
+		List<String> actual = new ArrayList<>();
+		assertThrows(SyntacticException.class, () -> parse(text, collect(expected)));
+		assertThrows(SyntacticException.class, () -> parseParallel(text, collect(actual)));
+		assertEquals(31, expected.size());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void testLexicalErrorBeforeSyntaxError() {
+		String text = generate(30) + "zła() {\n  x = 1 +;\n}\n" + generate(5).replace("funkcja_", "inna_")
+				+ "  tekst = \"bez końca\n";
+		List<String> expected = new ArrayList<>();
+		List<String> actual = new ArrayList<>();
+		assertThrows(SyntacticException.class, () -> parse(text, collect(expected)));
+		assertThrows(SyntacticException.class, () -> parseParallel(text, collect(actual)));
+		assertEquals(expected, actual);
+	}
+
+	private static String generate(int count) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			builder.append("funkcja_").append(i).append("(a) {\n")
+					.append("  jeżeli (a > ").append(i).append(") {\n    zwróć a + 1;\n  }\n")
+					.append("  zwróć ").append(i).append(";\n}\n");
+			if (i % 10 == 0) {
+				builder.append("klasa Klasa_").append(i).append(" {\n  Klasa_").append(i)
+						.append("(x) {\n    tenże.x = x;\n  }\n}\n");
+			}
+		}
+		return builder.toString();
+	}
+
+	private static ErrorHandler collect(List<String> errors) {
+		return details -> errors.add(describe(details));
+	}
+
+	private static String describe(ErrorDetails details) {
+		return details.type() + " " + details.position().getLineNumber() + ":" + details.position().getCharacterNumber()
+				+ " " + details.expression();
+	}
+
+	private static void assertSameProgram(String text, Program actual) {
+		Program expected = parse(text, ErrorManager::handleError);
+		assertEquals(expected.functionDefinitions().keySet(), actual.functionDefinitions().keySet());
+		assertEquals(expected.classDefinitions().keySet(), actual.classDefinitions().keySet());
+		expected.functionDefinitions().forEach((name, definition) ->
+				assertEquals(definition.toString(), actual.functionDefinitions().get(name).toString()));
+		expected.classDefinitions().forEach((name, definition) ->
+				assertEquals(definition.toString(), actual.classDefinitions().get(name).toString()));
+	}
+
+	private static Program parseParallel(String text, ErrorHandler errorHandler) {
+		return new ParallelParser(handler -> new LexerImpl(new BufferedReader(new StringReader(text)), handler),
+				errorHandler, false, POOL, 1).parse();
+	}
+
+}
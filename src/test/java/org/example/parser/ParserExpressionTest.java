@@ -0,0 +1,94 @@
+package org.example.parser;
+
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.LexerImpl;
+import org.example.programstructure.containers.UserFunctionDefinition;
+import org.example.programstructure.expression.*;
+import org.example.programstructure.statement.ObjectAccess;
+import org.example.programstructure.statement.ReturnStatement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserExpressionTest {
+
+	private static Stream<Arguments> testPrecedence() {
+		return Stream.of(
+				Arguments.of("a + b * c - d", "((a ADD (b MULTIPLY c)) SUBTRACT d)"),
+				Arguments.of("a - b - c", "((a SUBTRACT b) SUBTRACT c)"),
+				Arguments.of("a / b * c", "((a DIVIDE b) MULTIPLY c)"),
+				Arguments.of("a lub b oraz c", "(a lub (b oraz c))"),
+				Arguments.of("a oraz b lub c oraz d", "((a oraz b) lub (c oraz d))"),
+				Arguments.of("a < b + c oraz d lub e", "(((a LESS (b ADD c)) oraz d) lub e)"),
+				Arguments.of("a + 1 == b * 2", "((a ADD 1) EQUAL (b MULTIPLY 2))"),
+				Arguments.of("nie a oraz -b * c", "((nie a) oraz ((nie b) MULTIPLY c))"),
+				Arguments.of("(a lub b) * (c - (d + e))", "((a lub b) MULTIPLY (c SUBTRACT (d ADD e)))"),
+				Arguments.of("a.b(c + d) * e", "(a.b MULTIPLY e)")
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testPrecedence(String expression, String expected) {
+		assertEquals(expected, render(parseReturned(expression)));
+	}
+
+	@Test
+	void testDeeplyNestedParentheses() {
+		int depth = 2000;
+		String expression = "(".repeat(depth) + "1" + " + 1)".repeat(depth);
+		Expression parsed = parseReturned(expression);
+		for (int i = 0; i < depth; i++) {
+			parsed = ((ArithmeticExpression) parsed).left();
+		}
+		assertEquals(1, ((LiteralInteger) parsed).value());
+	}
+
+	private static Expression parseReturned(String expression) {
+		String text = "f() {\n  zwróć " + expression + ";\n}\n";
+		var lexer = new LexerImpl(new BufferedReader(new StringReader(text)), ErrorManager::handleError);
+		var function = (UserFunctionDefinition) new ParserImpl(lexer, ErrorManager::handleError).parse()
+				.functionDefinitions().get("f");
+		return ((ReturnStatement) function.block().statements().get(0)).expression();
+	}
+
+	private static String render(Expression expression) {
+		if (expression instanceof OrExpression or) {
+			return "(" + render(or.left()) + " lub " + render(or.right()) + ")";
+		}
+		if (expression instanceof AndExpression and) {
+			return "(" + render(and.left()) + " oraz " + render(and.right()) + ")";
+		}
+		if (expression instanceof RelationalExpression relational) {
+			return "(" + render(relational.left()) + " " + relational.relationalType() + " " + render(relational.right()) + ")";
+		}
+		if (expression instanceof ArithmeticExpression arithmetic) {
+			return "(" + render(arithmetic.left()) + " " + arithmetic.additiveType() + " " + render(arithmetic.right()) + ")";
+		}
+		if (expression instanceof MultiplicativeExpression multiplicative) {
+			return "(" + render(multiplicative.left()) + " " + multiplicative.multiplicativeType() + " "
+					+ render(multiplicative.right()) + ")";
+		}
+		if (expression instanceof NegatedExpression negated) {
+			return "(nie " + render(negated.expression()) + ")";
+		}
+		if (expression instanceof IdentifierExpression identifier) {
+			return identifier.name();
+		}
+		if (expression instanceof LiteralInteger literal) {
+			return literal.value().toString();
+		}
+		if (expression instanceof ObjectAccess access) {
+			return render(access.left()) + "." + ((FunctionCallExpression) access.right()).name();
+		}
+		return expression.toString();
+	}
+
+}
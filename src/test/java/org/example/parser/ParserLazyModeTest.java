@@ -0,0 +1,92 @@
+package org.example.parser;
+
+import org.example.error.exception.SyntacticException;
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.programstructure.containers.LazyFunctionDefinition;
+import org.example.programstructure.containers.Program;
+import org.example.programstructure.containers.UserClassDefinition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserLazyModeTest {
+
+	@Test
+	void testBodiesParsedWhenResolved() throws IOException {
+		String text = Files.readString(Path.of("src/test/resources/parser/definitions.txt"));
+		Program eager = parse(text, false);
+		Program lazy = parse(text, true);
+
+		var main = (LazyFunctionDefinition) lazy.functionDefinitions().get("main");
+		var method = (LazyFunctionDefinition) ((UserClassDefinition) lazy.classDefinitions().get("Ułamek"))
+				.methods().get("rozszerz");
+		assertFalse(main.isResolved());
+		assertFalse(method.isResolved());
+		assertEquals(eager.functionDefinitions().get("main").parameters(), main.parameters());
+
+		assertEquals(eager.functionDefinitions().get("main").toString(), main.resolve().toString());
+		assertSame(main.resolve(), main.resolve());
+		assertFalse(method.isResolved());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"counter.txt", "definitions.txt", "factorial.txt", "fibonacci.txt", "reference.txt", "value.txt"})
+	void testSameOutput(String file) throws IOException {
+		String text = Files.readString(Path.of("src/test/resources/interpreter/" + file));
+		assertEquals(interpret(parse(text, false)), interpret(parse(text, true)));
+	}
+
+	@Test
+	void testErrorInUnusedFunctionIgnored() {
+		String text = """
+				nieużywana() {
+				  x = ;
+				}
+				główna() {
+				  napisz(1);
+				}
+				""";
+		assertThrows(SyntacticException.class, () -> parse(text, false));
+		assertEquals("1\n", interpret(parse(text, true)));
+	}
+
+	@Test
+	void testErrorReportedOnCall() {
+		String text = """
+				używana() {
+				  jeżeli (prawda) {
+				    x = ;
+				  }
+				}
+				główna() {
+				  używana();
+				}
+				""";
+		var expected = assertThrows(SyntacticException.class, () -> parse(text, false));
+		Program program = parse(text, true);
+		var actual = assertThrows(SyntacticException.class, () -> interpret(program));
+		assertEquals(expected.getMessage(), actual.getMessage());
+	}
+
+	@Test
+	void testBodyNotClosed() {
+		String text = "główna() {\n  jeżeli (prawda) {\n    napisz(1);\n  }\n";
+		var exception = assertThrows(SyntacticException.class, () -> parse(text, true));
+		assertTrue(exception.getMessage().contains("główna ( ) {"), exception.getMessage());
+	}
+
+	private static String interpret(Program program) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(program);
+		return interpreter.getOutput();
+	}
+
+}
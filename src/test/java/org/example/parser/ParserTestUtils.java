@@ -0,0 +1,36 @@
+package org.example.parser;
+
+import org.example.error.ErrorHandler;
+import org.example.error.manager.ErrorManager;
+import org.example.lexer.LexerImpl;
+import org.example.programstructure.containers.Program;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+
+/**
+ * Parses programs given as text, for tests which need a parsed program rather than test the parser
+ */
+public final class ParserTestUtils {
+
+	private ParserTestUtils() {
+	}
+
+	public static Program parse(String text) {
+		return parse(text, ErrorManager::handleError);
+	}
+
+	public static Program parse(String text, ErrorHandler errorHandler) {
+		var lexer = new LexerImpl(new BufferedReader(new StringReader(text)), errorHandler);
+		return new ParserImpl(lexer, errorHandler).parse();
+	}
+
+	/**
+	 * @param lazy true to parse bodies of functions when they are first called
+	 */
+	public static Program parse(String text, boolean lazy) {
+		var lexer = new LexerImpl(new BufferedReader(new StringReader(text)), ErrorManager::handleError);
+		return new ParserImpl(lexer, ErrorManager::handleError, lazy).parse();
+	}
+
+}
@@ -0,0 +1,176 @@
+package org.example.parser;
+
+import org.example.error.ErrorHandler;
+import org.example.error.details.ErrorDetails;
+import org.example.error.exception.SemanticException;
+import org.example.error.exception.SyntacticException;
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.lexer.LexerImpl;
+import org.example.programstructure.containers.ClassDefinition;
+import org.example.programstructure.containers.FunctionDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingParserTest {
+
+	private static final String PROGRAM = """
+			główna() {
+			  l = Licznik(2);
+			  dla i w zakres(0, 4) {
+			    l.zwiększ(kwadrat(i));
+			  }
+			  napisz(l.wartość);
+			}
+			kwadrat(x) {
+			  zwróć x * x;
+			}
+			klasa Licznik {
+			  Licznik(początek) {
+			    tenże.wartość = początek;
+			  }
+			  zwiększ(o) {
+			    tenże.wartość += o;
+			  }
+			}
+			""";
+
+	@Test
+	void testDefinitionsInSourceOrder() {
+		List<String> names = new ArrayList<>();
+		try (var parser = streaming(new StringReader(PROGRAM), ErrorManager::handleError)) {
+			while (parser.next(names(names))) {
+			}
+		}
+		assertEquals(List.of("główna", "kwadrat", "Licznik"), names);
+	}
+
+	@Test
+	void testDefinitionBeforeEndOfSource() throws IOException {
+		var writer = new PipedWriter();
+		var reader = new PipedReader(writer);
+		List<String> names = new ArrayList<>();
+		try (var parser = streaming(reader, ErrorManager::handleError)) {
+			// the parser looks one token ahead of the closing bracket
+			writer.write("pierwsza() {\n  zwróć 1;\n}\ndruga(");
+			writer.flush();
+			assertTrue(parser.next(names(names)));
+			assertEquals(List.of("pierwsza"), names);
+
+			writer.write(") {\n  zwróć 2;\n}\n");
+			writer.close();
+			assertTrue(parser.next(names(names)));
+			assertFalse(parser.next(names(names)));
+		}
+		assertEquals(List.of("pierwsza", "druga"), names);
+	}
+
+	@Test
+	void testErrorsReportedInOrder() {
+		String text = PROGRAM.replace("zwróć x * x;", "zwróć x * x") + "zła( {\n}\n";
+		List<String> expected = new ArrayList<>();
+		List<String> actual = new ArrayList<>();
+		assertThrows(SyntacticException.class, () -> parse(text, collect(expected)));
+		try (var parser = streaming(new StringReader(text), details -> actual.add(describe(details)))) {
+			assertThrows(SyntacticException.class, () -> {
+				while (parser.next(names(new ArrayList<>()))) {
+				}
+			});
+		}
+		assertEquals(2, expected.size());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void testSameOutputAsParsedProgram() {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(parse(PROGRAM, ErrorManager::handleError));
+		assertEquals("16\n", interpreter.getOutput());
+		assertEquals(interpreter.getOutput(), runStreaming(PROGRAM).getOutput());
+	}
+
+	@Test
+	void testSyntaxErrorAfterMainReportedWhenItReturns() {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		try (var parser = streaming(new StringReader(PROGRAM + "zła() {\n  x = ;\n}\n"), ErrorManager::handleError)) {
+			assertThrows(SyntacticException.class, () -> interpreter.execute(parser));
+		}
+		assertEquals("16\n", interpreter.getOutput());
+	}
+
+	@Test
+	void testErrorBeforeMainStopsIt() {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		String text = "zła() {\n  x = ;\n}\n" + PROGRAM;
+		try (var parser = streaming(new StringReader(text), ErrorManager::handleError)) {
+			assertThrows(SyntacticException.class, () -> interpreter.execute(parser));
+		}
+		assertEquals("", interpreter.getOutput());
+	}
+
+	@Test
+	void testUndefinedFunctionAndMissingMain() {
+		assertThrows(SemanticException.class, () -> runStreaming(PROGRAM.replace("kwadrat(i)", "sześcian(i)")));
+		assertThrows(SemanticException.class, () -> runStreaming(PROGRAM.replace("główna()", "poboczna()")));
+	}
+
+	@Test
+	void testStackOverflowOnParserThreadReachesConsumer() {
+		// nested deeply enough to overflow the stack of the parser thread
+		String text = "główna() {\n  x = " + "(".repeat(200_000) + "1" + ")".repeat(200_000) + ";\n}\n";
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+			try (var parser = streaming(new StringReader(text), ErrorManager::handleError)) {
+				assertThrows(StackOverflowError.class, () -> parser.next(names(new ArrayList<>())));
+			}
+		});
+	}
+
+	private static Interpreter runStreaming(String text) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		try (var parser = streaming(new StringReader(text), ErrorManager::handleError)) {
+			interpreter.execute(parser);
+		}
+		return interpreter;
+	}
+
+	private static StreamingParser streaming(Reader reader, ErrorHandler errorHandler) {
+		return new StreamingParser(handler -> new ParserImpl(new LexerImpl(new BufferedReader(reader), handler), handler),
+				errorHandler);
+	}
+
+	private static DefinitionListener names(List<String> names) {
+		return new DefinitionListener() {
+			@Override
+			public void functionParsed(FunctionDefinition functionDefinition) {
+				names.add(functionDefinition.name());
+			}
+
+			@Override
+			public void classParsed(ClassDefinition classDefinition) {
+				names.add(classDefinition.name());
+			}
+		};
+	}
+
+	private static ErrorHandler collect(List<String> errors) {
+		return details -> errors.add(describe(details));
+	}
+
+	private static String describe(ErrorDetails details) {
+		return details.type() + " " + details.position().getLineNumber() + ":" + details.position().getCharacterNumber()
+				+ " " + details.expression();
+	}
+
+}
@@ -0,0 +1,87 @@
+package org.example.programstructure.arena;
+
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.programstructure.containers.LazyFunctionDefinition;
+import org.example.programstructure.containers.Program;
+import org.example.programstructure.containers.UserClassDefinition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AstArenaTest {
+
+	@Test
+	void testDecodedSameAsParsed() throws IOException {
+		Program parsed = parse(Files.readString(Path.of("src/test/resources/parser/definitions.txt")));
+		Program decoded = AstArena.encode(parsed).toProgram();
+
+		assertEquals(parsed.functionDefinitions().keySet(), decoded.functionDefinitions().keySet());
+		assertEquals(parsed.classDefinitions().keySet(), decoded.classDefinitions().keySet());
+		// positions are printed with the records
+		parsed.functionDefinitions().forEach((name, definition) -> assertEquals(definition.toString(),
+				((LazyFunctionDefinition) decoded.functionDefinitions().get(name)).resolve().toString()));
+		var parsedClass = (UserClassDefinition) parsed.classDefinitions().get("Ułamek");
+		var decodedClass = (UserClassDefinition) decoded.classDefinitions().get("Ułamek");
+		assertEquals(parsedClass.position().toString(), decodedClass.position().toString());
+		parsedClass.methods().forEach((name, method) -> assertEquals(method.toString(),
+				((LazyFunctionDefinition) decodedClass.methods().get(name)).resolve().toString()));
+	}
+
+	@Test
+	void testCursor() {
+		AstArena arena = AstArena.encode(parse("""
+				główna() {
+				  napisz(1 + 2 * x, "tekst");
+				  napisz(1);
+				}
+				"""));
+		AstCursor cursor = arena.cursor();
+		assertEquals(NodeKind.PROGRAM, cursor.kind());
+		assertEquals(1, cursor.listLength());
+
+		cursor.moveTo(cursor.listElement(0));
+		assertEquals(NodeKind.FUNCTION, cursor.kind());
+		assertEquals("główna", cursor.name());
+		assertEquals(0, cursor.listLength());
+
+		int block = cursor.moveTo(cursor.third()).node();
+		assertEquals(2, cursor.listLength());
+		int call = cursor.listElement(0);
+		assertEquals("napisz", cursor.moveTo(call).name());
+		assertEquals(2, cursor.moveTo(call).listLength());
+
+		cursor.moveTo(cursor.listElement(0));
+		assertEquals(NodeKind.ARITHMETIC, cursor.kind());
+		int multiplication = cursor.second();
+		assertEquals(1, cursor.moveTo(cursor.first()).value());
+		assertEquals(NodeKind.MULTIPLICATIVE, cursor.moveTo(multiplication).kind());
+		assertEquals("x", cursor.moveTo(cursor.second()).name());
+		assertEquals(2, cursor.position().getLineNumber());
+		assertEquals(18, cursor.position().getCharacterNumber());
+
+		// names are stored once in the symbol table
+		int secondCall = cursor.moveTo(block).listElement(1);
+		assertEquals("napisz", cursor.moveTo(secondCall).name());
+		assertSame(cursor.moveTo(call).name(), cursor.moveTo(secondCall).name());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"counter.txt", "definitions.txt", "factorial.txt", "fibonacci.txt", "reference.txt", "value.txt"})
+	void testSameOutput(String file) throws IOException {
+		String text = Files.readString(Path.of("src/test/resources/interpreter/" + file));
+		var records = new Interpreter(ErrorManager::handleError, true);
+		records.execute(parse(text));
+		var arena = new Interpreter(ErrorManager::handleError, true);
+		arena.execute(AstArena.encode(parse(text)));
+		assertEquals(records.getOutput(), arena.getOutput());
+	}
+
+}
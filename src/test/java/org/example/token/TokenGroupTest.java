@@ -1,9 +1,13 @@
 package org.example.token;
 
+import org.example.commons.KeywordTable;
 import org.example.commons.TokenGroups;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class TokenGroupTest {
 
 	@Test
@@ -24,4 +28,53 @@ public class TokenGroupTest {
 		Assertions.assertEquals(TokenType.FALSE, TokenGroups.BOOL_LITERALS.get("fałsz"));
 		Assertions.assertEquals(TokenType.TRUE, TokenGroups.BOOL_LITERALS.get("prawda"));
 	}
+
+	@Test
+	void keywordTableTest() {
+		TokenGroups.KEYWORDS.forEach((keyword, tokenType) ->
+				Assertions.assertEquals(tokenType, TokenGroups.KEYWORD_TABLE.get(keyword)));
+		TokenGroups.BOOL_LITERALS.forEach((literal, tokenType) ->
+				Assertions.assertEquals(tokenType, TokenGroups.KEYWORD_TABLE.get(literal)));
+		Assertions.assertNull(TokenGroups.KEYWORD_TABLE.get("zwróćmy"));
+		Assertions.assertNull(TokenGroups.KEYWORD_TABLE.get("dl"));
+		Assertions.assertNull(TokenGroups.KEYWORD_TABLE.get("Dla"));
+	}
+
+	@Test
+	void keywordTableIncrementalHashTest() {
+		char[] chars = "x = jeżeli".toCharArray();
+		int hash = 0;
+		for (int i = 4; i < chars.length; i++) {
+			hash = KeywordTable.hash(hash, chars[i]);
+		}
+		Assertions.assertEquals(TokenType.IF, TokenGroups.KEYWORD_TABLE.get(chars, 4, 6, hash));
+		Assertions.assertNull(TokenGroups.KEYWORD_TABLE.get(chars, 0, 1, KeywordTable.hash(0, 'x')));
+	}
+
+	@Test
+	void keywordTableWithoutCollisionsTest() {
+		Map<String, TokenType> words = new HashMap<>();
+		for (int i = 0; i < 500; i++) {
+			words.put("word" + i, TokenType.IDENTIFIER);
+		}
+		words.put("Aa", TokenType.TRUE);
+		words.put("BB", TokenType.FALSE);	// same String.hashCode() as "Aa"
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new KeywordTable(words));
+
+		words.remove("BB");
+		var table = new KeywordTable(words);
+		words.forEach((word, tokenType) -> Assertions.assertEquals(tokenType, table.get(word)));
+	}
+
+	@Test
+	void symbolTableTest() {
+		TokenGroups.SYMBOLS.forEach((symbol, tokenType) -> {
+			if (symbol.length() == 1) {
+				Assertions.assertEquals(tokenType, TokenGroups.getSymbol(symbol.charAt(0)));
+			}
+		});
+		Assertions.assertNull(TokenGroups.getSymbol('!'));
+		Assertions.assertNull(TokenGroups.getSymbol('a'));
+		Assertions.assertNull(TokenGroups.getSymbol('ż'));
+	}
 }
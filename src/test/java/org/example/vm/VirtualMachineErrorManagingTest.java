@@ -0,0 +1,57 @@
+package org.example.vm;
+
+import org.example.error.exception.SemanticException;
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.InterpreterErrorManagingTest;
+import org.example.programstructure.containers.Program;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the errors of InterpreterErrorManagingTest on the virtual machine and compares both backends on others
+ */
+public class VirtualMachineErrorManagingTest extends InterpreterErrorManagingTest {
+
+	@Override
+	protected void execute(Program program) {
+		new VirtualMachine(ErrorManager::handleError).execute(program);
+	}
+
+	private static Stream<String> testSameError() {
+		return Stream.of(
+				"główna() {\n  l = Lista();\n  l.wstaw(1);\n}\n",
+				"główna() {\n  l = Lista();\n  l.dodaj(1, 2);\n}\n",
+				"główna() {\n  l = zakres(0, 3);\n  napisz(l.pobierz(\"a\"));\n}\n",
+				"główna() {\n  l = zakres(0, 3);\n  l.usuń(-1);\n}\n",
+				"główna() {\n  l = zakres(0, 1.5);\n}\n",
+				"główna() {\n  dla i w zakres(prawda, 3) {\n  }\n}\n",
+				"główna() {\n  x = -\"tekst\";\n}\n",
+				"główna() {\n  x = 1.5 / 0;\n}\n",
+				"główna() {\n  x = 2;\n  x.y = 3;\n}\n",
+				"klasa A {\n  A() { }\n  ustaw() {\n    tenże.nowy = 1;\n  }\n}\ngłówna() {\n  A().ustaw();\n}\n",
+				"klasa A {\n  A(a) { }\n}\ngłówna() {\n  a = A();\n}\n",
+				"klasa A {\n  A() { }\n  m(x) { }\n}\ngłówna() {\n  A().m();\n}\n",
+				"f() {\n  jeżeli (1) { }\n}\ngłówna() {\n  napisz(\"przed\");\n  f();\n}\n",
+				"główna() {\n  x = fałsz lub 1;\n}\n",
+				"główna() {\n  x = nieznana(y);\n}\n"
+		);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameError(String text) {
+		var interpreterException = assertThrows(SemanticException.class,
+				() -> new Interpreter(ErrorManager::handleError).execute(parse(text)));
+		var virtualMachineException = assertThrows(SemanticException.class,
+				() -> new VirtualMachine(ErrorManager::handleError).execute(parse(text)));
+		assertEquals(interpreterException.getMessage(), virtualMachineException.getMessage());
+	}
+
+}
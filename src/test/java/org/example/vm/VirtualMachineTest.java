@@ -0,0 +1,289 @@
+package org.example.vm;
+
+import org.example.error.exception.SemanticException;
+import org.example.error.manager.ErrorManager;
+import org.example.interpreter.Interpreter;
+import org.example.interpreter.InterpreterTest;
+import org.example.programstructure.containers.Program;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.example.parser.ParserTestUtils.parse;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the programs of InterpreterTest on the virtual machine and compares both backends on other programs
+ */
+public class VirtualMachineTest extends InterpreterTest {
+
+	private static final String LISTS = """
+			główna() {
+			  lista = Lista();
+			  dla i w zakres(0, 5) {
+			    lista.dodaj(i * i);
+			  }
+			  napisz(lista.długość(), " ", lista.pobierz(3));
+			  napisz(lista.usuń(0), " ", lista.długość());
+			  suma = 0;
+			  dla x w zakres(0, 5) {
+			    suma += x;
+			  }
+			  napisz(suma);
+			  r = zakres(2, 6);
+			  r.dodaj(10);
+			  napisz(r.długość(), " ", r.pobierz(4));
+			}
+			""";
+
+	private static final String CLASSES = """
+			klasa Punkt {
+			  Punkt(x, y) {
+			    tenże.x = x;
+			    tenże.y = y;
+			  }
+			  przesuń(dx) {
+			    tenże.x += dx;
+			    zwróć tenże;
+			  }
+			  opis() {
+			    zwróć "Punkt";
+			  }
+			}
+			klasa Odcinek {
+			  Odcinek(a, b) {
+			    tenże.a = a;
+			    tenże.b = b;
+			  }
+			  opis() {
+			    zwróć "Odcinek";
+			  }
+			}
+			główna() {
+			  p = Punkt(1, 2);
+			  napisz(p.przesuń(3).przesuń(1).x, " ", p.y);
+			  o = Odcinek(p, Punkt(0, 0));
+			  o.a.x = 7;
+			  napisz(p.x, " ", o.b.x);
+			}
+			""";
+
+	private static final String CONTROL_FLOW = """
+			pierwsza(n) {
+			  jeżeli (n < 2) {
+			    zwróć fałsz;
+			  }
+			  dla d w zakres(2, n) {
+			    jeżeli (d * d > n) {
+			      zwróć prawda;
+			    }
+			    jeżeli (n / d * d == n) {
+			      zwróć fałsz;
+			    }
+			  }
+			  zwróć prawda;
+			}
+			fib(n) {
+			  jeżeli (n < 2) {
+			    zwróć n;
+			  } inaczej {
+			    zwróć fib(n - 1) + fib(n - 2);
+			  }
+			}
+			główna() {
+			  liczba = 0;
+			  dla n w zakres(0, 50) {
+			    jeżeli (pierwsza(n) oraz nie (n == 2) lub n == 0) {
+			      liczba += 1;
+			    }
+			  }
+			  napisz(liczba);
+			  napisz(fib(15));
+			  napisz(1.5 * 2, " ", 7 / 2, " ", 7.0 / 2, " ", -(3 - 5), " ", nie fałsz);
+			  napisz(2000000000 + 2000000000, " ", 3 >= 3.0, " ", "a", 1, prawda);
+			}
+			""";
+
+	// variables and attributes holding objects are passed by reference, as in the interpreter
+	private static final String REFERENCES = """
+			klasa Punkt {
+			  Punkt(x) {
+			    tenże.x = x;
+			  }
+			  przesuń(punkt) {
+			    punkt = Punkt(punkt.x + tenże.x);
+			  }
+			}
+			klasa Odcinek {
+			  Odcinek(a) {
+			    tenże.a = a;
+			  }
+			}
+			zastąp(p) {
+			  p = Punkt(7);
+			}
+			dalej(p) {
+			  zastąp(p);
+			}
+			zamień(p, q) {
+			  p = Punkt(10);
+			  napisz(q.x);
+			}
+			liczba(p) {
+			  p = 3;
+			  p += 1;
+			}
+			przypisz(p) {
+			  p = Punkt(8);
+			  zwróć 9;
+			}
+			główna() {
+			  a = Punkt(1);
+			  zastąp(a);
+			  napisz(a.x);
+			  a = Punkt(1);
+			  dalej(a);
+			  napisz(a.x);
+			  o = Odcinek(Punkt(2));
+			  zastąp(o.a);
+			  napisz(o.a.x);
+			  b = Punkt(1);
+			  zamień(b, b);
+			  napisz(b.x);
+			  c = Punkt(2);
+			  c.przesuń(c);
+			  napisz(c.x);
+			  d = Punkt(1);
+			  liczba(d);
+			  napisz(d);
+			  e = 5;
+			  liczba(e);
+			  napisz(e);
+			  g = Punkt(1);
+			  g = przypisz(g);
+			  napisz(g);
+			}
+			""";
+
+	// a list keeps the reference of a variable holding an object and a copy of a number
+	private static final String LIST_OF_REFERENCES = """
+			klasa Punkt {
+			  Punkt(x) {
+			    tenże.x = x;
+			  }
+			}
+			główna() {
+			  lista = Lista();
+			  a = Punkt(1);
+			  lista.dodaj(a);
+			  a = Punkt(2);
+			  x = 1;
+			  lista.dodaj(x);
+			  x = 5;
+			  napisz(lista.pobierz(0).x, " ", lista.pobierz(1) + 1);
+			  b = lista.usuń(0);
+			  b.x = 3;
+			  napisz(a.x);
+			}
+			""";
+
+	@Override
+	protected String execute(Program program) {
+		VirtualMachine virtualMachine = new VirtualMachine(ErrorManager::handleError, true);
+		virtualMachine.execute(program);
+		return virtualMachine.getOutput();
+	}
+
+	private static Stream<String> testSameOutput() {
+		return Stream.of(LISTS, CLASSES, CONTROL_FLOW, REFERENCES, LIST_OF_REFERENCES);
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	void testSameOutput(String text) {
+		var interpreter = new Interpreter(ErrorManager::handleError, true);
+		interpreter.execute(parse(text));
+		var virtualMachine = new VirtualMachine(ErrorManager::handleError, true);
+		virtualMachine.execute(parse(text));
+		assertEquals(interpreter.getOutput(), virtualMachine.getOutput());
+	}
+
+	@Test
+	void testObjects() {
+		assertEquals("5 2\n7 0\n", execute(parse(CLASSES)));
+	}
+
+	@Test
+	void testReferences() {
+		assertEquals("7\n7\n7\n10\n10\n4\n4\n5\n9\n", execute(parse(REFERENCES)));
+	}
+
+	@Test
+	void testListKeepsReferences() {
+		assertEquals("2 2\n3\n", execute(parse(LIST_OF_REFERENCES)));
+	}
+
+	@Test
+	void testMethodOfAnotherClassAtTheSameCall() {
+		String text = """
+				klasa A {
+				  A() { }
+				  nazwa() {
+				    zwróć "A";
+				  }
+				}
+				klasa B {
+				  B() { }
+				  nazwa() {
+				    zwróć "B";
+				  }
+				}
+				nazwij(o) {
+				  napisz(o.nazwa());
+				}
+				główna() {
+				  nazwij(A());
+				  nazwij(B());
+				  nazwij(A());
+				  nazwij(Lista());
+				}
+				""";
+		var virtualMachine = new VirtualMachine(ErrorManager::handleError, true);
+		var exception = assertThrows(SemanticException.class, () -> virtualMachine.execute(parse(text)));
+		assertEquals("A\nB\nA\n", virtualMachine.getOutput());
+		assertEquals("Semantic error of type: METHOD_NOT_DEFINED: << Lista.nazwa() >> at line 14",
+				exception.getMessage());
+	}
+
+	@Test
+	void testRemoveOutOfBoundsNotCopied() {
+		String text = """
+				główna() {
+				  r = zakres(0, 2000000000);
+				  r.usuń(-1);
+				}
+				""";
+		var virtualMachine = new VirtualMachine(ErrorManager::handleError, true);
+		var exception = assertThrows(SemanticException.class, () -> virtualMachine.execute(parse(text)));
+		assertEquals("Semantic error of type: INDEX_OUT_OF_BOUND: << usuń(- 1) >> at line 3", exception.getMessage());
+	}
+
+	@Test
+	void testDeepRecursion() {
+		String text = """
+				suma(n) {
+				  jeżeli (n == 0) {
+				    zwróć 0;
+				  }
+				  zwróć n + suma(n - 1);
+				}
+				główna() {
+				  napisz(suma(2000));
+				}
+				""";
+		assertEquals("2001000\n", execute(parse(text)));
+	}
+
+}
@@ -1,2 +1,2 @@
 #! /usr/bin/bash
-java --enable-preview -jar build/libs/Viper-1.0-SNAPSHOT.jar $1
\ No newline at end of file
+java --enable-preview --add-modules jdk.incubator.vector -jar build/libs/Viper-1.0-SNAPSHOT.jar "$@"
\ No newline at end of file